@@ -0,0 +1,172 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.BookField;
+import dev.coms4156.project.individualproject.model.Inventory;
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+/**
+ * This class writes {@link Book} and book list response bodies as CBOR (RFC 8949) for clients
+ * that send {@code Accept: application/cbor}, so that services calling the catalog at high
+ * rates neither write nor parse text. A book is encoded as a map with the same keys, order and
+ * values as its JSON form, so a generic CBOR decoder yields the same tree as a JSON parser
+ * does for the JSON response. Streamed lists are written as arrays of indefinite length, one
+ * book at a time. Field projections apply as they do to JSON.
+ *
+ * <p>JSON remains the default: this converter is registered after {@link BookJsonConverter},
+ * which is chosen whenever the client accepts both.
+ */
+public final class BookCborConverter implements HttpMessageConverter<Object> {
+
+  private static final byte[][] KEYS = new byte[BookField.values().length][];
+
+  static {
+    for (BookField field : BookField.values()) {
+      KEYS[field.ordinal()] = CborWriter.encode(field.jsonName().getValue());
+    }
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return (clazz == Book.class || clazz == BookList.class || clazz == StreamedBooks.class)
+        && (mediaType == null || MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType));
+  }
+
+  @Override
+  public List<MediaType> getSupportedMediaTypes() {
+    return List.of(MediaType.APPLICATION_CBOR);
+  }
+
+  @Override
+  public Object read(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new UnsupportedOperationException("BookCborConverter only writes responses");
+  }
+
+  @Override
+  public void write(Object body, MediaType contentType, HttpOutputMessage outputMessage)
+      throws IOException {
+    HttpHeaders headers = outputMessage.getHeaders();
+    headers.setContentType(MediaType.APPLICATION_CBOR);
+    headers.setVary(List.of(HttpHeaders.ACCEPT));
+    CborWriter cbor = new CborWriter(outputMessage.getBody());
+    if (body instanceof Book book) {
+      writeBook(book, cbor, null);
+    } else if (body instanceof BookList books) {
+      cbor.writeArrayHeader(books.size());
+      for (Book book : books) {
+        writeBook(book, cbor, null);
+      }
+    } else {
+      StreamedBooks streamed = (StreamedBooks) body;
+      cbor.writeIndefiniteArrayHeader();
+      int written = 0;
+      for (Book book : streamed.books()) {
+        if (written == streamed.limit()) {
+          break;
+        }
+        writeBook(book, cbor, streamed.fields());
+        if (++written % StreamedBooks.FLUSH_INTERVAL == 0) {
+          cbor.flush();
+        }
+      }
+      cbor.writeBreak();
+    }
+    cbor.flush();
+  }
+
+  /**
+   * Writes the given fields of a book as a CBOR map, from a single inventory version.
+   */
+  static void writeBook(Book book, CborWriter cbor, Set<BookField> fields) throws IOException {
+    Inventory inventory = book.getInventory();
+    cbor.writeMapHeader(fields == null ? KEYS.length : fields.size());
+    if (has(fields, BookField.TITLE)) {
+      key(cbor, BookField.TITLE);
+      cbor.writeString(book.getTitle());
+    }
+    if (has(fields, BookField.AUTHORS)) {
+      key(cbor, BookField.AUTHORS);
+      writeStrings(book.getAuthors(), cbor);
+    }
+    if (has(fields, BookField.LANGUAGE)) {
+      key(cbor, BookField.LANGUAGE);
+      cbor.writeString(book.getLanguage());
+    }
+    if (has(fields, BookField.SHELVING_LOCATION)) {
+      key(cbor, BookField.SHELVING_LOCATION);
+      cbor.writeString(book.getShelvingLocation());
+    }
+    if (has(fields, BookField.PUBLICATION_DATE)) {
+      key(cbor, BookField.PUBLICATION_DATE);
+      cbor.writeString(book.getPublicationDate());
+    }
+    if (has(fields, BookField.PUBLISHER)) {
+      key(cbor, BookField.PUBLISHER);
+      cbor.writeString(book.getPublisher());
+    }
+    if (has(fields, BookField.SUBJECTS)) {
+      key(cbor, BookField.SUBJECTS);
+      writeStrings(book.getSubjects(), cbor);
+    }
+    if (has(fields, BookField.ID)) {
+      key(cbor, BookField.ID);
+      cbor.writeInt(book.getId());
+    }
+    if (has(fields, BookField.AMOUNT_OF_TIMES_CHECKED_OUT)) {
+      key(cbor, BookField.AMOUNT_OF_TIMES_CHECKED_OUT);
+      cbor.writeInt(inventory.getAmountOfTimesCheckedOut());
+    }
+    if (has(fields, BookField.COPIES_AVAILABLE)) {
+      key(cbor, BookField.COPIES_AVAILABLE);
+      cbor.writeInt(inventory.getCopiesAvailable());
+    }
+    if (has(fields, BookField.RETURN_DATES)) {
+      key(cbor, BookField.RETURN_DATES);
+      int[] days = inventory.dueDays();
+      List<String> others = inventory.otherDueDates();
+      cbor.writeArrayHeader(days.length + others.size());
+      for (int day : days) {
+        cbor.writeString(LoanCalendar.format(day));
+      }
+      for (String date : others) {
+        cbor.writeString(date);
+      }
+    }
+    if (has(fields, BookField.TOTAL_COPIES)) {
+      key(cbor, BookField.TOTAL_COPIES);
+      cbor.writeInt(inventory.getTotalCopies());
+    }
+  }
+
+  private static boolean has(Set<BookField> fields, BookField field) {
+    return fields == null || fields.contains(field);
+  }
+
+  private static void key(CborWriter cbor, BookField field) throws IOException {
+    cbor.writeEncoded(KEYS[field.ordinal()]);
+  }
+
+  private static void writeStrings(List<String> values, CborWriter cbor) throws IOException {
+    if (values == null) {
+      cbor.writeNull();
+      return;
+    }
+    cbor.writeArrayHeader(values.size());
+    for (String value : values) {
+      cbor.writeString(value);
+    }
+  }
+}
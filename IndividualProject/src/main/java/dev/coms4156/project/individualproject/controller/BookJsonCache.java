@@ -0,0 +1,246 @@
+package dev.coms4156.project.individualproject.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * This class defines a bounded cache of the JSON representation of catalog books, so that hot
+ * books are serialized once rather than on every request. Each entry also carries a hash of
+ * its bytes from which entity tags are built.
+ *
+ * <p>Each entry records the {@code Book} and the {@link Inventory} version it was serialized
+ * from, and is only served while the catalog book still holds that exact version, so lookups
+ * and fills never take the book's inventory lock and never wait for a checkout. A fill that
+ * races with a change at worst stores an entry that the next lookup sees is stale. Entries are
+ * also dropped whenever the service reports a change to their book: a checkout, a return, a
+ * copy being added or deleted, or the book being replaced.
+ *
+ * <p>The cache is split into segments by id, each a segmented LRU: new entries start on a
+ * probation list and move to a protected list on their second hit, so a single pass over the
+ * whole catalog only churns probation and does not flush the books that are actually hot.
+ */
+@Component
+public class BookJsonCache {
+
+  private static final int SEGMENTS = 16;
+
+  /**
+   * A serialized book.
+   *
+   * @param json The UTF-8 JSON of the book.
+   * @param tag A 64-bit hash of {@code json}.
+   * @param book The book that was serialized.
+   * @param inventory The inventory version that was serialized.
+   */
+  record Entry(byte[] json, long tag, Book book, Inventory inventory) {
+  }
+
+  private final MockApiService service;
+  private final ObjectWriter writer;
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  @Autowired
+  public BookJsonCache(MockApiService service, ObjectMapper mapper,
+      ResponseCacheProperties properties) {
+    this(service, mapper, properties.getMaxSize().toBytes());
+  }
+
+  /**
+   * Constructs a cache of the books of {@code service} and registers it for their changes.
+   *
+   * @param service The service owning the catalog.
+   * @param mapper The {@code ObjectMapper} that serializes responses.
+   * @param maxBytes The total size of the cached JSON; {@code 0} disables caching, so that
+   *                 every book is serialized on each request.
+   */
+  public BookJsonCache(MockApiService service, ObjectMapper mapper, long maxBytes) {
+    this.service = service;
+    this.writer = mapper.writerFor(Book.class);
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(maxBytes / SEGMENTS);
+    }
+    service.addChangeListener(this::invalidate);
+  }
+
+  /**
+   * Returns the JSON of a book, serializing it on a miss. Only the book currently stored in
+   * the catalog under its id is cached; any other {@code Book} is serialized every time.
+   *
+   * @param book The book to serialize.
+   * @return The serialized book.
+   * @throws JsonProcessingException If the book cannot be serialized.
+   */
+  Entry get(Book book) throws JsonProcessingException {
+    int id = book.getId();
+    Inventory inventory = book.getInventory();
+    Segment segment = segment(id);
+    Entry entry = segment.get(id);
+    if (entry != null && entry.book() == book && entry.inventory() == inventory) {
+      hits.increment();
+      return entry;
+    }
+
+    misses.increment();
+    byte[] json = writer.writeValueAsBytes(book);
+    entry = new Entry(json, ByteBuffer.wrap(DigestUtils.md5Digest(json)).getLong(), book,
+        inventory);
+    // Versions are never reused, so an unchanged one means the JSON was written from it.
+    if (book.getInventory() == inventory && service.findById(id) == book) {
+      evictions.add(segment.put(id, entry));
+    }
+    return entry;
+  }
+
+  /**
+   * Drops the cached JSON of a book.
+   *
+   * @param id The unique id of the book.
+   */
+  public void invalidate(int id) {
+    if (segment(id).remove(id)) {
+      invalidations.increment();
+    }
+  }
+
+  /**
+   * Returns the cache counters since startup.
+   *
+   * @return A {@code CacheStats} snapshot.
+   */
+  public CacheStats stats() {
+    long entries = 0;
+    long bytes = 0;
+    for (Segment segment : segments) {
+      segment.lock.lock();
+      try {
+        entries += segment.probation.size() + segment.protect.size();
+        bytes += segment.bytes;
+      } finally {
+        segment.lock.unlock();
+      }
+    }
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long lookups = hitCount + missCount;
+    return new CacheStats(hitCount, missCount, lookups == 0 ? 0 : (double) hitCount / lookups,
+        evictions.sum(), invalidations.sum(), entries, bytes);
+  }
+
+  private Segment segment(int id) {
+    int h = id * 0x9E3779B9;
+    return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+  }
+
+  /**
+   * One segment of the cache: a probation and a protected LRU list sharing a byte budget, of
+   * which the protected list may use up to four fifths.
+   */
+  private static final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Integer, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Integer, Entry> protect = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private long bytes;
+    private long protectedBytes;
+
+    Segment(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    Entry get(int id) {
+      lock.lock();
+      try {
+        Entry entry = protect.get(id);
+        if (entry != null) {
+          return entry;
+        }
+        entry = probation.remove(id);
+        if (entry != null) {
+          protect.put(id, entry);
+          protectedBytes += entry.json().length;
+          // Demote the least recently used protected entries back to probation.
+          Iterator<Map.Entry<Integer, Entry>> it = protect.entrySet().iterator();
+          while (protectedBytes > maxBytes / 5 * 4 && protect.size() > 1) {
+            Map.Entry<Integer, Entry> eldest = it.next();
+            it.remove();
+            protectedBytes -= eldest.getValue().json().length;
+            probation.put(eldest.getKey(), eldest.getValue());
+          }
+        }
+        return entry;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Adds an entry on probation and returns the number of entries evicted to make room.
+     */
+    int put(int id, Entry entry) {
+      if (entry.json().length > maxBytes) {
+        return 0;
+      }
+      lock.lock();
+      try {
+        removeLocked(id);
+        probation.put(id, entry);
+        bytes += entry.json().length;
+        int evicted = 0;
+        while (bytes > maxBytes) {
+          Map<Integer, Entry> from = probation.isEmpty() ? protect : probation;
+          Iterator<Map.Entry<Integer, Entry>> it = from.entrySet().iterator();
+          Entry eldest = it.next().getValue();
+          it.remove();
+          bytes -= eldest.json().length;
+          if (from == protect) {
+            protectedBytes -= eldest.json().length;
+          }
+          evicted++;
+        }
+        return evicted;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    boolean remove(int id) {
+      lock.lock();
+      try {
+        return removeLocked(id);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean removeLocked(int id) {
+      Entry entry = probation.remove(id);
+      if (entry == null) {
+        entry = protect.remove(id);
+        if (entry == null) {
+          return false;
+        }
+        protectedBytes -= entry.json().length;
+      }
+      bytes -= entry.json().length;
+      return true;
+    }
+  }
+}
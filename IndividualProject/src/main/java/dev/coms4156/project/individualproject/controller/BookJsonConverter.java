@@ -0,0 +1,163 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.model.Book;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * This class writes {@link Book} and {@link BookList} response bodies as JSON from the
+ * {@link BookJsonCache}, ahead of the general Jackson converter. Each response carries a
+ * strong entity tag derived from the bytes written, and a {@code GET} whose
+ * {@code If-None-Match} already names that tag is answered with {@code 304 Not Modified} and
+ * no body. The tag is computed from the same cache entries as the body, so a concurrent change
+ * to a book can never pair a new body with an old tag. Lists that {@link CatalogValidators}
+ * has already tagged with the catalog version keep that tag and are written one book at a time.
+ */
+public final class BookJsonConverter implements HttpMessageConverter<Object> {
+
+  /**
+   * Lists longer than this are written without an entity tag, one book at a time, so that
+   * their JSON never has to be held in memory at once.
+   */
+  static final int MAX_TAGGED_BOOKS = 1024;
+
+  private final BookJsonCache cache;
+
+  public BookJsonConverter(BookJsonCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public boolean canRead(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return (clazz == Book.class || clazz == BookList.class)
+        && (mediaType == null || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType));
+  }
+
+  @Override
+  public List<MediaType> getSupportedMediaTypes() {
+    return List.of(MediaType.APPLICATION_JSON);
+  }
+
+  @Override
+  public Object read(Class<?> clazz, HttpInputMessage inputMessage) {
+    throw new UnsupportedOperationException("BookJsonConverter only writes responses");
+  }
+
+  @Override
+  public void write(Object body, MediaType contentType, HttpOutputMessage outputMessage)
+      throws IOException {
+    writeConditional(body, ifNoneMatch(), outputMessage);
+  }
+
+  /**
+   * Writes a body, or only a {@code 304} status if {@code ifNoneMatch} names its tag.
+   *
+   * @param body The {@code Book} or {@code BookList} to write.
+   * @param ifNoneMatch The {@code If-None-Match} header of a {@code GET}, or {@code null}.
+   * @param outputMessage The response to write to.
+   * @throws IOException If the response cannot be written.
+   */
+  public void writeConditional(Object body, String ifNoneMatch, HttpOutputMessage outputMessage)
+      throws IOException {
+    HttpHeaders headers = outputMessage.getHeaders();
+    headers.setVary(List.of(HttpHeaders.ACCEPT));
+    if (body instanceof Book book) {
+      BookJsonCache.Entry entry = cache.get(book);
+      if (notModified(entry.tag(), ifNoneMatch, outputMessage)) {
+        return;
+      }
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      headers.setContentLength(entry.json().length);
+      outputMessage.getBody().write(entry.json());
+      return;
+    }
+
+    BookList books = (BookList) body;
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    if (books.size() > MAX_TAGGED_BOOKS || headers.getETag() != null) {
+      OutputStream out = outputMessage.getBody();
+      out.write('[');
+      for (int i = 0; i < books.size(); i++) {
+        if (i > 0) {
+          out.write(',');
+        }
+        out.write(cache.get(books.get(i)).json());
+      }
+      out.write(']');
+      return;
+    }
+
+    BookJsonCache.Entry[] entries = new BookJsonCache.Entry[books.size()];
+    long tag = books.size();
+    long length = 2 + Math.max(entries.length - 1, 0);
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = cache.get(books.get(i));
+      tag = (tag ^ entries[i].tag()) * 0x9E3779B97F4A7C15L;
+      length += entries[i].json().length;
+    }
+    if (notModified(tag, ifNoneMatch, outputMessage)) {
+      return;
+    }
+    headers.setContentLength(length);
+    OutputStream out = outputMessage.getBody();
+    out.write('[');
+    for (int i = 0; i < entries.length; i++) {
+      if (i > 0) {
+        out.write(',');
+      }
+      out.write(entries[i].json());
+    }
+    out.write(']');
+  }
+
+  /**
+   * Sets the entity tag of the response and, if the client already holds that version, turns
+   * the response into a {@code 304} without a body.
+   */
+  private static boolean notModified(long tag, String ifNoneMatch,
+      HttpOutputMessage outputMessage) throws IOException {
+    String etag = "\"" + Long.toHexString(tag) + "\"";
+    outputMessage.getHeaders().setETag(etag);
+    if (ifNoneMatch == null || !(outputMessage instanceof ServerHttpResponse response)) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String value = candidate.strip();
+      // If-None-Match uses the weak comparison, so W/"x" matches "x".
+      if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.flush();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String ifNoneMatch() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servlet) {
+      HttpServletRequest request = servlet.getRequest();
+      if (request.getMethod().equals("GET") || request.getMethod().equals("HEAD")) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH);
+      }
+    }
+    return null;
+  }
+}
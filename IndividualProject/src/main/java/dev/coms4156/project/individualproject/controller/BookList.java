@@ -0,0 +1,24 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * This class is a list of catalog books used as a response body. It behaves like any other
+ * list, but {@link BookJsonConverter} recognizes it and writes it from the cached JSON of each
+ * book instead of serializing the books again, and {@link BookCborConverter} can write it as
+ * CBOR.
+ */
+final class BookList extends ArrayList<Book> {
+
+  private static final long serialVersionUID = 1L;
+
+  BookList(int initialCapacity) {
+    super(initialCapacity);
+  }
+
+  BookList(Collection<Book> books) {
+    super(books);
+  }
+}
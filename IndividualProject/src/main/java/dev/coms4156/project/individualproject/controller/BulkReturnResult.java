@@ -0,0 +1,12 @@
+package dev.coms4156.project.individualproject.controller;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk return.
+ *
+ * @param returned The number of copies returned.
+ * @param rejected The returns that did not match a checked-out copy of a known book.
+ */
+public record BulkReturnResult(int returned, List<LoanReturn> rejected) {
+}
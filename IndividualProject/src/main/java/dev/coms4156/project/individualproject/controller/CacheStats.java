@@ -0,0 +1,16 @@
+package dev.coms4156.project.individualproject.controller;
+
+/**
+ * The counters of the response cache since startup.
+ *
+ * @param hits The number of lookups served from the cache.
+ * @param misses The number of lookups that serialized the book.
+ * @param hitRate The fraction of lookups that were hits.
+ * @param evictions The number of entries dropped to stay within the size limit.
+ * @param invalidations The number of entries dropped because their book changed.
+ * @param entries The number of books currently cached.
+ * @param bytes The total size of the cached JSON.
+ */
+public record CacheStats(long hits, long misses, double hitRate, long evictions,
+    long invalidations, long entries, long bytes) {
+}
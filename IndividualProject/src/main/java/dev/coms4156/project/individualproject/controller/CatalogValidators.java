@@ -0,0 +1,114 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.MockApiService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * This class answers conditional requests for catalog lists from the catalog version alone,
+ * before the handler runs. Every response is tagged with a weak {@code ETag} naming the version
+ * of {@link MockApiService#getVersion()} and, when it can be dated, with the time that version
+ * was first served as {@code Last-Modified}; a {@code GET} whose {@code If-None-Match} or
+ * {@code If-Modified-Since} still matches is answered with {@code 304 Not Modified} without
+ * reading the catalog. Any change to any book invalidates every list, which makes the check
+ * constant-time for clients that poll an idle catalog.
+ *
+ * <p>HTTP dates have whole seconds, so a version that appears in a second already given to an
+ * earlier version cannot be told apart by its date. Such a version is served without
+ * {@code Last-Modified}, and is validated by its tag alone, until the clock reaches a later
+ * second. Dates are never later than the clock and never earlier than a date already sent.
+ *
+ * <p>The tags are weak because the same version is served as JSON or CBOR and with or without
+ * compression, and because Tomcat does not compress responses with strong tags. They include
+ * the time the service started, so that versions counted by an earlier run are never matched.
+ */
+public final class CatalogValidators implements HandlerInterceptor {
+
+  /**
+   * The validators of one catalog version.
+   *
+   * @param version The catalog version.
+   * @param lastModified The time the version was first served in a second of its own, in
+   *                     whole seconds since the epoch, as milliseconds, or {@code -1} if it has
+   *                     not been dated yet.
+   * @param etag The weak entity tag of the version.
+   */
+  public record Stamp(long version, long lastModified, String etag) {
+  }
+
+  /**
+   * The current stamp and the latest date sent for any version, which a new version must pass
+   * to be dated.
+   */
+  private record State(Stamp stamp, long latest) {
+  }
+
+  private final MockApiService service;
+  private final Clock clock;
+  private final String epoch;
+  private final AtomicReference<State> state;
+
+  /**
+   * Constructs validators for the given catalog.
+   *
+   * @param service The catalog whose version the validators follow.
+   * @param clock The clock that dates new versions.
+   */
+  public CatalogValidators(MockApiService service, Clock clock) {
+    this.service = service;
+    this.clock = clock;
+    this.epoch = Long.toHexString(clock.millis());
+    this.state = new AtomicReference<>(stateOf(service.getVersion(), -1));
+  }
+
+  /**
+   * Returns the validators of the current catalog version, dating the version now if it has
+   * not been dated before and the clock has passed every date already sent, so a client that
+   * only sends {@code If-Modified-Since} never has a changed list confirmed as unmodified.
+   *
+   * @return The current {@code Stamp}.
+   */
+  public Stamp current() {
+    long version = service.getVersion();
+    State seen = state.get();
+    while (seen.stamp().version() < version
+        || seen.stamp().version() == version && seen.stamp().lastModified() < 0
+        && second() > seen.latest()) {
+      State next = stateOf(version, seen.latest());
+      if (state.compareAndSet(seen, next)) {
+        return next.stamp();
+      }
+      seen = state.get();
+    }
+    // A newer stamp than the version read is still older than the catalog the handler reads.
+    return seen.stamp();
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (request.getDispatcherType() != DispatcherType.REQUEST) {
+      return true;
+    }
+    Stamp current = current();
+    ServletWebRequest webRequest = new ServletWebRequest(request, response);
+    return current.lastModified() < 0 ? !webRequest.checkNotModified(current.etag())
+        : !webRequest.checkNotModified(current.etag(), current.lastModified());
+  }
+
+  private long second() {
+    return clock.millis() / 1000 * 1000;
+  }
+
+  private State stateOf(long version, long latest) {
+    long now = second();
+    String etag = "W/\"" + epoch + "-" + Long.toHexString(version) + "\"";
+    return now > latest ? new State(new Stamp(version, now, etag), now)
+        : new State(new Stamp(version, -1, etag), latest);
+  }
+}
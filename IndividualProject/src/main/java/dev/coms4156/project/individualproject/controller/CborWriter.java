@@ -0,0 +1,182 @@
+package dev.coms4156.project.individualproject.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes CBOR (RFC 8949) data items to a stream through its own buffer. It covers
+ * what the book responses need: integers, text strings, {@code null}, maps and arrays of known
+ * length, and arrays of indefinite length for streamed lists. Strings made only of ASCII
+ * characters are copied into the buffer without being encoded first.
+ */
+final class CborWriter {
+
+  private static final int UNSIGNED = 0;
+  private static final int NEGATIVE = 1;
+  private static final int TEXT = 3;
+  private static final int ARRAY = 4;
+  private static final int MAP = 5;
+  private static final int NULL = 0xF6;
+  private static final int INDEFINITE_ARRAY = 0x9F;
+  private static final int BREAK = 0xFF;
+
+  private final OutputStream out;
+  private final byte[] buffer = new byte[8192];
+  private int length;
+
+  CborWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  void writeMapHeader(int size) throws IOException {
+    writeHead(MAP, size);
+  }
+
+  void writeArrayHeader(int size) throws IOException {
+    writeHead(ARRAY, size);
+  }
+
+  /**
+   * Starts an array whose items are followed by {@link #writeBreak()} instead of being counted
+   * up front.
+   */
+  void writeIndefiniteArrayHeader() throws IOException {
+    writeByte(INDEFINITE_ARRAY);
+  }
+
+  void writeBreak() throws IOException {
+    writeByte(BREAK);
+  }
+
+  void writeNull() throws IOException {
+    writeByte(NULL);
+  }
+
+  void writeInt(long value) throws IOException {
+    if (value >= 0) {
+      writeHead(UNSIGNED, value);
+    } else {
+      writeHead(NEGATIVE, -1 - value);
+    }
+  }
+
+  /**
+   * Writes a text string, or {@code null} as the CBOR null.
+   */
+  void writeString(String value) throws IOException {
+    if (value == null) {
+      writeNull();
+      return;
+    }
+    int n = value.length();
+    for (int i = 0; i < n; i++) {
+      if (value.charAt(i) >= 0x80) {
+        writeEncoded(encode(value));
+        return;
+      }
+    }
+    writeHead(TEXT, n);
+    for (int i = 0; i < n; ) {
+      if (length == buffer.length) {
+        drain();
+      }
+      int chunk = Math.min(n - i, buffer.length - length);
+      for (int end = i + chunk; i < end; i++) {
+        buffer[length++] = (byte) value.charAt(i);
+      }
+    }
+  }
+
+  /**
+   * Copies a data item encoded by {@link #encode(String)}.
+   */
+  void writeEncoded(byte[] item) throws IOException {
+    if (item.length > buffer.length - length) {
+      drain();
+      if (item.length > buffer.length) {
+        out.write(item);
+        return;
+      }
+    }
+    System.arraycopy(item, 0, buffer, length, item.length);
+    length += item.length;
+  }
+
+  /**
+   * Writes out the buffer and flushes the underlying stream.
+   */
+  void flush() throws IOException {
+    drain();
+    out.flush();
+  }
+
+  /**
+   * Encodes a text string as a complete data item, for strings written many times.
+   */
+  static byte[] encode(String value) {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    int headLength = headLength(utf8.length);
+    byte[] item = new byte[headLength + utf8.length];
+    putHead(item, TEXT, utf8.length, headLength);
+    System.arraycopy(utf8, 0, item, headLength, utf8.length);
+    return item;
+  }
+
+  private void writeHead(int majorType, long argument) throws IOException {
+    if (buffer.length - length < 9) {
+      drain();
+    }
+    int headLength = headLength(argument);
+    putHead(buffer, length, majorType, argument, headLength);
+    length += headLength;
+  }
+
+  private void writeByte(int b) throws IOException {
+    if (length == buffer.length) {
+      drain();
+    }
+    buffer[length++] = (byte) b;
+  }
+
+  private void drain() throws IOException {
+    out.write(buffer, 0, length);
+    length = 0;
+  }
+
+  /**
+   * Returns the size of the head encoding {@code argument}: the initial byte, followed by the
+   * argument itself unless it is below 24.
+   */
+  private static int headLength(long argument) {
+    if (argument < 24) {
+      return 1;
+    } else if (argument < 1L << 8) {
+      return 2;
+    } else if (argument < 1L << 16) {
+      return 3;
+    } else if (argument < 1L << 32) {
+      return 5;
+    }
+    return 9;
+  }
+
+  private static void putHead(byte[] target, int majorType, long argument, int headLength) {
+    putHead(target, 0, majorType, argument, headLength);
+  }
+
+  private static void putHead(byte[] target, int at, int majorType, long argument,
+      int headLength) {
+    if (headLength == 1) {
+      target[at] = (byte) (majorType << 5 | argument);
+      return;
+    }
+    // Additional information 24 to 27 announces a 1, 2, 4 or 8 byte argument.
+    int size = headLength - 1;
+    target[at] = (byte) (majorType << 5 | 24 + Integer.numberOfTrailingZeros(size));
+    for (int i = size; i > 0; i--) {
+      target[at + i] = (byte) argument;
+      argument >>>= 8;
+    }
+  }
+}
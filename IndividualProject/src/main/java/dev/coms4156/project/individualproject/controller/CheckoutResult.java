@@ -0,0 +1,14 @@
+package dev.coms4156.project.individualproject.controller;
+
+import java.util.List;
+
+/**
+ * The outcome of a batch checkout for one book.
+ *
+ * @param id The unique id of the book.
+ * @param requested The number of copies requested.
+ * @param dueDates The due dates of the copies checked out.
+ * @param error Why fewer copies than requested were checked out, or {@code null}.
+ */
+public record CheckoutResult(int id, int requested, List<String> dueDates, String error) {
+}
@@ -0,0 +1,12 @@
+package dev.coms4156.project.individualproject.controller;
+
+/**
+ * The outcome of a batch copy add for one book.
+ *
+ * @param id The unique id of the book.
+ * @param added The number of copies added.
+ * @param totalCopies The number of copies owned after the add.
+ * @param error Why no copies were added, or {@code null}.
+ */
+public record CopyAddResult(int id, int added, int totalCopies, String error) {
+}
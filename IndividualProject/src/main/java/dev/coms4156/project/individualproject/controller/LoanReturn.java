@@ -0,0 +1,10 @@
+package dev.coms4156.project.individualproject.controller;
+
+/**
+ * One returned copy in a bulk return: the book and the due date of the loan being closed.
+ *
+ * @param id The unique id of the book, or {@code null} if the request left it out.
+ * @param date The due date of the returned copy, as {@code yyyy-MM-dd}.
+ */
+public record LoanReturn(Integer id, String date) {
+}
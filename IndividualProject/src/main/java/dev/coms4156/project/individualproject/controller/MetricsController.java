@@ -0,0 +1,142 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.CatalogMetrics;
+import dev.coms4156.project.individualproject.service.LatencyHistogram;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.OverdueCount;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class exposes the service's metrics in the Prometheus text exposition format, for a
+ * Prometheus server or any compatible agent to scrape. Everything it reports is kept up to date
+ * as requests are served, so a scrape only reads counters and never walks the catalog.
+ */
+@RestController
+public class MetricsController {
+
+  static final MediaType PROMETHEUS_TEXT =
+      MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+  private final MockApiService mockApiService;
+  private final RequestMetricsFilter requestMetrics;
+  private final BookJsonCache responseCache;
+
+  /**
+   * Constructs the endpoint over the metrics of the service, its requests and its cache.
+   *
+   * @param mockApiService The service owning the catalog.
+   * @param requestMetrics The filter timing requests.
+   * @param responseCache The {@code BookJsonCache} of book responses, or {@code null}.
+   */
+  public MetricsController(MockApiService mockApiService, RequestMetricsFilter requestMetrics,
+      BookJsonCache responseCache) {
+    this.mockApiService = mockApiService;
+    this.requestMetrics = requestMetrics;
+    this.responseCache = responseCache;
+  }
+
+  /**
+   * Returns the current value of every metric.
+   *
+   * @return A {@code ResponseEntity} containing the metrics as Prometheus text with an HTTP 200
+   *         response.
+   */
+  @GetMapping({"/metrics"})
+  public ResponseEntity<String> getMetrics() {
+    StringBuilder out = new StringBuilder(8192);
+
+    header(out, "library_request_duration_seconds", "histogram",
+        "Time to handle a request, by handler method.");
+    for (RequestMetricsFilter.RouteMetrics route : requestMetrics.routes()) {
+      histogram(out, "library_request_duration_seconds",
+          "handler=\"" + route.handler + "\",uri=\"" + escape(route.uri) + "\"", route.latency);
+    }
+    header(out, "library_request_errors_total", "counter",
+        "Requests that ended in a server error, by handler method.");
+    for (RequestMetricsFilter.RouteMetrics route : requestMetrics.routes()) {
+      out.append("library_request_errors_total{handler=\"").append(route.handler)
+          .append("\",uri=\"").append(escape(route.uri)).append("\"} ")
+          .append(route.errors.sum()).append('\n');
+    }
+
+    CatalogMetrics catalog = mockApiService.getMetrics();
+    header(out, "library_operation_duration_seconds", "histogram",
+        "Time spent in catalog operations.");
+    histogram(out, "library_operation_duration_seconds", "operation=\"search\"",
+        catalog.getSearchLatency());
+    histogram(out, "library_operation_duration_seconds", "operation=\"title_search\"",
+        catalog.getTitleSearchLatency());
+    histogram(out, "library_operation_duration_seconds", "operation=\"durable_wait\"",
+        catalog.getDurableWaitLatency());
+
+    sample(out, "library_checkouts_total", "counter", "Copies checked out.",
+        catalog.getCheckouts());
+    sample(out, "library_returns_total", "counter", "Copies returned.", catalog.getReturns());
+    sample(out, "library_copies_added_total", "counter", "Copies added to the catalog.",
+        catalog.getCopiesAdded());
+    sample(out, "library_copies_deleted_total", "counter", "Copies deleted from the catalog.",
+        catalog.getCopiesDeleted());
+    sample(out, "library_checkouts_refused_total", "counter",
+        "Copies asked for that could not be checked out because none was available.",
+        catalog.getRefusedCheckouts());
+    sample(out, "library_books_not_found_total", "counter",
+        "Lookups of a book id that is not in the catalog.", catalog.getNotFound());
+    sample(out, "library_catalog_books", "gauge", "Books in the catalog.",
+        mockApiService.getBookCount());
+    sample(out, "library_available_copies", "gauge", "Available copies across the catalog.",
+        catalog.getAvailableCopies());
+    List<OverdueCount> overdue = mockApiService.getOverdueHistory();
+    if (!overdue.isEmpty()) {
+      sample(out, "library_overdue_copies", "gauge",
+          "Overdue copies counted by the latest daily sweep.",
+          overdue.get(overdue.size() - 1).loans());
+    }
+
+    if (responseCache != null) {
+      CacheStats stats = responseCache.stats();
+      sample(out, "library_response_cache_hits_total", "counter",
+          "Book responses written from the cache.", stats.hits());
+      sample(out, "library_response_cache_misses_total", "counter",
+          "Book responses that had to be serialized.", stats.misses());
+      sample(out, "library_response_cache_evictions_total", "counter",
+          "Cache entries dropped to stay within the size limit.", stats.evictions());
+      sample(out, "library_response_cache_bytes", "gauge", "Size of the cached JSON.",
+          stats.bytes());
+    }
+
+    return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(out.toString());
+  }
+
+  private static void header(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, String type, String help,
+      long value) {
+    header(out, name, type, help);
+    out.append(name).append(' ').append(value).append('\n');
+  }
+
+  private static void histogram(StringBuilder out, String name, String labels,
+      LatencyHistogram histogram) {
+    long[] counts = histogram.cumulativeCounts();
+    for (int i = 0; i < counts.length; i++) {
+      String le = i < LatencyHistogram.boundCount() ? LatencyHistogram.boundLabel(i) : "+Inf";
+      out.append(name).append("_bucket{").append(labels).append(",le=\"").append(le)
+          .append("\"} ").append(counts[i]).append('\n');
+    }
+    out.append(name).append("_sum{").append(labels).append("} ")
+        .append(histogram.sumNanos() / 1e9).append('\n');
+    out.append(name).append("_count{").append(labels).append("} ")
+        .append(counts[counts.length - 1]).append('\n');
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
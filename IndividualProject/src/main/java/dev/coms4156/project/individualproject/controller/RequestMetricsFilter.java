@@ -0,0 +1,86 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.LatencyHistogram;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * This class times every request handled by a controller method and counts those that end in
+ * a server error, per handler method. The handler is read from the request after dispatch, and
+ * the metrics of a handler are created on its first request and then only looked up, so
+ * recording a request allocates nothing. A streamed response is timed until its handler
+ * returns, not until the last byte has been written.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+  /**
+   * The metrics of one handler method.
+   */
+  static final class RouteMetrics {
+    final String handler;
+    final String uri;
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder errors = new LongAdder();
+
+    RouteMetrics(String handler, String uri) {
+      this.handler = handler;
+      this.uri = uri;
+    }
+  }
+
+  private final ConcurrentHashMap<Method, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      record(request, System.nanoTime() - start, failed || response.getStatus() >= 500);
+    }
+  }
+
+  private void record(HttpServletRequest request, long nanos, boolean error) {
+    Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    if (!(handler instanceof HandlerMethod handlerMethod)) {
+      return;
+    }
+    Method method = handlerMethod.getMethod();
+    RouteMetrics route = routes.get(method);
+    if (route == null) {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      route = routes.computeIfAbsent(method,
+          m -> new RouteMetrics(m.getName(), String.valueOf(pattern)));
+    }
+    route.latency.record(nanos);
+    if (error) {
+      route.errors.increment();
+    }
+  }
+
+  /**
+   * Returns the metrics of every handler that has served a request, ordered by handler name.
+   */
+  List<RouteMetrics> routes() {
+    List<RouteMetrics> sorted = new ArrayList<>(routes.values());
+    sorted.sort(Comparator.comparing((RouteMetrics r) -> r.handler).thenComparing(r -> r.uri));
+    return sorted;
+  }
+}
@@ -0,0 +1,46 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.time.Clock;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This class registers the {@link BookJsonConverter} ahead of the default message converters,
+ * so that book responses are written from the {@link BookJsonCache}, and the
+ * {@link BookCborConverter} after all of them for clients that ask for CBOR. Spring prefers the
+ * media types of earlier converters, so JSON is still chosen when a request accepts any type.
+ * The lists of books that only change with the catalog are validated by
+ * {@link CatalogValidators}.
+ */
+@Configuration
+public class ResponseCacheConfig implements WebMvcConfigurer {
+
+  /**
+   * The endpoints whose responses depend on nothing but the catalog and the request.
+   */
+  static final String[] CATALOG_LISTS = {"/books/available", "/books/search",
+      "/books/search/title"};
+
+  private final BookJsonCache cache;
+  private final CatalogValidators validators;
+
+  public ResponseCacheConfig(BookJsonCache cache, MockApiService service) {
+    this.cache = cache;
+    this.validators = new CatalogValidators(service, Clock.systemUTC());
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.add(0, new BookJsonConverter(cache));
+    converters.add(new BookCborConverter());
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(validators).addPathPatterns(CATALOG_LISTS);
+  }
+}
@@ -0,0 +1,29 @@
+package dev.coms4156.project.individualproject.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This class holds the {@code response-cache.*} settings of {@link BookJsonCache}.
+ */
+@Component
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+
+  private DataSize maxSize = DataSize.ofMegabytes(32);
+
+  /**
+   * Returns the total size of the serialized books kept in memory. A size of zero disables the
+   * cache; entity tags are still sent.
+   *
+   * @return The maximum size of the cache.
+   */
+  public DataSize getMaxSize() {
+    return maxSize;
+  }
+
+  public void setMaxSize(DataSize maxSize) {
+    this.maxSize = maxSize;
+  }
+}
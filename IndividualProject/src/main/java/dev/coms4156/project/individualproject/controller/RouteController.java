@@ -1,19 +1,46 @@
 package dev.coms4156.project.individualproject.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.BookField;
+import dev.coms4156.project.individualproject.model.BookSerializer;
 import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.SearchIndex;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * This class contains all the API routes for the application.
@@ -21,10 +48,38 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class RouteController {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RouteController.class);
+
+  private static final MediaType APPLICATION_NDJSON =
+      MediaType.parseMediaType("application/x-ndjson");
+
+  private static final int NDJSON_FLUSH_INTERVAL = 64;
+  private static final ObjectWriter BOOK_WRITER = new ObjectMapper().writerFor(Book.class);
+  /**
+   * The most copies of one book that a single batch add may contribute.
+   */
+  static final int MAX_COPIES_ADDED = 10_000;
+
+  private static final String BAD_FIELDS =
+      "fields must be a comma-separated list of book properties, such as title,copiesAvailable.";
+
   private final MockApiService mockApiService;
+  private final BookJsonCache responseCache;
 
   public RouteController(MockApiService mockApiService) {
+    this(mockApiService, null);
+  }
+
+  /**
+   * Constructs the controller with the response cache whose statistics it reports.
+   *
+   * @param mockApiService The service owning the catalog.
+   * @param responseCache The {@code BookJsonCache} of book responses, or {@code null}.
+   */
+  @Autowired
+  public RouteController(MockApiService mockApiService, BookJsonCache responseCache) {
     this.mockApiService = mockApiService;
+    this.responseCache = responseCache;
   }
 
   @GetMapping({"/", "/index"})
@@ -34,7 +89,9 @@ public class RouteController {
   }
 
   /**
-   * Returns the details of the specified book.
+   * Returns the details of the specified book. The JSON is written from the response cache
+   * and tagged with an {@code ETag}; a request whose {@code If-None-Match} carries the current
+   * tag gets an HTTP 304 response without a body.
    *
    * @param id An {@code int} representing the unique identifier of the book to retrieve.
    *
@@ -44,159 +101,716 @@ public class RouteController {
    */
   @GetMapping({"/book/{id}"})
   public ResponseEntity<?> getBook(@PathVariable int id) {
-    for (Book book : mockApiService.getBooks()) {
-      if (book.getId() == id) {
-        return new ResponseEntity<>(book, HttpStatus.OK);
-      }
+    Book book = mockApiService.findById(id);
+    if (book != null) {
+      return new ResponseEntity<>(book, HttpStatus.OK);
     }
 
-    return new ResponseEntity<>("Book not found.", HttpStatus.NOT_FOUND);
+    return bookNotFound();
   }
 
   /**
-   * Returns a list of all the books with available copies.
+   * Returns the books with available copies, in ascending id order. The books come from an
+   * availability index maintained on every checkout, return and copy change, so the catalog is
+   * not scanned. Clients can walk the list in pages by passing the id of the last book they
+   * received as {@code after}; when more books remain, the response carries a {@code Link}
+   * header pointing at the next page. With {@code stream=true} the books are serialized into
+   * the response one at a time instead of being collected into a list first. Otherwise the
+   * page is written from the cached JSON of its books and tagged with an {@code ETag}, as for
+   * {@link #getBook(int)}. With {@code fields}, each book is written with only the listed
+   * properties, without an {@code ETag}.
    *
+   * @param limit The maximum number of books to return, or {@code null} for no limit.
+   * @param after Only books with an id greater than this are returned, or {@code null} to
+   *              start from the beginning.
+   * @param stream Whether to stream the response incrementally.
+   * @param fields A comma-separated list of the book properties to return, or {@code null} for
+   *               all of them.
    * @return A {@code ResponseEntity} containing a list of available {@code Book} objects with an
-   *         HTTP 200 response if sucessful, or a message indicating an error occurred with an
-   *         HTTP 500 response.
+   *         HTTP 200 response if sucessful, a message with an HTTP 400 response if
+   *         {@code limit} is not positive or {@code fields} names an unknown property, or a
+   *         message indicating an error occurred with an HTTP 500 response.
    */
   @GetMapping({"/books/available"})
-  public ResponseEntity<?> getAvailableBooks() {
+  public ResponseEntity<?> getAvailableBooks(@RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) Integer after,
+      @RequestParam(defaultValue = "false") boolean stream,
+      @RequestParam(required = false) String fields) {
     try {
-      ArrayList<Book> availableBooks = new ArrayList<>();
+      if (limit != null && limit < 1) {
+        return new ResponseEntity<>("limit must be a positive number.", HttpStatus.BAD_REQUEST);
+      }
+      Set<BookField> projection;
+      try {
+        projection = projection(fields);
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(BAD_FIELDS, HttpStatus.BAD_REQUEST);
+      }
 
-      for (Book book : mockApiService.getBooks()) {
-        if (book.hasCopies()) {
-          availableBooks.add(book);
-        }
+      Collection<Book> available = mockApiService.getAvailableBooks(after);
+      int max = limit == null ? Integer.MAX_VALUE : limit;
+
+      if (stream) {
+        return new ResponseEntity<>(new StreamedBooks(available, max, projection),
+            HttpStatus.OK);
       }
 
-      return new ResponseEntity<>(availableBooks, HttpStatus.OK);
+      BookList availableBooks = new BookList(Math.min(max, 1024));
+      Iterator<Book> it = available.iterator();
+      while (availableBooks.size() < max && it.hasNext()) {
+        availableBooks.add(it.next());
+      }
+
+      if (limit != null && it.hasNext()) {
+        int lastId = availableBooks.get(availableBooks.size() - 1).getId();
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath("/books/available")
+            .queryParam("limit", limit).queryParam("after", lastId);
+        if (fields != null) {
+          // Expanded as a variable, fields is encoded strictly, so it cannot end the link.
+          uri.queryParam("fields", "{fields}");
+        }
+        String next = "<" + uri.encode().buildAndExpand(fields).toUriString()
+            + ">; rel=\"next\"";
+        return ResponseEntity.ok().header(HttpHeaders.LINK, next)
+            .body(project(availableBooks, projection));
+      }
+      return new ResponseEntity<>(project(availableBooks, projection), HttpStatus.OK);
     } catch (Exception e) {
-      System.err.println(e);
+      LOGGER.error("Error occurred when getting all available books.", e);
       return new ResponseEntity<>("Error occurred when getting all available books",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
 
+  /**
+   * Streams the books with available copies as newline-delimited JSON, one book per line, for
+   * requests that accept {@code application/x-ndjson}. The handler returns at once and the
+   * books are written from Spring MVC's async task executor, so no request thread is held
+   * while a slow client reads the stream. Each book is taken from the live availability index
+   * only when the previous lines have been written, so a connection never buffers more than a
+   * few books: a client that stops reading blocks the write, which stops the walk. With the
+   * {@code virtual-threads} profile each stream runs on its own virtual thread.
+   *
+   * @param limit The maximum number of books to return, or {@code null} for no limit.
+   * @param after Only books with an id greater than this are returned, or {@code null} to
+   *              start from the beginning.
+   * @param fields A comma-separated list of the book properties to return, or {@code null} for
+   *               all of them.
+   * @return A {@code ResponseEntity} containing the stream with an HTTP 200 response, or one
+   *         writing a message with an HTTP 400 response if {@code limit} is not positive or
+   *         {@code fields} names an unknown property.
+   */
+  @GetMapping(value = {"/books/available"}, produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> streamAvailableBooks(
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) Integer after,
+      @RequestParam(required = false) String fields) {
+    if (limit != null && limit < 1) {
+      return streamedBadRequest("limit must be a positive number.");
+    }
+    Set<BookField> projection;
+    try {
+      projection = projection(fields);
+    } catch (IllegalArgumentException e) {
+      return streamedBadRequest(BAD_FIELDS);
+    }
 
+    Collection<Book> available = mockApiService.getAvailableBooks(after);
+    int max = limit == null ? Integer.MAX_VALUE : limit;
+    StreamingResponseBody body = projection == null
+        ? out -> writeNdjson(available, max, out)
+        : out -> writeNdjson(available, max, projection, out);
+    return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+  }
+
+  private static ResponseEntity<StreamingResponseBody> streamedBadRequest(String message) {
+    // The body must be a StreamingResponseBody for Spring to route it past the converters.
+    byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+    return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+        .body(out -> out.write(bytes));
+  }
 
   /**
-   * Adds a copy to the {@code} Book object if it exists.
+   * Writes the projected books through one generator, which reuses its buffer for every line.
+   */
+  private static void writeNdjson(Iterable<Book> books, int max, Set<BookField> fields,
+      OutputStream out) throws IOException {
+    try (JsonGenerator gen = BOOK_WRITER.getFactory().createGenerator(out)) {
+      gen.setRootValueSeparator(null);
+      int written = 0;
+      for (Book book : books) {
+        if (written == max) {
+          break;
+        }
+        BookSerializer.write(book, gen, fields);
+        gen.writeRaw('\n');
+        if (++written % NDJSON_FLUSH_INTERVAL == 0) {
+          gen.flush();
+        }
+      }
+    }
+  }
+
+  private void writeNdjson(Iterable<Book> books, int max, OutputStream out) throws IOException {
+    int written = 0;
+    for (Book book : books) {
+      if (written == max) {
+        break;
+      }
+      out.write(responseCache != null
+          ? responseCache.get(book).json() : BOOK_WRITER.writeValueAsBytes(book));
+      out.write('\n');
+      if (++written % NDJSON_FLUSH_INTERVAL == 0) {
+        out.flush();
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Searches the catalog by author, subject, language, publisher and shelving location through
+   * the service's inverted index. Each of the query parameters {@code author},
+   * {@code subject}, {@code language}, {@code publisher} and {@code location} may be repeated;
+   * values match whole catalog values, ignoring case and trailing punctuation. With
+   * {@code op=and} (the default) a book must match every value, with {@code op=or} any of
+   * them. {@code available=true} keeps only books with an available copy.
+   *
+   * <p>The parameters are read from the raw map because Spring would split a single value
+   * such as {@code Baldwin, Gordon} at its comma when binding it to a list. {@code fields}
+   * lists the book properties to return, separated by commas.
+   *
+   * @param params The query parameters.
+   * @return A {@code ResponseEntity} containing the matching {@code Book} objects in catalog
+   *         order with an HTTP 200 response, a message with an HTTP 400 response if no
+   *         filter is given or {@code op}, {@code limit} or {@code fields} is invalid, or a
+   *         message indicating an error occurred with an HTTP 500 response.
+   */
+  @GetMapping({"/books/search"})
+  public ResponseEntity<?> searchBooks(@RequestParam MultiValueMap<String, String> params) {
+    try {
+      List<String> terms = new ArrayList<>();
+      for (SearchIndex.Field field : SearchIndex.Field.values()) {
+        List<String> values = params.get(field.name().toLowerCase(Locale.ROOT));
+        if (values != null) {
+          for (String value : values) {
+            terms.add(SearchIndex.term(field, value));
+          }
+        }
+      }
+      if (terms.isEmpty()) {
+        return new ResponseEntity<>("At least one search filter is required.",
+            HttpStatus.BAD_REQUEST);
+      }
+
+      String op = params.getOrDefault("op", List.of("and")).get(0);
+      if (!op.equals("and") && !op.equals("or")) {
+        return new ResponseEntity<>("op must be 'and' or 'or'.", HttpStatus.BAD_REQUEST);
+      }
+      int limit = Integer.MAX_VALUE;
+      if (params.containsKey("limit")) {
+        limit = Integer.parseInt(params.getFirst("limit"));
+        if (limit < 1) {
+          return new ResponseEntity<>("limit must be a positive number.",
+              HttpStatus.BAD_REQUEST);
+        }
+      }
+      boolean available = Boolean.parseBoolean(params.getFirst("available"));
+      Set<BookField> projection;
+      try {
+        projection = projection(params.getFirst("fields"));
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(BAD_FIELDS, HttpStatus.BAD_REQUEST);
+      }
+
+      return new ResponseEntity<>(project(
+          mockApiService.search(terms, op.equals("and"), available, limit), projection),
+          HttpStatus.OK);
+    } catch (NumberFormatException e) {
+      return new ResponseEntity<>("limit must be a positive number.", HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      LOGGER.error("Error occurred when searching books.", e);
+      return new ResponseEntity<>("Error occurred when searching books.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Searches book titles by keyword, matching the last word as a prefix so that it can serve
+   * type-ahead suggestions as the user types. Hits are ranked with BM25 by the service's title
+   * index; the catalog is not scanned.
+   *
+   * @param q The words typed so far.
+   * @param k The maximum number of books to return.
+   * @param fields A comma-separated list of the book properties to return, or {@code null} for
+   *               all of them.
+   * @return A {@code ResponseEntity} containing at most {@code k} {@code Book} objects, best
+   *         match first, with an HTTP 200 response, a message with an HTTP 400 response if
+   *         {@code q} is blank, {@code k} is not positive or {@code fields} names an unknown
+   *         property, or a message indicating an error occurred with an HTTP 500 response.
+   */
+  @GetMapping({"/books/search/title"})
+  public ResponseEntity<?> searchTitles(@RequestParam String q,
+      @RequestParam(defaultValue = "10") int k,
+      @RequestParam(required = false) String fields) {
+    try {
+      if (q.isBlank()) {
+        return new ResponseEntity<>("q must not be empty.", HttpStatus.BAD_REQUEST);
+      }
+      if (k < 1) {
+        return new ResponseEntity<>("k must be a positive number.", HttpStatus.BAD_REQUEST);
+      }
+      Set<BookField> projection;
+      try {
+        projection = projection(fields);
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(BAD_FIELDS, HttpStatus.BAD_REQUEST);
+      }
+      return new ResponseEntity<>(project(mockApiService.searchTitles(q, k), projection),
+          HttpStatus.OK);
+    } catch (Exception e) {
+      LOGGER.error("Error occurred when searching titles.", e);
+      return new ResponseEntity<>("Error occurred when searching titles.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Adds a copy to the {@code} Book object if it exists. The response is sent once the
+   * change has been written to the inventory log, if one is configured.
    *
    * @param bookId An {@code Integer} representing the unique id of the book.
    * @return A {@code ResponseEntity} containing the updated {@code Book} object with an
    *         HTTP 200 response if successful or HTTP 404 if the book is not found,
-   *         or a message indicating an error occurred with an HTTP 500 code.
+   *         a message with an HTTP 503 response if the inventory log cannot record the
+   *         change, or a message indicating an error occurred with an HTTP 500 code.
    */
   @PatchMapping({"/book/{bookId}/add"})
   public ResponseEntity<?> addCopy(@PathVariable Integer bookId) {
     try {
-      for (Book book : mockApiService.getBooks()) {
-        if (bookId.equals(book.getId())) {
-          book.addCopy();
-          return new ResponseEntity<>(book, HttpStatus.OK);
+      Book book = mockApiService.findById(bookId);
+      if (book != null) {
+        book.addCopy();
+        if (!mockApiService.awaitDurable()) {
+          return new ResponseEntity<>("Failed to record the new copy.",
+              HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        return new ResponseEntity<>(book, HttpStatus.OK);
       }
 
-      return new ResponseEntity<>("Book not found.", HttpStatus.NOT_FOUND);
+      return bookNotFound();
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
     } catch (Exception e) {
-      System.err.println(e);
+      LOGGER.error("Error occurred when adding a copy.", e);
       return new ResponseEntity<>("Error occurred when adding a copy.",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
 
   /**
-   * Returns a list of 10 recommended books.
-   * Half (5) are the most popular books (by amountOfTimesCheckedOut).
-   * Half (5) are randomly selected from the remaining books.
+   * Adds copies to many books in one request, as for an acquisition import. Each book is
+   * located and locked once however many copies it receives.
+   *
+   * @param copies The number of copies to add, keyed by book id.
+   * @return A {@code ResponseEntity} containing one {@code CopyAddResult} per book, in request
+   *         order, with an HTTP 200 response, a message with an HTTP 400 response if a count
+   *         is missing, not positive or more than {@value #MAX_COPIES_ADDED}, a message
+   *         with an HTTP 503 response if the inventory log cannot record the changes, or a
+   *         message indicating an error occurred with an HTTP 500 response.
+   */
+  @PatchMapping({"/books/add"})
+  public ResponseEntity<?> addCopies(@RequestBody Map<Integer, Integer> copies) {
+    try {
+      for (Map.Entry<Integer, Integer> entry : copies.entrySet()) {
+        Integer count = entry.getValue();
+        if (entry.getKey() == null || count == null || count < 1
+            || count > MAX_COPIES_ADDED) {
+          return new ResponseEntity<>(
+              "Counts must be numbers from 1 to " + MAX_COPIES_ADDED + ", keyed by book id.",
+              HttpStatus.BAD_REQUEST);
+        }
+      }
+
+      List<CopyAddResult> results = new ArrayList<>(copies.size());
+      for (Map.Entry<Integer, Integer> entry : copies.entrySet()) {
+        Book book = mockApiService.findById(entry.getKey());
+        if (book == null) {
+          results.add(new CopyAddResult(entry.getKey(), 0, 0, "Book not found."));
+        } else if (book.addCopies(entry.getValue())) {
+          results.add(new CopyAddResult(book.getId(), entry.getValue(), book.getTotalCopies(),
+              null));
+        } else {
+          results.add(new CopyAddResult(book.getId(), 0, book.getTotalCopies(),
+              "Too many copies."));
+        }
+      }
+
+      if (!mockApiService.awaitDurable()) {
+        return new ResponseEntity<>("Failed to record the new copies.",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+      return new ResponseEntity<>(results, HttpStatus.OK);
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
+    } catch (Exception e) {
+      LOGGER.error("Error occurred when adding copies.", e);
+      return new ResponseEntity<>("Error occurred when adding copies.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Returns a list of {@code 2 * k} recommended books (10 by default).
+   * Half ({@code k}) are the most popular books (by amountOfTimesCheckedOut), read from the
+   * service's popularity index instead of sorting the catalog.
+   * Half ({@code k}) are randomly selected from the remaining books by sampling catalog
+   * positions directly, without building a list of the remaining books.
    * The returned list contains unique Books. Order does not matter.
+   *
+   * @param k The number of popular books, and of random books, to recommend.
+   * @param seed An optional seed making the random half reproducible.
+   * @param fields A comma-separated list of the book properties to return, or {@code null} for
+   *               all of them.
+   * @return A {@code ResponseEntity} containing the recommended {@code Book} objects with an
+   *         HTTP 200 response, a message with an HTTP 400 response if {@code k} is not
+   *         positive, the catalog has fewer than {@code 2 * k} books or {@code fields} names
+   *         an unknown property, or a message indicating an error occurred with an HTTP 500
+   *         response.
    */
   @GetMapping({"/books/recommendation"})
-  public ResponseEntity<?> getRecommendations() {
+  public ResponseEntity<?> getRecommendations(@RequestParam(defaultValue = "5") int k,
+      @RequestParam(required = false) Long seed,
+      @RequestParam(required = false) String fields) {
     try {
-      List<Book> allBooks = mockApiService.getBooks();
+      if (k < 1) {
+        return new ResponseEntity<>("k must be a positive number.", HttpStatus.BAD_REQUEST);
+      }
+      Set<BookField> projection;
+      try {
+        projection = projection(fields);
+      } catch (IllegalArgumentException e) {
+        return new ResponseEntity<>(BAD_FIELDS, HttpStatus.BAD_REQUEST);
+      }
 
-      if (allBooks == null || allBooks.size() < 10) {
+      // k is at most bookCount / 2 from here on, so 2 * k cannot overflow.
+      int bookCount = mockApiService.getBookCount();
+      if (k > bookCount / 2) {
         return new ResponseEntity<>("Not enough books available for recommendations.",
-            HttpStatus.INTERNAL_SERVER_ERROR);
+            HttpStatus.BAD_REQUEST);
       }
 
-      List<Book> booksCopy = new ArrayList<>(allBooks);
+      // Add top k most popular
+      List<Book> popular = mockApiService.getMostPopular(k);
+      BookList recommendations = new BookList(2 * k);
+      recommendations.addAll(popular);
 
-      // Sort by popularity (amountOfTimesCheckedOut) descending
-      booksCopy.sort((a, b) -> 
-          Integer.compare(b.getAmountOfTimesCheckedOut(), a.getAmountOfTimesCheckedOut()));
+      // Randomly pick unique books from the catalog, excluding those already selected
+      RandomGenerator random = seed == null
+          ? ThreadLocalRandom.current() : new SplittableRandom(seed);
+      List<Book> sample = mockApiService.getRandomBooks(2 * k - popular.size(), popular, random);
+      if (sample == null) {
+        return new ResponseEntity<>("Not enough books to form recommendations.",
+            HttpStatus.BAD_REQUEST);
+      }
+      recommendations.addAll(sample);
 
-      List<Book> recommendations = new ArrayList<>();
-      Set<Integer> ids = new HashSet<>();
+      return new ResponseEntity<>(project(recommendations, projection), HttpStatus.OK);
+    } catch (Exception e) {
+      LOGGER.error("Some error occurred when getting recommendations.", e);
+      return new ResponseEntity<>("Some error occurred when getting recommendations.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
 
-      // Add top 5 most popular
-      for (int i = 0; i < 5; i++) {
-        Book b = booksCopy.get(i);
-        recommendations.add(b);
-        ids.add(b.getId());
+  /**
+   * Checks out a book given its id via request param 'id'.
+   * On success returns the updated Book object, once the checkout has been written to the
+   * inventory log if one is configured. Answers HTTP 503 if the log cannot record it.
+   */
+  @GetMapping({"/checkout"})
+  public ResponseEntity<?> checkoutBook(@RequestParam Integer id) {
+    try {
+      Book book = mockApiService.findById(id);
+      if (book != null) {
+        String due = book.checkoutCopy(mockApiService.getLoanCalendar());
+        if (due == null) {
+          return new ResponseEntity<>("No copy available.", HttpStatus.BAD_REQUEST);
+        }
+        // Update book in the mock api service
+        mockApiService.update(book);
+        if (!mockApiService.awaitDurable()) {
+          return new ResponseEntity<>("Failed to record the checkout.",
+              HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return new ResponseEntity<>(book, HttpStatus.OK);
+      }
+
+      return bookNotFound();
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
+    } catch (Exception e) {
+      LOGGER.error("Some error occurred during checkout.", e);
+      return new ResponseEntity<>("Some error occurred during checkout.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Checks out a stack of books in one request, as at a self-checkout kiosk. Repeated ids ask
+   * for several copies of the same book; each book is located and locked once.
+   *
+   * @param ids The ids of the books to check out, one entry per copy.
+   * @return A {@code ResponseEntity} containing one {@code CheckoutResult} per distinct book,
+   *         in request order, with an HTTP 200 response, a message with an HTTP 400 response
+   *         if an id is {@code null}, a message with an HTTP 503 response if the inventory
+   *         log cannot record the checkouts, or a message indicating an error occurred with an
+   *         HTTP 500 response.
+   */
+  @PostMapping({"/checkout/batch"})
+  public ResponseEntity<?> checkoutBooks(@RequestBody List<Integer> ids) {
+    try {
+      Map<Integer, Integer> wanted = new LinkedHashMap<>();
+      for (Integer id : ids) {
+        if (id == null) {
+          return new ResponseEntity<>("Ids must be numbers.", HttpStatus.BAD_REQUEST);
+        }
+        wanted.merge(id, 1, Integer::sum);
       }
 
-      // For remaining random books - exclude already selected
-      List<Book> remaining = new ArrayList<>();
-      for (Book b : booksCopy) {
-        if (!ids.contains(b.getId())) {
-          remaining.add(b);
+      List<CheckoutResult> results = new ArrayList<>(wanted.size());
+      for (Map.Entry<Integer, Integer> entry : wanted.entrySet()) {
+        int count = entry.getValue();
+        Book book = mockApiService.findById(entry.getKey());
+        if (book == null) {
+          results.add(new CheckoutResult(entry.getKey(), count, List.of(), "Book not found."));
+          continue;
         }
+        List<String> dueDates = book.checkoutCopies(count, mockApiService.getLoanCalendar());
+        String error = dueDates.size() < count ? "No copy available." : null;
+        results.add(new CheckoutResult(book.getId(), count, dueDates, error));
       }
 
-      // Not enough remaining to pick random unique books
-      if (remaining.size() < 5) {
-        return new ResponseEntity<>("Not enough books to form recommendations.",
+      if (!mockApiService.awaitDurable()) {
+        return new ResponseEntity<>("Failed to record the checkouts.",
             HttpStatus.INTERNAL_SERVER_ERROR);
       }
+      return new ResponseEntity<>(results, HttpStatus.OK);
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
+    } catch (Exception e) {
+      LOGGER.error("Some error occurred during batch checkout.", e);
+      return new ResponseEntity<>("Some error occurred during batch checkout.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
 
-      // Randomly pick 5 unique from remaining
-      Random rand = new Random();
-      while (recommendations.size() < 10) {
-        int idx = rand.nextInt(remaining.size());
-        Book candidate = remaining.get(idx);
-        if (!ids.contains(candidate.getId())) {
-          recommendations.add(candidate);
-          ids.add(candidate.getId());
+  /**
+   * Returns a checked-out copy of a book given its id and the due date of the loan.
+   * On success returns the updated Book object, once the return has been written to the
+   * inventory log if one is configured.
+   *
+   * @param id The unique id of the book.
+   * @param date The due date of the returned copy, as {@code yyyy-MM-dd}.
+   * @return A {@code ResponseEntity} containing the updated {@code Book} with an HTTP 200
+   *         response, a message with an HTTP 400 response if no copy is due on that date,
+   *         HTTP 404 if the book is not found, a message with an HTTP 503 response if the
+   *         inventory log cannot record the return, or a message indicating an error occurred
+   *         with an HTTP 500 response.
+   */
+  @GetMapping({"/return"})
+  public ResponseEntity<?> returnBook(@RequestParam Integer id, @RequestParam String date) {
+    try {
+      Book book = mockApiService.findById(id);
+      if (book != null) {
+        if (!book.returnCopy(date)) {
+          return new ResponseEntity<>("No checked-out copy is due on " + date + ".",
+              HttpStatus.BAD_REQUEST);
+        }
+        if (!mockApiService.awaitDurable()) {
+          return new ResponseEntity<>("Failed to record the return.",
+              HttpStatus.INTERNAL_SERVER_ERROR);
         }
+        return new ResponseEntity<>(book, HttpStatus.OK);
       }
 
-      return new ResponseEntity<>(recommendations, HttpStatus.OK);
+      return bookNotFound();
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
     } catch (Exception e) {
-      System.err.println(e);
-      return new ResponseEntity<>("Some error occurred when getting recommendations.",
+      LOGGER.error("Some error occurred during return.", e);
+      return new ResponseEntity<>("Some error occurred during return.",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
 
   /**
-   * Checks out a book given its id via request param 'id'.
-   * On success returns the updated Book object.
+   * Returns many checked-out copies at once, as when emptying a book drop. Each return is
+   * applied independently; the response is sent once all of them have been written to the
+   * inventory log, if one is configured, so the whole batch shares the log flushes.
+   *
+   * @param returns The copies to return, each identified by book id and due date.
+   * @return A {@code ResponseEntity} containing a {@code BulkReturnResult} with the number of
+   *         copies returned and the returns that matched no checked-out copy with an HTTP 200
+   *         response, a message with an HTTP 400 response if an entry, its id or its date is
+   *         missing, a message with an HTTP 503 response if the inventory log cannot record
+   *         the returns, or a message indicating an error occurred with an HTTP 500 response.
    */
-  @GetMapping({"/checkout"})
-  public ResponseEntity<?> checkoutBook(@RequestParam Integer id) {
+  @PostMapping({"/return/bulk"})
+  public ResponseEntity<?> returnBooks(@RequestBody List<LoanReturn> returns) {
     try {
-      for (Book book : mockApiService.getBooks()) {
-        if (book.getId() == id) {
-          String due = book.checkoutCopy();
-          if (due == null) {
-            return new ResponseEntity<>("No copy available.", HttpStatus.BAD_REQUEST);
-          }
-          // Update book in the mock api service
-          mockApiService.updateBook(book);
-          return new ResponseEntity<>(book, HttpStatus.OK);
+      for (LoanReturn loan : returns) {
+        if (loan == null || loan.id() == null || loan.date() == null) {
+          return new ResponseEntity<>("Each return needs an id and a date.",
+              HttpStatus.BAD_REQUEST);
+        }
+      }
+
+      int returned = 0;
+      List<LoanReturn> rejected = new ArrayList<>();
+      for (LoanReturn loan : returns) {
+        Book book = mockApiService.findById(loan.id());
+        if (book != null && book.returnCopy(loan.date())) {
+          returned++;
+        } else {
+          rejected.add(loan);
         }
       }
 
-      return new ResponseEntity<>("Book not found.", HttpStatus.NOT_FOUND);
+      if (!mockApiService.awaitDurable()) {
+        return new ResponseEntity<>("Failed to record the returns.",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+      return new ResponseEntity<>(new BulkReturnResult(returned, rejected), HttpStatus.OK);
+    } catch (IllegalStateException e) {
+      return logUnavailable(e);
+    } catch (Exception e) {
+      LOGGER.error("Some error occurred during bulk return.", e);
+      return new ResponseEntity<>("Some error occurred during bulk return.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Lists the checked-out copies whose due date has passed, oldest first. The service reads
+   * only the part of its due-date index before today; the catalog is not scanned.
+   *
+   * @param limit The maximum number of loans to return.
+   * @return A {@code ResponseEntity} containing at most {@code limit} {@code Loan} objects with
+   *         an HTTP 200 response, a message with an HTTP 400 response if {@code limit} is not
+   *         positive, or a message indicating an error occurred with an HTTP 500 response.
+   */
+  @GetMapping({"/loans/overdue"})
+  public ResponseEntity<?> getOverdueLoans(@RequestParam(defaultValue = "100") int limit) {
+    try {
+      if (limit < 1) {
+        return new ResponseEntity<>("limit must be a positive number.", HttpStatus.BAD_REQUEST);
+      }
+      return new ResponseEntity<>(mockApiService.getOverdueLoans(limit), HttpStatus.OK);
     } catch (Exception e) {
-      System.err.println(e);
-      return new ResponseEntity<>("Some error occurred during checkout.",
+      LOGGER.error("Error occurred when getting overdue loans.", e);
+      return new ResponseEntity<>("Error occurred when getting overdue loans.",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
   }
 
+  /**
+   * Lists the checked-out copies due in a range of days, ordered by due date and then book id.
+   *
+   * @param from The first due date, as {@code yyyy-MM-dd}.
+   * @param to The last due date, as {@code yyyy-MM-dd}; defaults to {@code from}.
+   * @param limit The maximum number of loans to return.
+   * @return A {@code ResponseEntity} containing at most {@code limit} {@code Loan} objects with
+   *         an HTTP 200 response, a message with an HTTP 400 response if a date is malformed,
+   *         {@code to} is before {@code from} or {@code limit} is not positive, or a message
+   *         indicating an error occurred with an HTTP 500 response.
+   */
+  @GetMapping({"/loans/due"})
+  public ResponseEntity<?> getLoansDue(@RequestParam String from,
+      @RequestParam(required = false) String to,
+      @RequestParam(defaultValue = "100") int limit) {
+    try {
+      LocalDate first;
+      LocalDate last;
+      try {
+        first = LocalDate.parse(from);
+        last = to == null ? first : LocalDate.parse(to);
+      } catch (DateTimeParseException e) {
+        return new ResponseEntity<>("from and to must be dates formatted as yyyy-MM-dd.",
+            HttpStatus.BAD_REQUEST);
+      }
+      if (last.isBefore(first)) {
+        return new ResponseEntity<>("to must not be before from.", HttpStatus.BAD_REQUEST);
+      }
+      if (limit < 1) {
+        return new ResponseEntity<>("limit must be a positive number.", HttpStatus.BAD_REQUEST);
+      }
+      return new ResponseEntity<>(mockApiService.getLoansDue(first, last, limit),
+          HttpStatus.OK);
+    } catch (Exception e) {
+      LOGGER.error("Error occurred when getting loans due.", e);
+      return new ResponseEntity<>("Error occurred when getting loans due.",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Returns the number of overdue copies counted by each daily sweep, oldest day first.
+   *
+   * @return A {@code ResponseEntity} containing the {@code OverdueCount} of each recorded day
+   *         with an HTTP 200 response.
+   */
+  @GetMapping({"/loans/overdue/daily"})
+  public ResponseEntity<?> getOverdueHistory() {
+    return new ResponseEntity<>(mockApiService.getOverdueHistory(), HttpStatus.OK);
+  }
+
+  /**
+   * Returns the counters of the cache from which book responses are written.
+   *
+   * @return A {@code ResponseEntity} containing the {@code CacheStats} with an HTTP 200
+   *         response, or a message with an HTTP 404 response if no cache is configured.
+   */
+  @GetMapping({"/cache/stats"})
+  public ResponseEntity<?> getCacheStats() {
+    if (responseCache == null) {
+      return new ResponseEntity<>("Response cache is not configured.", HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(responseCache.stats(), HttpStatus.OK);
+  }
+
+  private static Set<BookField> projection(String fields) {
+    return fields == null ? null : BookField.parse(fields);
+  }
+
+  /**
+   * Returns a body writing only the given fields of each book, or the books as a
+   * {@link BookList} when no projection was asked for, so that every list endpoint can be
+   * written from the response cache or as CBOR.
+   */
+  private static Object project(List<Book> books, Set<BookField> fields) {
+    if (fields != null) {
+      return new StreamedBooks(books, Integer.MAX_VALUE, fields);
+    }
+    return books instanceof BookList ? books : new BookList(books);
+  }
+
+  /**
+   * Answers a change that the inventory log refused because it can no longer record changes.
+   */
+  private static ResponseEntity<?> logUnavailable(IllegalStateException e) {
+    LOGGER.error("The inventory log refused a change.", e);
+    return new ResponseEntity<>("Changes cannot be recorded right now.",
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  /**
+   * Builds the response for an unknown book id. While the catalog is still loading in the
+   * background the book may simply not have been read yet, so clients are told to retry.
+   */
+  private ResponseEntity<?> bookNotFound() {
+    if (mockApiService.isLoading()) {
+      return new ResponseEntity<>("Catalog is still loading.", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>("Book not found.", HttpStatus.NOT_FOUND);
+  }
 }
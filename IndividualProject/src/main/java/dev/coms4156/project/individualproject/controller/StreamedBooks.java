@@ -0,0 +1,77 @@
+package dev.coms4156.project.individualproject.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.BookField;
+import dev.coms4156.project.individualproject.model.BookSerializer;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * This class is a response body that serializes a lazy sequence of books as an array, one book
+ * at a time, straight into the generator of the HTTP message converter. The books are never
+ * collected into a list and the output is flushed periodically, so the response is streamed to
+ * the client instead of being buffered as a whole. A projection writes only some fields of each
+ * book.
+ */
+final class StreamedBooks extends JsonSerializable.Base {
+
+  static final int FLUSH_INTERVAL = 256;
+
+  private final Iterable<Book> books;
+  private final int limit;
+  private final Set<BookField> fields;
+
+  StreamedBooks(Iterable<Book> books, int limit) {
+    this(books, limit, null);
+  }
+
+  StreamedBooks(Iterable<Book> books, int limit, Set<BookField> fields) {
+    this.books = books;
+    this.limit = limit;
+    this.fields = fields;
+  }
+
+  Iterable<Book> books() {
+    return books;
+  }
+
+  int limit() {
+    return limit;
+  }
+
+  Set<BookField> fields() {
+    return fields;
+  }
+
+  @Override
+  public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+    JsonSerializer<Object> serializer = provider.findTypedValueSerializer(Book.class, true, null);
+    gen.writeStartArray();
+    int written = 0;
+    for (Book book : books) {
+      if (written == limit) {
+        break;
+      }
+      if (fields == null) {
+        serializer.serialize(book, gen, provider);
+      } else {
+        BookSerializer.write(book, gen, fields);
+      }
+      if (++written % FLUSH_INTERVAL == 0) {
+        gen.flush();
+      }
+    }
+    gen.writeEndArray();
+  }
+
+  @Override
+  public void serializeWithType(JsonGenerator gen, SerializerProvider provider,
+      TypeSerializer typeSer) throws IOException {
+    serialize(gen, provider);
+  }
+}
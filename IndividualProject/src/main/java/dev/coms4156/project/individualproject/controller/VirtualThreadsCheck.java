@@ -0,0 +1,24 @@
+package dev.coms4156.project.individualproject.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class warns at startup when requests are meant to run on virtual threads but the JVM
+ * is older than Java 21, in which case Spring Boot silently keeps Tomcat's platform-thread
+ * pool.
+ */
+@Component
+class VirtualThreadsCheck {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadsCheck.class);
+
+  VirtualThreadsCheck(@Value("${spring.threads.virtual.enabled:false}") boolean enabled) {
+    if (enabled && Runtime.version().feature() < 21) {
+      LOGGER.warn("spring.threads.virtual.enabled is set, but virtual threads need Java 21 "
+          + "(build with -Pjava21); requests are served on platform threads.");
+    }
+  }
+}
@@ -1,25 +1,41 @@
 package dev.coms4156.project.individualproject.model;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
 /**
- * This class defines the Book model.
+ * This class defines the Book model. Inventory mutations ({@link #checkoutCopy()},
+ * {@link #returnCopy(String)}, {@link #addCopy()} and {@link #deleteCopy()}) are atomic per
+ * book: they run under the book's {@link InventoryLocks} stripe, so concurrent callers cannot
+ * oversell copies, and commit by publishing a new immutable {@link Inventory} version through
+ * a volatile field. Readers never lock: each inventory getter reads one version, and
+ * {@link #getInventory()} returns a version whose counters and due dates belong together. The
+ * JSON form is written from a single version too.
+ *
+ * <p>The representation is compact: repeated strings are shared through {@link StringPool},
+ * author and subject lists are immutable and exactly sized, and due dates are kept in a
+ * {@link DueDates} multiset of epoch days rather than a list of strings, so a return is matched
+ * in constant time. The JSON form is unchanged, and is written by {@link BookSerializer}
+ * without reflection.
  */
+@JsonSerialize(using = BookSerializer.class)
 public class Book implements Comparable<Book> {
+
   private String title;
-  private ArrayList<String> authors;
+  private List<String> authors;
   private String language;
   private String shelvingLocation;
   private String publicationDate;
   private String publisher;
-  private ArrayList<String> subjects;
+  private List<String> subjects;
   private int id;
-  private int amountOfTimesCheckedOut;
-  private int copiesAvailable;
-  private ArrayList<String> returnDates;
-  private int totalCopies;
+  private volatile Inventory inventory;
+  private InventoryListener listener;
 
   /**
    * Very basic Book constructor.
@@ -30,16 +46,13 @@ public class Book implements Comparable<Book> {
   public Book(String title, int id) {
     this.title = title;
     this.id = id;
-    this.authors = new ArrayList<>();
+    this.authors = List.of();
     this.language = "";
     this.shelvingLocation = "";
     this.publicationDate = "";
     this.publisher = "";
-    this.subjects = new ArrayList<>();
-    this.amountOfTimesCheckedOut = 0;
-    this.copiesAvailable = 1;
-    this.returnDates = new ArrayList<>();
-    this.totalCopies = 1;
+    this.subjects = List.of();
+    this.inventory = Inventory.of(0, 1, 1, null);
   }
 
   /**
@@ -56,43 +69,37 @@ public class Book implements Comparable<Book> {
    * @param copiesAvailable number of copies available of the book.
    * @param totalCopies number of available and checked-out copies of the book.
    */
-  public Book(String title, ArrayList<String> authors, String language, String shelvingLocation,
-              String publicationDate, String publisher, ArrayList<String> subjects,
+  public Book(String title, List<String> authors, String language, String shelvingLocation,
+              String publicationDate, String publisher, List<String> subjects,
               int id, int copiesAvailable, int totalCopies) {
     this.title = title;
-    this.authors = authors;
-    this.language = language;
-    this.shelvingLocation = shelvingLocation;
-    this.publicationDate = publicationDate;
-    this.publisher = publisher;
-    this.subjects = subjects;
+    this.authors = StringPool.internAll(authors);
+    this.language = StringPool.intern(language);
+    this.shelvingLocation = StringPool.intern(shelvingLocation);
+    this.publicationDate = StringPool.intern(publicationDate);
+    this.publisher = StringPool.intern(publisher);
+    this.subjects = StringPool.internAll(subjects);
     this.id = id;
-    this.amountOfTimesCheckedOut = 0;
-    this.copiesAvailable = copiesAvailable;
-    this.returnDates = new ArrayList<>();
-    this.totalCopies = totalCopies;
+    this.inventory = Inventory.of(0, copiesAvailable, totalCopies, null);
   }
 
   /**
    * No args constructor for Jackson.
    */
   public Book() {
-    this.authors = new ArrayList<>();
-    this.subjects = new ArrayList<>();
-    this.returnDates = new ArrayList<>();
+    this.authors = List.of();
+    this.subjects = List.of();
     this.language = "";
     this.shelvingLocation = "";
     this.publicationDate = "";
     this.publisher = "";
     this.title = "";
-    this.amountOfTimesCheckedOut = 0;
-    this.copiesAvailable = 1;
-    this.totalCopies = 1;
+    this.inventory = Inventory.of(0, 1, 1, null);
     this.id = 0;
   }
 
   public boolean hasCopies() {
-    return copiesAvailable > 0;
+    return inventory.getCopiesAvailable() > 0;
   }
 
   public boolean hasMultipleAuthors() {
@@ -107,59 +114,155 @@ public class Book implements Comparable<Book> {
    */
 
   public boolean deleteCopy() {
-    if (totalCopies > 0 && copiesAvailable > 0) {
-      totalCopies--;
-      copiesAvailable--;
-      return true;
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      Inventory current = inventory;
+      if (current.getTotalCopies() > 0 && current.getCopiesAvailable() > 0) {
+        beforeChange();
+        inventory = current.withCopies(-1);
+        if (listener != null) {
+          listener.onCopiesChanged(this, -1);
+        }
+        return true;
+      }
+      return false;
+    } finally {
+      lock.unlock();
     }
-    return false;
   }
 
+  /**
+   * Adds a single available copy of the book.
+   */
   public void addCopy() {
-    totalCopies++;
-    copiesAvailable++;
+    addCopies(1);
   }
 
   /**
-   * Checks out a copy of the book if available and generates a due date two weeks from today.
+   * Adds several available copies of the book in one atomic step.
+   *
+   * @param count The number of copies to add.
+   * @return {@code true} if the copies were added, or {@code false} if the book would then
+   *         have more than {@link Integer#MAX_VALUE} copies, in which case none are added.
+   */
+  public boolean addCopies(int count) {
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      Inventory current = inventory;
+      if (current.getTotalCopies() > Integer.MAX_VALUE - count
+          || current.getCopiesAvailable() > Integer.MAX_VALUE - count) {
+        return false;
+      }
+      beforeChange();
+      inventory = current.withCopies(count);
+      if (listener != null) {
+        listener.onCopiesChanged(this, count);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks out a copy of the book if available, due in two weeks.
    *
    * @return A {@code String} representing the due date if the checkout is successful;
    *         otherwise, {@code null} if no copies are available.
    */
 
   public String checkoutCopy() {
-    if (copiesAvailable > 0) {
-      copiesAvailable--;
-      amountOfTimesCheckedOut++;
-      LocalDate today = LocalDate.now();
-      LocalDate dueDate = today.plusWeeks(2);
-      String dueDateStr = dueDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
-      returnDates.add(dueDateStr);
-      return dueDateStr;
+    return checkoutCopy(LoanCalendar.systemDefault());
+  }
+
+  /**
+   * Checks out a copy of the book if available, due at the end of the loan period that
+   * {@code calendar} sets for this book. Dating the loan allocates nothing.
+   *
+   * @param calendar The calendar that dates the loan.
+   * @return A {@code String} representing the due date if the checkout is successful;
+   *         otherwise, {@code null} if no copies are available.
+   */
+  public String checkoutCopy(LoanCalendar calendar) {
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      Inventory current = inventory;
+      if (current.getCopiesAvailable() > 0) {
+        int dueDay = calendar.dueDay(this);
+        String dueDateStr = LoanCalendar.format(dueDay);
+        beforeChange();
+        inventory = current.withCheckout(dueDay);
+        if (listener != null) {
+          listener.onCheckout(this, dueDay, dueDateStr);
+        }
+        return dueDateStr;
+      }
+
+      if (listener != null) {
+        listener.onCheckoutRefused(this, 1);
+      }
+      return null;
+    } finally {
+      lock.unlock();
     }
+  }
 
-    return null;
+  /**
+   * Checks out up to {@code count} copies of the book while holding its lock once, each due at
+   * the end of the loan period that {@code calendar} sets for this book.
+   *
+   * @param count The number of copies wanted.
+   * @param calendar The calendar that dates the loans.
+   * @return The due dates of the copies checked out, which are fewer than {@code count} if not
+   *         enough copies are available.
+   */
+  public List<String> checkoutCopies(int count, LoanCalendar calendar) {
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      int n = Math.min(count, inventory.getCopiesAvailable());
+      List<String> dueDates = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        dueDates.add(checkoutCopy(calendar));
+      }
+      if (n < count && listener != null) {
+        listener.onCheckoutRefused(this, count - n);
+      }
+      return dueDates;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
    * Returns a previously checked-out copy of the book corresponding to the given due date.
+   * The matching loan is found in constant time, however many copies are checked out.
    *
    * @param date A {@code String} representing the due date of the book being returned.
    * @return {@code true} if the return was successful and a matching date was removed;
    *         {@code false} if no matching due date is found.
    */
   public boolean returnCopy(String date) {
-    if (!returnDates.isEmpty()) {
-      for (int i = 0; i < returnDates.size(); i++) {
-        if (returnDates.get(i).equals(date)) {
-          returnDates.remove(i);
-          copiesAvailable++;
-          return true;
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      Inventory returned = inventory.withReturn(date);
+      if (returned != null) {
+        beforeChange();
+        inventory = returned;
+        if (listener != null) {
+          listener.onReturn(this, date);
         }
+        return true;
       }
-    }
 
-    return false;
+      return false;
+    } finally {
+      lock.unlock();
+    }
   }
 
 
@@ -171,12 +274,12 @@ public class Book implements Comparable<Book> {
     this.title = title;
   }
 
-  public ArrayList<String> getAuthors() {
+  public List<String> getAuthors() {
     return authors;
   }
 
-  public void setAuthors(ArrayList<String> authors) {
-    this.authors = authors;
+  public void setAuthors(List<String> authors) {
+    this.authors = StringPool.internAll(authors);
   }
 
   public String getLanguage() {
@@ -184,7 +287,7 @@ public class Book implements Comparable<Book> {
   }
 
   public void setLanguage(String language) {
-    this.language = language;
+    this.language = StringPool.intern(language);
   }
 
   public String getShelvingLocation() {
@@ -192,7 +295,7 @@ public class Book implements Comparable<Book> {
   }
 
   public void setShelvingLocation(String shelvingLocation) {
-    this.shelvingLocation = shelvingLocation;
+    this.shelvingLocation = StringPool.intern(shelvingLocation);
   }
 
   public String getPublicationDate() {
@@ -200,7 +303,7 @@ public class Book implements Comparable<Book> {
   }
 
   public void setPublicationDate(String publicationDate) {
-    this.publicationDate = publicationDate;
+    this.publicationDate = StringPool.intern(publicationDate);
   }
 
   public String getPublisher() {
@@ -208,15 +311,15 @@ public class Book implements Comparable<Book> {
   }
 
   public void setPublisher(String publisher) {
-    this.publisher = publisher;
+    this.publisher = StringPool.intern(publisher);
   }
 
-  public ArrayList<String> getSubjects() {
+  public List<String> getSubjects() {
     return subjects;
   }
 
-  public void setSubjects(ArrayList<String> subjects) {
-    this.subjects = subjects;
+  public void setSubjects(List<String> subjects) {
+    this.subjects = StringPool.internAll(subjects);
   }
 
   public int getId() {
@@ -227,28 +330,131 @@ public class Book implements Comparable<Book> {
     this.id = id;
   }
 
+  /**
+   * Returns the current version of the book's inventory, without locking. Read it once when
+   * several inventory values must agree with each other.
+   *
+   * @return The immutable {@code Inventory} committed by the latest transition.
+   */
+  @JsonIgnore
+  public Inventory getInventory() {
+    return inventory;
+  }
+
+  @JsonIgnore
   public int getAmountOfTimesCheckedOut() {
-    return amountOfTimesCheckedOut;
+    return inventory.getAmountOfTimesCheckedOut();
+  }
+
+  /**
+   * Sets the number of times the book has been checked out.
+   *
+   * @param amountOfTimesCheckedOut The new count.
+   */
+  @JsonProperty
+  public void setAmountOfTimesCheckedOut(int amountOfTimesCheckedOut) {
+    commit(current -> current.withAmountOfTimesCheckedOut(amountOfTimesCheckedOut));
   }
 
+  @JsonIgnore
   public int getCopiesAvailable() {
-    return copiesAvailable;
+    return inventory.getCopiesAvailable();
+  }
+
+  /**
+   * Sets the number of copies on the shelf. No listener is notified.
+   *
+   * @param copiesAvailable The new count.
+   */
+  @JsonProperty
+  public void setCopiesAvailable(int copiesAvailable) {
+    commit(current -> current.withCopiesAvailable(copiesAvailable));
   }
 
+  /**
+   * Returns the due dates of the checked-out copies.
+   *
+   * @return A copy of the due dates of the current inventory version.
+   */
+  @JsonIgnore
   public ArrayList<String> getReturnDates() {
-    return returnDates;
+    return inventory.getReturnDates();
   }
 
-  public void setReturnDates(ArrayList<String> returnDates) {
-    this.returnDates = returnDates != null ? returnDates : new ArrayList<>();
+  /**
+   * Replaces the due dates of the checked-out copies. ISO-8601 dates are stored as epoch days
+   * and read back in ascending order; any other string is kept as is and listed after them.
+   *
+   * @param returnDates The new due dates; {@code null} is treated as an empty list.
+   */
+  @JsonProperty
+  public void setReturnDates(List<String> returnDates) {
+    commit(current -> current.withReturnDates(returnDates));
   }
 
+  /**
+   * Overwrites the whole inventory state at once, as when recovering it from a log. No
+   * listener is notified.
+   *
+   * @param recovered The inventory version to publish.
+   */
+  public void restoreInventory(Inventory recovered) {
+    commit(current -> recovered);
+  }
+
+  @JsonIgnore
   public int getTotalCopies() {
-    return totalCopies;
+    return inventory.getTotalCopies();
   }
 
+  /**
+   * Sets the number of copies owned. No listener is notified.
+   *
+   * @param totalCopies The new count.
+   */
+  @JsonProperty
   public void setTotalCopies(int totalCopies) {
-    this.totalCopies = totalCopies;
+    commit(current -> current.withTotalCopies(totalCopies));
+  }
+
+  /**
+   * Registers the listener notified of this book's inventory transitions, replacing any
+   * previously registered listener.
+   *
+   * @param listener The {@code InventoryListener} to notify, or {@code null} for none.
+   */
+  @JsonIgnore
+  public void setInventoryListener(InventoryListener listener) {
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      this.listener = listener;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Publishes the version derived from the current one, under the inventory lock so that it
+   * cannot overwrite a concurrent transition.
+   */
+  /**
+   * Lets the listener veto a change about to be applied. The caller holds the book's lock.
+   */
+  private void beforeChange() {
+    if (listener != null) {
+      listener.beforeChange(this);
+    }
+  }
+
+  private void commit(UnaryOperator<Inventory> change) {
+    ReentrantLock lock = InventoryLocks.forId(id);
+    lock.lock();
+    try {
+      inventory = change.apply(inventory);
+    } finally {
+      lock.unlock();
+    }
   }
 
   @Override
@@ -0,0 +1,74 @@
+package dev.coms4156.project.individualproject.model;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * This enum lists the properties of the JSON form of a {@link Book}, in the order in which
+ * {@link BookSerializer} writes them. Each name is encoded once, so writing it copies
+ * precomputed bytes.
+ */
+public enum BookField {
+  TITLE("title"),
+  AUTHORS("authors"),
+  LANGUAGE("language"),
+  SHELVING_LOCATION("shelvingLocation"),
+  PUBLICATION_DATE("publicationDate"),
+  PUBLISHER("publisher"),
+  SUBJECTS("subjects"),
+  ID("id"),
+  AMOUNT_OF_TIMES_CHECKED_OUT("amountOfTimesCheckedOut"),
+  COPIES_AVAILABLE("copiesAvailable"),
+  RETURN_DATES("returnDates"),
+  TOTAL_COPIES("totalCopies");
+
+  private final SerializedString jsonName;
+
+  BookField(String jsonName) {
+    this.jsonName = new SerializedString(jsonName);
+  }
+
+  /**
+   * Returns the name of the property in the JSON form.
+   *
+   * @return The encoded property name.
+   */
+  public SerializableString jsonName() {
+    return jsonName;
+  }
+
+  /**
+   * Parses a comma-separated list of JSON property names, such as
+   * {@code title,copiesAvailable}. Blank entries are ignored.
+   *
+   * @param names The property names.
+   * @return The fields named, which are written in their usual order whatever the order of
+   *         {@code names}.
+   * @throws IllegalArgumentException If a name is not a property of a book, or none is given.
+   */
+  public static Set<BookField> parse(String names) {
+    EnumSet<BookField> fields = EnumSet.noneOf(BookField.class);
+    for (String name : names.split(",")) {
+      String trimmed = name.strip();
+      if (trimmed.isEmpty()) {
+        continue;
+      }
+      BookField field = null;
+      for (BookField candidate : values()) {
+        if (candidate.jsonName.getValue().equals(trimmed)) {
+          field = candidate;
+        }
+      }
+      if (field == null) {
+        throw new IllegalArgumentException("Unknown book field: " + trimmed);
+      }
+      fields.add(field);
+    }
+    if (fields.isEmpty()) {
+      throw new IllegalArgumentException("No book field given.");
+    }
+    return fields;
+  }
+}
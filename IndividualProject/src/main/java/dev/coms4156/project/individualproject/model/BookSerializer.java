@@ -0,0 +1,119 @@
+package dev.coms4156.project.individualproject.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class writes the JSON form of a {@link Book} straight to the generator, field by field,
+ * instead of discovering its properties and calling its getters reflectively. The output is the
+ * same as Jackson's bean serialization produced: the fields of {@link BookField} in order, with
+ * the inventory read from a single {@link Inventory} version. Due dates are written from the
+ * inventory's epoch days without building the list {@link Book#getReturnDates()} returns.
+ *
+ * <p>{@link #write(Book, JsonGenerator, Set)} writes only some of the fields, for clients
+ * that ask for a projection of the catalog.
+ */
+public final class BookSerializer extends StdSerializer<Book> {
+
+  private static final long serialVersionUID = 1L;
+
+  public BookSerializer() {
+    super(Book.class);
+  }
+
+  @Override
+  public void serialize(Book book, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+    write(book, gen, null);
+  }
+
+  /**
+   * Writes the given fields of a book as a JSON object.
+   *
+   * @param book The book to write.
+   * @param gen The generator to write to.
+   * @param fields The fields to write, or {@code null} for all of them.
+   * @throws IOException If the generator cannot write.
+   */
+  public static void write(Book book, JsonGenerator gen, Set<BookField> fields)
+      throws IOException {
+    Inventory inventory = book.getInventory();
+    gen.writeStartObject(book);
+    if (has(fields, BookField.TITLE)) {
+      gen.writeFieldName(BookField.TITLE.jsonName());
+      gen.writeString(book.getTitle());
+    }
+    if (has(fields, BookField.AUTHORS)) {
+      gen.writeFieldName(BookField.AUTHORS.jsonName());
+      writeStrings(book.getAuthors(), gen);
+    }
+    if (has(fields, BookField.LANGUAGE)) {
+      gen.writeFieldName(BookField.LANGUAGE.jsonName());
+      gen.writeString(book.getLanguage());
+    }
+    if (has(fields, BookField.SHELVING_LOCATION)) {
+      gen.writeFieldName(BookField.SHELVING_LOCATION.jsonName());
+      gen.writeString(book.getShelvingLocation());
+    }
+    if (has(fields, BookField.PUBLICATION_DATE)) {
+      gen.writeFieldName(BookField.PUBLICATION_DATE.jsonName());
+      gen.writeString(book.getPublicationDate());
+    }
+    if (has(fields, BookField.PUBLISHER)) {
+      gen.writeFieldName(BookField.PUBLISHER.jsonName());
+      gen.writeString(book.getPublisher());
+    }
+    if (has(fields, BookField.SUBJECTS)) {
+      gen.writeFieldName(BookField.SUBJECTS.jsonName());
+      writeStrings(book.getSubjects(), gen);
+    }
+    if (has(fields, BookField.ID)) {
+      gen.writeFieldName(BookField.ID.jsonName());
+      gen.writeNumber(book.getId());
+    }
+    if (has(fields, BookField.AMOUNT_OF_TIMES_CHECKED_OUT)) {
+      gen.writeFieldName(BookField.AMOUNT_OF_TIMES_CHECKED_OUT.jsonName());
+      gen.writeNumber(inventory.getAmountOfTimesCheckedOut());
+    }
+    if (has(fields, BookField.COPIES_AVAILABLE)) {
+      gen.writeFieldName(BookField.COPIES_AVAILABLE.jsonName());
+      gen.writeNumber(inventory.getCopiesAvailable());
+    }
+    if (has(fields, BookField.RETURN_DATES)) {
+      gen.writeFieldName(BookField.RETURN_DATES.jsonName());
+      gen.writeStartArray();
+      for (int day : inventory.dueDays()) {
+        gen.writeString(LoanCalendar.format(day));
+      }
+      for (String date : inventory.otherDueDates()) {
+        gen.writeString(date);
+      }
+      gen.writeEndArray();
+    }
+    if (has(fields, BookField.TOTAL_COPIES)) {
+      gen.writeFieldName(BookField.TOTAL_COPIES.jsonName());
+      gen.writeNumber(inventory.getTotalCopies());
+    }
+    gen.writeEndObject();
+  }
+
+  private static boolean has(Set<BookField> fields, BookField field) {
+    return fields == null || fields.contains(field);
+  }
+
+  private static void writeStrings(List<String> values, JsonGenerator gen) throws IOException {
+    if (values == null) {
+      gen.writeNull();
+      return;
+    }
+    gen.writeStartArray();
+    for (String value : values) {
+      gen.writeString(value);
+    }
+    gen.writeEndArray();
+  }
+}
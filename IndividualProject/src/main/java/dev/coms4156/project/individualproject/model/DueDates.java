@@ -0,0 +1,212 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.util.Arrays;
+
+/**
+ * This class defines the multiset of due dates of a book's checked-out copies, keyed by epoch
+ * day. It is an open-addressing hash table from day to count, so matching a return is a
+ * constant-time probe however many copies are out; copies due on the same day share one entry.
+ *
+ * <p>Instances are immutable once published: {@link #plus} and {@link #minus} return changed
+ * copies, which costs one copy of the table, proportional to the number of distinct due days
+ * rather than of copies. This lets an {@link Inventory} version share its due dates with
+ * readers without a lock.
+ */
+final class DueDates {
+
+  static final DueDates EMPTY = new DueDates(4);
+
+  private int[] days;
+  private int[] counts;
+  private int distinct;
+  private int size;
+
+  private DueDates(int capacity) {
+    this.days = new int[capacity];
+    this.counts = new int[capacity];
+  }
+
+  private DueDates(DueDates other) {
+    this.days = other.days.clone();
+    this.counts = other.counts.clone();
+    this.distinct = other.distinct;
+    this.size = other.size;
+  }
+
+  /**
+   * Returns due dates holding the given days, repeated once per copy.
+   */
+  static DueDates of(int[] days) {
+    if (days.length == 0) {
+      return EMPTY;
+    }
+    DueDates dueDates = new DueDates(4);
+    for (int day : days) {
+      dueDates.add(day);
+    }
+    return dueDates;
+  }
+
+  /**
+   * Returns due dates holding {@code counts[i]} copies due on {@code days[i]}; a day may be
+   * given more than once.
+   */
+  static DueDates of(int[] days, int[] counts) {
+    if (days.length == 0) {
+      return EMPTY;
+    }
+    DueDates dueDates = new DueDates(Integer.highestOneBit(days.length) * 4);
+    for (int i = 0; i < days.length; i++) {
+      for (int c = 0; c < counts[i]; c++) {
+        dueDates.add(days[i]);
+      }
+    }
+    return dueDates;
+  }
+
+  /**
+   * Returns these due dates with one more copy due on {@code day}.
+   */
+  DueDates plus(int day) {
+    DueDates copy = new DueDates(this);
+    copy.add(day);
+    return copy;
+  }
+
+  /**
+   * Returns these due dates with one copy due on {@code day} fewer, or {@code null} if no copy
+   * is due that day.
+   */
+  DueDates minus(int day) {
+    if (counts[probe(day)] == 0) {
+      return null;
+    }
+    DueDates copy = new DueDates(this);
+    copy.remove(day);
+    return copy;
+  }
+
+  private void add(int day) {
+    int pos = probe(day);
+    if (counts[pos] == 0) {
+      if ((distinct + 1) * 2 > days.length) {
+        resize(days.length * 2);
+        pos = probe(day);
+      }
+      days[pos] = day;
+      distinct++;
+    }
+    counts[pos]++;
+    size++;
+  }
+
+  private boolean remove(int day) {
+    int pos = probe(day);
+    if (counts[pos] == 0) {
+      return false;
+    }
+    size--;
+    if (--counts[pos] == 0) {
+      distinct--;
+      shiftBack(pos);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of copies recorded.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of distinct days recorded.
+   */
+  int distinct() {
+    return distinct;
+  }
+
+  /**
+   * Copies the distinct days and the number of copies due on each into the given arrays, in
+   * table order, which costs time proportional to the table rather than to the copies.
+   */
+  void copyTo(int[] toDays, int[] toCounts) {
+    int n = 0;
+    for (int pos = 0; pos < days.length; pos++) {
+      if (counts[pos] != 0) {
+        toDays[n] = days[pos];
+        toCounts[n++] = counts[pos];
+      }
+    }
+  }
+
+  /**
+   * Returns every recorded day, repeated once per copy, in ascending order.
+   */
+  int[] toSortedArray() {
+    int[] all = new int[size];
+    int n = 0;
+    for (int pos = 0; pos < days.length; pos++) {
+      for (int c = 0; c < counts[pos]; c++) {
+        all[n++] = days[pos];
+      }
+    }
+    Arrays.sort(all);
+    return all;
+  }
+
+  /**
+   * Returns the slot holding {@code day}, or the empty slot where it would be inserted.
+   */
+  private int probe(int day) {
+    int mask = days.length - 1;
+    int pos = hash(day) & mask;
+    while (counts[pos] != 0 && days[pos] != day) {
+      pos = (pos + 1) & mask;
+    }
+    return pos;
+  }
+
+  /**
+   * Closes the gap left at {@code gap} by moving later entries of the same probe run back, so
+   * that lookups never stop early at an empty slot.
+   */
+  private void shiftBack(int gap) {
+    int mask = days.length - 1;
+    int pos = gap;
+    while (true) {
+      pos = (pos + 1) & mask;
+      if (counts[pos] == 0) {
+        return;
+      }
+      int home = hash(days[pos]) & mask;
+      // Move the entry if its home slot is not cyclically in (gap, pos].
+      if (((pos - home) & mask) >= ((pos - gap) & mask)) {
+        days[gap] = days[pos];
+        counts[gap] = counts[pos];
+        counts[pos] = 0;
+        gap = pos;
+      }
+    }
+  }
+
+  private void resize(int capacity) {
+    int[] oldDays = days;
+    int[] oldCounts = counts;
+    days = new int[capacity];
+    counts = new int[capacity];
+    for (int i = 0; i < oldDays.length; i++) {
+      if (oldCounts[i] != 0) {
+        int pos = probe(oldDays[i]);
+        days[pos] = oldDays[i];
+        counts[pos] = oldCounts[i];
+      }
+    }
+  }
+
+  private static int hash(int day) {
+    int h = day * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,285 @@
+package dev.coms4156.project.individualproject.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class defines one version of a book's inventory: how often it has been checked out, its
+ * copies and the due dates of its loans. Versions are immutable. Every inventory transition of
+ * a {@link Book} builds a new version and publishes it with a single volatile write, so a
+ * reader that takes {@link Book#getInventory()} once sees counters and due dates that belong
+ * together, without taking a lock and without waiting for a checkout in progress.
+ *
+ * <p>ISO-8601 due dates are kept as a {@link DueDates} multiset of epoch days and listed in
+ * ascending order; any other string is kept as is and listed after them.
+ */
+@JsonPropertyOrder({"amountOfTimesCheckedOut", "copiesAvailable", "returnDates", "totalCopies"})
+public final class Inventory {
+
+  /**
+   * The value {@link #epochDay(String)} returns for a due date that is not an ISO-8601 date.
+   */
+  public static final int NON_ISO_DATE = Integer.MIN_VALUE;
+
+  private final int amountOfTimesCheckedOut;
+  private final int copiesAvailable;
+  private final int totalCopies;
+  private final DueDates dueDates;
+  private final List<String> otherDueDates;
+
+  private Inventory(int amountOfTimesCheckedOut, int copiesAvailable, int totalCopies,
+      DueDates dueDates, List<String> otherDueDates) {
+    this.amountOfTimesCheckedOut = amountOfTimesCheckedOut;
+    this.copiesAvailable = copiesAvailable;
+    this.totalCopies = totalCopies;
+    this.dueDates = dueDates;
+    this.otherDueDates = otherDueDates;
+  }
+
+  /**
+   * Builds an inventory version.
+   *
+   * @param amountOfTimesCheckedOut The number of times the book has been checked out.
+   * @param copiesAvailable The number of copies on the shelf.
+   * @param totalCopies The number of copies owned.
+   * @param returnDates The due dates of the checked-out copies; {@code null} is treated as an
+   *                    empty list.
+   * @return The new version.
+   */
+  public static Inventory of(int amountOfTimesCheckedOut, int copiesAvailable, int totalCopies,
+      List<String> returnDates) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies,
+        DueDates.EMPTY, Collections.emptyList()).withReturnDates(returnDates);
+  }
+
+  /**
+   * Builds an inventory version from due dates already split into epoch days, as read back
+   * from a log or snapshot.
+   *
+   * @param amountOfTimesCheckedOut The number of times the book has been checked out.
+   * @param copiesAvailable The number of copies on the shelf.
+   * @param totalCopies The number of copies owned.
+   * @param dueDays Epoch days on which copies are due.
+   * @param dueCounts The number of copies due on each of {@code dueDays}.
+   * @param otherDueDates The due dates that are not ISO-8601 dates.
+   * @return The new version.
+   */
+  public static Inventory of(int amountOfTimesCheckedOut, int copiesAvailable, int totalCopies,
+      int[] dueDays, int[] dueCounts, List<String> otherDueDates) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies,
+        DueDates.of(dueDays, dueCounts), otherDueDates.isEmpty() ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(otherDueDates)));
+  }
+
+  public int getAmountOfTimesCheckedOut() {
+    return amountOfTimesCheckedOut;
+  }
+
+  public int getCopiesAvailable() {
+    return copiesAvailable;
+  }
+
+  public int getTotalCopies() {
+    return totalCopies;
+  }
+
+  /**
+   * Returns the due dates of the checked-out copies.
+   *
+   * @return A new list of the due dates, ISO-8601 dates first in ascending order.
+   */
+  public ArrayList<String> getReturnDates() {
+    int[] days = dueDates.toSortedArray();
+    ArrayList<String> dates = new ArrayList<>(days.length + otherDueDates.size());
+    for (int day : days) {
+      dates.add(LocalDate.ofEpochDay(day).toString());
+    }
+    dates.addAll(otherDueDates);
+    return dates;
+  }
+
+  /**
+   * Returns the ISO-8601 due dates of the checked-out copies as epoch days, repeated once per
+   * copy, in ascending order. Due dates that are not ISO-8601 dates are left out.
+   *
+   * @return A new array of epoch days.
+   */
+  public int[] dueDays() {
+    return dueDates.toSortedArray();
+  }
+
+  /**
+   * Returns the number of distinct epoch days on which ISO-8601 due dates fall.
+   *
+   * @return The number of entries {@link #copyDueDays(int[], int[])} copies.
+   */
+  public int distinctDueDays() {
+    return dueDates.distinct();
+  }
+
+  /**
+   * Copies the distinct epoch days on which copies are due, and the number of copies due on
+   * each, in no particular order. The cost depends on the number of distinct days rather than
+   * of copies, and no date is formatted.
+   *
+   * @param days Receives the days; must hold at least {@link #distinctDueDays()} entries.
+   * @param counts Receives the number of copies due on each day, at the same index.
+   */
+  public void copyDueDays(int[] days, int[] counts) {
+    dueDates.copyTo(days, counts);
+  }
+
+  /**
+   * Returns the due dates that are not ISO-8601 dates, in the order they were recorded.
+   *
+   * @return An unmodifiable view of the dates.
+   */
+  public List<String> otherDueDates() {
+    return otherDueDates;
+  }
+
+  /**
+   * Returns this version after a checkout of a copy due on the given epoch day.
+   */
+  Inventory withCheckout(int dueDay) {
+    return new Inventory(amountOfTimesCheckedOut + 1, copiesAvailable - 1, totalCopies,
+        dueDates.plus(dueDay), otherDueDates);
+  }
+
+  /**
+   * Returns this version after the return of the copy due on {@code date}, or {@code null} if
+   * no copy is due then. The loan is matched in constant time for ISO-8601 dates.
+   */
+  Inventory withReturn(String date) {
+    int day = epochDay(date);
+    DueDates days = dueDates;
+    List<String> others = otherDueDates;
+    if (day != NON_ISO_DATE) {
+      days = dueDates.minus(day);
+      if (days == null) {
+        return null;
+      }
+    } else {
+      int at = otherDueDates.indexOf(date);
+      if (at < 0) {
+        return null;
+      }
+      List<String> remaining = new ArrayList<>(otherDueDates);
+      remaining.remove(at);
+      others = Collections.unmodifiableList(remaining);
+    }
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable + 1, totalCopies, days,
+        others);
+  }
+
+  /**
+   * Returns this version with {@code delta} copies added to the shelf, or removed if negative.
+   */
+  Inventory withCopies(int delta) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable + delta, totalCopies + delta,
+        dueDates, otherDueDates);
+  }
+
+  Inventory withAmountOfTimesCheckedOut(int amountOfTimesCheckedOut) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies, dueDates,
+        otherDueDates);
+  }
+
+  Inventory withCopiesAvailable(int copiesAvailable) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies, dueDates,
+        otherDueDates);
+  }
+
+  Inventory withTotalCopies(int totalCopies) {
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies, dueDates,
+        otherDueDates);
+  }
+
+  /**
+   * Returns this version with its due dates replaced.
+   */
+  Inventory withReturnDates(List<String> returnDates) {
+    if (returnDates == null || returnDates.isEmpty()) {
+      return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies,
+          DueDates.EMPTY, Collections.emptyList());
+    }
+    int[] days = new int[returnDates.size()];
+    int n = 0;
+    List<String> others = new ArrayList<>(0);
+    for (String date : returnDates) {
+      int day = epochDay(date);
+      if (day != NON_ISO_DATE) {
+        days[n++] = day;
+      } else {
+        others.add(date);
+      }
+    }
+    return new Inventory(amountOfTimesCheckedOut, copiesAvailable, totalCopies,
+        DueDates.of(Arrays.copyOf(days, n)),
+        others.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(others));
+  }
+
+  /**
+   * Returns the epoch day of a due date.
+   *
+   * @param date A due date, normally as {@code yyyy-MM-dd}.
+   * @return The epoch day, or {@link #NON_ISO_DATE} if {@code date} is not an ISO-8601 date.
+   */
+  public static int epochDay(String date) {
+    if (date == null) {
+      return NON_ISO_DATE;
+    }
+    if (date.length() == 10) {
+      return epochDayOfShortDate(date);
+    }
+    try {
+      long day = LocalDate.parse(date).toEpochDay();
+      return day > Integer.MIN_VALUE && day <= Integer.MAX_VALUE ? (int) day : NON_ISO_DATE;
+    } catch (DateTimeParseException e) {
+      return NON_ISO_DATE;
+    }
+  }
+
+  /**
+   * Converts a {@code yyyy-MM-dd} date without allocating, as every return does. This accepts
+   * exactly the dates of that length that {@code LocalDate.parse} accepts.
+   */
+  private static int epochDayOfShortDate(String date) {
+    int year = digits(date, 0, 4);
+    int month = digits(date, 5, 7);
+    int day = digits(date, 8, 10);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || date.charAt(4) != '-'
+        || date.charAt(7) != '-' || day > Month.of(month).length(Year.isLeap(year))) {
+      return NON_ISO_DATE;
+    }
+    // Days from the civil date, counting years from March so that leap days come last.
+    int y = month <= 2 ? year - 1 : year;
+    int era = Math.floorDiv(y, 400);
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Returns the decimal number in {@code s[from, to)}, or {@code -1} if it has a non-digit.
+   */
+  private static int digits(String s, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+}
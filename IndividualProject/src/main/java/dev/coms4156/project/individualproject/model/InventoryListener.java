@@ -0,0 +1,58 @@
+package dev.coms4156.project.individualproject.model;
+
+/**
+ * This interface defines a callback for inventory transitions of a {@link Book}. Callbacks run
+ * after the change has been applied and while the book's {@link InventoryLocks} stripe is still
+ * held, so a listener observes every transition of a given book in order and can keep derived
+ * indexes consistent with it. {@link #beforeChange(Book)} runs under the same lock before the
+ * change is applied, and may veto it.
+ */
+public interface InventoryListener {
+
+  /**
+   * Called before a change to {@code book} is applied. Throwing leaves the book unchanged.
+   *
+   * @param book The book about to change.
+   * @throws IllegalStateException If the change must not be made.
+   */
+  default void beforeChange(Book book) {
+  }
+
+  /**
+   * Called after a copy of {@code book} has been checked out.
+   *
+   * @param book The book that was checked out.
+   * @param dueDay The due date assigned to the loan, as an epoch day.
+   * @param dueDate The same due date as {@code yyyy-MM-dd}.
+   */
+  default void onCheckout(Book book, int dueDay, String dueDate) {
+  }
+
+  /**
+   * Called after a checked-out copy of {@code book} has been returned.
+   *
+   * @param book The book that was returned.
+   * @param dueDate The due date of the loan that was closed.
+   */
+  default void onReturn(Book book, String dueDate) {
+  }
+
+  /**
+   * Called after copies of {@code book} have been added or deleted.
+   *
+   * @param book The book whose number of copies changed.
+   * @param delta The number of copies added, or minus the number deleted.
+   */
+  default void onCopiesChanged(Book book, int delta) {
+  }
+
+  /**
+   * Called when a checkout of {@code book} asks for more copies than are available. Nothing
+   * has changed, but the demand that could not be met is of interest to listeners.
+   *
+   * @param book The book that was asked for.
+   * @param count The number of copies that could not be checked out.
+   */
+  default void onCheckoutRefused(Book book, int count) {
+  }
+}
@@ -0,0 +1,36 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class defines the lock stripes guarding book inventory. Every mutation of a book's
+ * copies or return dates runs under the stripe selected by the book's id, so concurrent
+ * operations on the same book are serialized while operations on different books almost
+ * never share a lock. Stripes are {@code ReentrantLock}s rather than monitors so that a
+ * blocked virtual thread does not pin its carrier.
+ */
+public final class InventoryLocks {
+
+  private static final int STRIPES = 4096;
+  private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+  static {
+    for (int i = 0; i < STRIPES; i++) {
+      LOCKS[i] = new ReentrantLock();
+    }
+  }
+
+  private InventoryLocks() {
+  }
+
+  /**
+   * Returns the lock stripe guarding the book with the given id.
+   *
+   * @param id The unique id of the book.
+   * @return The {@code ReentrantLock} for that id.
+   */
+  public static ReentrantLock forId(int id) {
+    int h = id * 0x9E3779B9;
+    return LOCKS[(h ^ (h >>> 16)) & (STRIPES - 1)];
+  }
+}
@@ -0,0 +1,218 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class defines the calendar that dates loans: it reads today's date from a
+ * {@link Clock} and decides how long each book may be borrowed. The current epoch day is
+ * computed once per day, when the clock first passes midnight, and the ISO-8601 strings of the
+ * dates around it are formatted once and shared, so a checkout only compares the clock's
+ * milliseconds against the next midnight and allocates nothing to date its loan.
+ *
+ * <p>A loan lasts the period set for the book's id if there is one, otherwise the period set
+ * for its shelving location, otherwise the default period. Each service dates its checkouts
+ * with its own calendar; {@link #systemDefault()} is the system clock with two-week loans.
+ */
+public final class LoanCalendar {
+
+  /**
+   * The loan period used when none is configured.
+   */
+  public static final int DEFAULT_LOAN_DAYS = 14;
+
+  /**
+   * The number of days whose strings {@link #format(int)} shares, starting
+   * {@link #PAST_DAYS} days before the day a calendar last moved to.
+   */
+  private static final int FORMATTED_DAYS = 512;
+
+  private static final int PAST_DAYS = 128;
+
+  /**
+   * Dates formatted once and shared. Strings are formatted on first use; a racing thread may
+   * format the same string twice, or move the window again, which is harmless because the
+   * strings are the same whichever window holds them.
+   */
+  private static final class Formatted {
+    final int first;
+    final String[] dates = new String[FORMATTED_DAYS];
+
+    Formatted(int first) {
+      this.first = first;
+    }
+  }
+
+  private static volatile Formatted formatted = new Formatted(0);
+
+  private static final LoanCalendar SYSTEM_DEFAULT =
+      new LoanCalendar(Clock.systemDefaultZone(), DEFAULT_LOAN_DAYS, Map.of(), Map.of());
+
+  /**
+   * One day of the calendar.
+   */
+  private static final class Day {
+    final int epochDay;
+    final long startMillis;
+    final long endMillis;
+
+    Day(int epochDay, long startMillis, long endMillis) {
+      this.epochDay = epochDay;
+      this.startMillis = startMillis;
+      this.endMillis = endMillis;
+    }
+  }
+
+  private final Clock clock;
+  private final ZoneId zone;
+  private final int defaultDays;
+  private final Map<String, Integer> daysByLocation;
+  private final int[] bookIds;
+  private final int[] bookDays;
+  private volatile Day day;
+
+  /**
+   * Constructs a calendar.
+   *
+   * @param clock The clock that tells today's date, in its time zone.
+   * @param loanDays The default loan period in days.
+   * @param daysByLocation Loan periods in days by shelving location.
+   * @param daysByBook Loan periods in days by book id, which take precedence over locations.
+   * @throws IllegalArgumentException If a loan period is negative.
+   */
+  public LoanCalendar(Clock clock, int loanDays, Map<String, Integer> daysByLocation,
+      Map<Integer, Integer> daysByBook) {
+    this.clock = clock;
+    this.zone = clock.getZone();
+    this.defaultDays = checkPeriod(loanDays);
+    this.daysByLocation = new HashMap<>();
+    for (Map.Entry<String, Integer> entry : daysByLocation.entrySet()) {
+      this.daysByLocation.put(entry.getKey(), checkPeriod(entry.getValue()));
+    }
+    this.bookIds = daysByBook.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    this.bookDays = new int[bookIds.length];
+    for (int i = 0; i < bookIds.length; i++) {
+      bookDays[i] = checkPeriod(daysByBook.get(bookIds[i]));
+    }
+    this.day = dayOf(clock.millis());
+  }
+
+  /**
+   * Returns the calendar on the system clock with two-week loans, which dates checkouts made
+   * without a calendar of their own.
+   *
+   * @return The default {@code LoanCalendar}.
+   */
+  public static LoanCalendar systemDefault() {
+    return SYSTEM_DEFAULT;
+  }
+
+  /**
+   * Returns today's date as an epoch day.
+   *
+   * @return The epoch day of the clock's current date.
+   */
+  public int today() {
+    return day().epochDay;
+  }
+
+  /**
+   * Returns the number of milliseconds until the next midnight in the clock's time zone.
+   *
+   * @return The time left today, in milliseconds.
+   */
+  public long millisUntilTomorrow() {
+    long now = clock.millis();
+    return day(now).endMillis - now;
+  }
+
+  /**
+   * Returns how many days a copy of {@code book} may be borrowed.
+   *
+   * @param book The book being checked out.
+   * @return The loan period in days.
+   */
+  public int loanDays(Book book) {
+    if (bookIds.length > 0) {
+      int at = Arrays.binarySearch(bookIds, book.getId());
+      if (at >= 0) {
+        return bookDays[at];
+      }
+    }
+    if (!daysByLocation.isEmpty()) {
+      Integer days = daysByLocation.get(book.getShelvingLocation());
+      if (days != null) {
+        return days;
+      }
+    }
+    return defaultDays;
+  }
+
+  /**
+   * Returns the epoch day on which a copy of {@code book} checked out today is due.
+   *
+   * @param book The book being checked out.
+   * @return The due date as an epoch day.
+   */
+  public int dueDay(Book book) {
+    return today() + loanDays(book);
+  }
+
+  /**
+   * Formats an epoch day as {@code yyyy-MM-dd}. The dates from a few months before the current
+   * day to a year after it are formatted once and shared; other days are formatted on every
+   * call. No clock is read.
+   *
+   * @param epochDay The day to format.
+   * @return The ISO-8601 date.
+   */
+  public static String format(int epochDay) {
+    Formatted window = formatted;
+    long offset = (long) epochDay - window.first;
+    if (offset < 0 || offset >= FORMATTED_DAYS) {
+      return LocalDate.ofEpochDay(epochDay).toString();
+    }
+    String date = window.dates[(int) offset];
+    if (date == null) {
+      date = LocalDate.ofEpochDay(epochDay).toString();
+      window.dates[(int) offset] = date;
+    }
+    return date;
+  }
+
+  private Day day() {
+    return day(clock.millis());
+  }
+
+  private Day day(long now) {
+    Day today = day;
+    if (now < today.startMillis || now >= today.endMillis) {
+      today = dayOf(now);
+      day = today;
+    }
+    return today;
+  }
+
+  private Day dayOf(long millis) {
+    LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+    long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+    long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    int epochDay = (int) date.toEpochDay();
+    if (formatted.first != epochDay - PAST_DAYS) {
+      formatted = new Formatted(epochDay - PAST_DAYS);
+    }
+    return new Day(epochDay, start, end);
+  }
+
+  private static int checkPeriod(int days) {
+    if (days < 0) {
+      throw new IllegalArgumentException("Loan periods must not be negative: " + days);
+    }
+    return days;
+  }
+}
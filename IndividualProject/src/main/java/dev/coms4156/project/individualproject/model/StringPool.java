@@ -0,0 +1,60 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class defines the dictionary of catalog strings. Languages, shelving locations,
+ * publishers, publication years, authors and subjects repeat across thousands of books; every
+ * book loaded from JSON would otherwise hold its own copy of each. Passing them through
+ * {@link #intern(String)} makes all books share one instance per distinct value.
+ */
+public final class StringPool {
+
+  private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+  private StringPool() {
+  }
+
+  /**
+   * Returns the shared instance equal to {@code value}.
+   *
+   * @param value The string to look up.
+   * @return The canonical instance, or {@code null} if {@code value} is {@code null}.
+   */
+  public static String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String canonical = POOL.putIfAbsent(value, value);
+    return canonical != null ? canonical : value;
+  }
+
+  /**
+   * Returns an immutable copy of {@code values} whose elements are interned. The copy is backed
+   * by a single exactly sized array, and empty lists share one instance.
+   *
+   * @param values The strings to copy; may contain {@code null} elements.
+   * @return The immutable copy, or {@code null} if {@code values} is {@code null}.
+   */
+  public static List<String> internAll(List<String> values) {
+    if (values == null) {
+      return null;
+    }
+    if (values.isEmpty()) {
+      return List.of();
+    }
+    String[] interned = new String[values.size()];
+    boolean hasNull = false;
+    for (int i = 0; i < interned.length; i++) {
+      interned[i] = intern(values.get(i));
+      hasNull |= interned[i] == null;
+    }
+    if (hasNull) {
+      return Collections.unmodifiableList(Arrays.asList(interned));
+    }
+    return List.of(interned);
+  }
+}
@@ -0,0 +1,38 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class defines the set of books that currently have at least one available copy, ordered
+ * by id. It is updated on every inventory transition, so listing available books never scans
+ * the catalog, and the id ordering lets clients page through it with an {@code after} cursor.
+ */
+public final class AvailabilityIndex {
+
+  private final ConcurrentSkipListMap<Integer, Book> available = new ConcurrentSkipListMap<>();
+
+  /**
+   * Adds or removes {@code book} according to whether it currently has copies.
+   *
+   * @param book The {@code Book} whose availability may have changed.
+   */
+  public void update(Book book) {
+    if (book.hasCopies()) {
+      available.put(book.getId(), book);
+    } else {
+      available.remove(book.getId());
+    }
+  }
+
+  /**
+   * Returns a live view of the available books, in ascending id order.
+   *
+   * @param after If not {@code null}, only books with an id greater than this are included.
+   * @return A weakly consistent view that reflects concurrent updates without failing.
+   */
+  public Collection<Book> view(Integer after) {
+    return after == null ? available.values() : available.tailMap(after, false).values();
+  }
+}
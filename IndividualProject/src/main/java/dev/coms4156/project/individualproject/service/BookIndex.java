@@ -0,0 +1,190 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class defines the primary id index of the catalog. Books are kept in a dense array in
+ * insertion order and located through an open-addressing hash table keyed directly on the
+ * primitive {@code int} id, so lookups never box the key and cost the same regardless of how
+ * many books are loaded.
+ *
+ * <p>Readers never lock. Writers are serialized by an internal lock and publish each entry with
+ * release semantics; when the index grows, a fully built table replaces the old one through a
+ * volatile write, so a concurrent reader always sees either the old or the new table in a
+ * consistent state.
+ */
+public final class BookIndex {
+
+  private static final int EMPTY = -1;
+  private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+  private static final VarHandle BOOK = MethodHandles.arrayElementVarHandle(Book[].class);
+
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Table table;
+  private volatile int size;
+
+  /**
+   * Constructs an empty index sized for the given number of books.
+   *
+   * @param expectedSize The number of books the index should hold without resizing.
+   */
+  public BookIndex(int expectedSize) {
+    this.table = new Table(Math.max(expectedSize, 4));
+  }
+
+  /**
+   * Returns the book with the given id.
+   *
+   * @param id The unique id of the book.
+   * @return The matching {@code Book}, or {@code null} if no book has that id.
+   */
+  public Book get(int id) {
+    Table t = table;
+    int slot = (int) SLOT.getAcquire(t.slots, t.probe(id));
+    return slot == EMPTY ? null : (Book) BOOK.getAcquire(t.books, slot);
+  }
+
+  /**
+   * Returns the dense position of the book with the given id.
+   *
+   * @param id The unique id of the book.
+   * @return The position usable with {@link #getAt(int)}, or {@code -1} if no book has that id.
+   */
+  public int positionOf(int id) {
+    Table t = table;
+    return (int) SLOT.getAcquire(t.slots, t.probe(id));
+  }
+
+  /**
+   * Inserts a book, or replaces the book already stored under the same id in place.
+   *
+   * @param book The {@code Book} to store.
+   * @return {@code true} if the book was newly inserted; {@code false} if it replaced an
+   *         existing entry.
+   */
+  public boolean put(Book book) {
+    writeLock.lock();
+    try {
+      Table t = table;
+      int pos = t.probe(book.getId());
+      if (t.slots[pos] != EMPTY) {
+        BOOK.setRelease(t.books, t.slots[pos], book);
+        return false;
+      }
+
+      int n = size;
+      if (n == t.books.length) {
+        t = t.grow(n);
+        table = t;
+        pos = t.probe(book.getId());
+      }
+      t.books[n] = book;
+      t.keys[pos] = book.getId();
+      SLOT.setRelease(t.slots, pos, n);
+      size = n + 1;
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the book stored under the same id as {@code book}. Unknown ids are ignored.
+   *
+   * @param book The updated {@code Book}.
+   * @return {@code true} if an existing entry was replaced; {@code false} otherwise.
+   */
+  public boolean replace(Book book) {
+    writeLock.lock();
+    try {
+      Table t = table;
+      int slot = t.slots[t.probe(book.getId())];
+      if (slot == EMPTY) {
+        return false;
+      }
+      BOOK.setRelease(t.books, slot, book);
+      return true;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the book stored at the given dense position.
+   *
+   * @param slot A position between {@code 0} (inclusive) and {@link #size()} (exclusive).
+   * @return The {@code Book} at that position.
+   */
+  public Book getAt(int slot) {
+    return (Book) BOOK.getAcquire(table.books, slot);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copies the indexed books, in insertion order, into a new list.
+   *
+   * @return A new {@code ArrayList} containing every indexed book.
+   */
+  public ArrayList<Book> toList() {
+    int n = size;
+    Book[] books = table.books;
+    ArrayList<Book> list = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      list.add((Book) BOOK.getAcquire(books, i));
+    }
+    return list;
+  }
+
+  /**
+   * One generation of the index. The hash table is always at least twice the size of the book
+   * array, so the load factor never exceeds one half.
+   */
+  private static final class Table {
+    private final Book[] books;
+    private final int[] keys;
+    private final int[] slots;
+    private final int mask;
+
+    private Table(int capacity) {
+      int tableSize = Integer.highestOneBit(capacity) << 2;
+      this.books = new Book[capacity];
+      this.keys = new int[tableSize];
+      this.slots = new int[tableSize];
+      this.mask = tableSize - 1;
+      Arrays.fill(slots, EMPTY);
+    }
+
+    private int probe(int id) {
+      int pos = hash(id) & mask;
+      while ((int) SLOT.getAcquire(slots, pos) != EMPTY && keys[pos] != id) {
+        pos = (pos + 1) & mask;
+      }
+      return pos;
+    }
+
+    private Table grow(int size) {
+      Table next = new Table(books.length * 2);
+      for (int slot = 0; slot < size; slot++) {
+        Book book = books[slot];
+        int pos = next.probe(book.getId());
+        next.books[slot] = book;
+        next.keys[pos] = book.getId();
+        next.slots[pos] = slot;
+      }
+      return next;
+    }
+
+    private static int hash(int id) {
+      int h = id * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+}
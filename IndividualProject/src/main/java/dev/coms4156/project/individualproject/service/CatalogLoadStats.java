@@ -0,0 +1,23 @@
+package dev.coms4156.project.individualproject.service;
+
+/**
+ * This record describes a completed catalog load.
+ *
+ * @param books The number of books read.
+ * @param elapsedNanos The wall-clock time the load took, in nanoseconds.
+ */
+public record CatalogLoadStats(long books, long elapsedNanos) {
+
+  public long elapsedMillis() {
+    return elapsedNanos / 1_000_000L;
+  }
+
+  /**
+   * Returns the load throughput.
+   *
+   * @return The number of books read per second.
+   */
+  public double booksPerSecond() {
+    return elapsedNanos == 0 ? 0 : books * 1e9 / elapsedNanos;
+  }
+}
@@ -0,0 +1,137 @@
+package dev.coms4156.project.individualproject.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import dev.coms4156.project.individualproject.model.Book;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * This class reads a JSON array of books as a token stream, handing each book to a sink as soon
+ * as it has been bound instead of materializing the whole catalog first. With more than one
+ * thread, the parser splits the array into chunks of buffered tokens that are bound to
+ * {@code Book} objects in parallel; chunks are still delivered to the sink in file order.
+ */
+public final class CatalogLoader {
+
+  private static final ObjectReader BOOK_READER = new ObjectMapper().readerFor(Book.class);
+
+  private final int threads;
+  private final int chunkSize;
+
+  /**
+   * Constructs a new {@code CatalogLoader}.
+   *
+   * @param threads The number of threads binding books; {@code 1} loads sequentially.
+   * @param chunkSize The number of books bound by a thread at a time.
+   */
+  public CatalogLoader(int threads, int chunkSize) {
+    this.threads = Math.max(threads, 1);
+    this.chunkSize = Math.max(chunkSize, 1);
+  }
+
+  /**
+   * Reads every book from {@code in}, passing them to {@code sink} in file order on the calling
+   * thread. Books delivered before a parse error has been detected stay delivered.
+   *
+   * @param in The stream containing a JSON array of books. It is not closed.
+   * @param sink The consumer receiving each book.
+   * @return The statistics of the load.
+   * @throws IOException If the stream cannot be read or is not a JSON array of books.
+   */
+  public CatalogLoadStats load(InputStream in, Consumer<Book> sink) throws IOException {
+    long start = System.nanoTime();
+    long count;
+    try (JsonParser parser = BOOK_READER.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected a JSON array of books.");
+      }
+      count = threads == 1 ? loadSequential(parser, sink) : loadParallel(parser, sink);
+    }
+    return new CatalogLoadStats(count, System.nanoTime() - start);
+  }
+
+  private long loadSequential(JsonParser parser, Consumer<Book> sink) throws IOException {
+    long count = 0;
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      sink.accept(BOOK_READER.readValue(parser));
+      count++;
+    }
+    return count;
+  }
+
+  private long loadParallel(JsonParser parser, Consumer<Book> sink) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(r, "catalog-binder");
+      thread.setDaemon(true);
+      return thread;
+    });
+    ArrayDeque<Future<List<Book>>> inFlight = new ArrayDeque<>();
+    long count = 0;
+    try {
+      boolean done = false;
+      while (!done) {
+        TokenBuffer chunk = new TokenBuffer(parser);
+        int size = 0;
+        while (size < chunkSize && !done) {
+          if (parser.nextToken() == JsonToken.START_OBJECT) {
+            chunk.copyCurrentStructure(parser);
+            size++;
+          } else {
+            done = true;
+          }
+        }
+        if (size > 0) {
+          int chunkBooks = size;
+          inFlight.add(pool.submit(() -> bind(chunk, chunkBooks)));
+        }
+        // Keep every thread busy, but bound the number of buffered chunks.
+        while (!inFlight.isEmpty() && (done || inFlight.size() > 2 * threads)) {
+          for (Book book : await(inFlight.poll())) {
+            sink.accept(book);
+            count++;
+          }
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    return count;
+  }
+
+  private static List<Book> bind(TokenBuffer chunk, int size) throws IOException {
+    List<Book> books = new ArrayList<>(size);
+    try (JsonParser parser = chunk.asParser()) {
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        books.add(BOOK_READER.readValue(parser));
+      }
+    }
+    return books;
+  }
+
+  private static List<Book> await(Future<List<Book>> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while loading the catalog.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+}
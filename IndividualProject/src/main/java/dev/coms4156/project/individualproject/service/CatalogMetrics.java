@@ -0,0 +1,97 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds the counters and operation latencies of the catalog since startup. The
+ * counters are updated by the service's inventory listener while the changed book's lock is
+ * held, and are striped so that updates to different books never contend.
+ */
+public final class CatalogMetrics {
+
+  final LongAdder checkouts = new LongAdder();
+  final LongAdder returns = new LongAdder();
+  final LongAdder copiesAdded = new LongAdder();
+  final LongAdder copiesDeleted = new LongAdder();
+  final LongAdder refusedCheckouts = new LongAdder();
+  final LongAdder notFound = new LongAdder();
+  final LongAdder availableCopies = new LongAdder();
+  final LatencyHistogram search = new LatencyHistogram();
+  final LatencyHistogram titleSearch = new LatencyHistogram();
+  final LatencyHistogram durableWait = new LatencyHistogram();
+
+  CatalogMetrics() {
+  }
+
+  public long getCheckouts() {
+    return checkouts.sum();
+  }
+
+  public long getReturns() {
+    return returns.sum();
+  }
+
+  public long getCopiesAdded() {
+    return copiesAdded.sum();
+  }
+
+  public long getCopiesDeleted() {
+    return copiesDeleted.sum();
+  }
+
+  /**
+   * Returns the number of copies asked for that could not be checked out because none was
+   * available.
+   *
+   * @return The number of refused copies.
+   */
+  public long getRefusedCheckouts() {
+    return refusedCheckouts.sum();
+  }
+
+  /**
+   * Returns the number of lookups by id that found no book.
+   *
+   * @return The number of missed lookups.
+   */
+  public long getNotFound() {
+    return notFound.sum();
+  }
+
+  /**
+   * Returns the number of available copies across the catalog, maintained on every inventory
+   * transition rather than counted.
+   *
+   * @return The total of {@code copiesAvailable} over all books.
+   */
+  public long getAvailableCopies() {
+    return availableCopies.sum();
+  }
+
+  /**
+   * Returns the latency of attribute searches through the inverted index.
+   *
+   * @return The live histogram.
+   */
+  public LatencyHistogram getSearchLatency() {
+    return search;
+  }
+
+  /**
+   * Returns the latency of ranked title searches.
+   *
+   * @return The live histogram.
+   */
+  public LatencyHistogram getTitleSearchLatency() {
+    return titleSearch;
+  }
+
+  /**
+   * Returns how long requests waited for their inventory changes to be written to the log.
+   *
+   * @return The live histogram.
+   */
+  public LatencyHistogram getDurableWaitLatency() {
+    return durableWait;
+  }
+}
@@ -0,0 +1,134 @@
+package dev.coms4156.project.individualproject.service;
+
+/**
+ * This class walks ascending streams of positions from several parts of the catalog together,
+ * visiting them in catalog order. Each part's positions are in catalog order already, so the
+ * walk only has to pick, at every step, the part whose next position comes first; with the
+ * handful of parts a catalog is split into, a scan of the parts' current positions does that
+ * more cheaply than a heap.
+ *
+ * <p>Results that span parts are returned as hits packing a part and one of its positions into
+ * a {@code long}; see {@link #hit}.
+ */
+final class CatalogOrderWalk {
+
+  /**
+   * Maps a position of a part to its place in the catalog.
+   */
+  interface Sequence {
+    /**
+     * Returns the catalog-wide sequence number of a position.
+     *
+     * @param part The index of the part.
+     * @param position A position of that part.
+     * @return A number that increases with position within every part.
+     */
+    int of(int part, int position);
+  }
+
+  /**
+   * An ascending stream of the positions of one part.
+   */
+  interface Positions {
+    /**
+     * Returns the smallest position that is at least {@code from}, or {@code -1}.
+     */
+    int next(int from);
+  }
+
+  /**
+   * A condition on the positions of the parts.
+   */
+  interface Filter {
+    boolean test(int part, int position);
+  }
+
+  private final Positions[] parts;
+  private final Sequence sequence;
+  private final int[] positions;
+  private final int[] sequences;
+  private int part = -1;
+
+  /**
+   * Starts a walk over the given streams.
+   *
+   * @param parts The positions of each part, or {@code null} for a part with none.
+   * @param sequence The catalog order of the parts' positions.
+   */
+  CatalogOrderWalk(Positions[] parts, Sequence sequence) {
+    this.parts = parts;
+    this.sequence = sequence;
+    this.positions = new int[parts.length];
+    this.sequences = new int[parts.length];
+    for (int p = 0; p < parts.length; p++) {
+      positions[p] = parts[p] == null ? -1 : parts[p].next(0);
+      if (positions[p] >= 0) {
+        sequences[p] = sequence.of(p, positions[p]);
+      }
+    }
+  }
+
+  /**
+   * Moves to the next position in catalog order.
+   *
+   * @return {@code false} once every stream is exhausted.
+   */
+  boolean next() {
+    if (part >= 0) {
+      int position = parts[part].next(positions[part] + 1);
+      positions[part] = position;
+      if (position >= 0) {
+        sequences[part] = sequence.of(part, position);
+      }
+    }
+    part = -1;
+    for (int p = 0; p < positions.length; p++) {
+      if (positions[p] >= 0 && (part < 0 || sequences[p] < sequences[part])) {
+        part = p;
+      }
+    }
+    return part >= 0;
+  }
+
+  /**
+   * Returns the part of the current position.
+   */
+  int part() {
+    return part;
+  }
+
+  /**
+   * Returns the current position, within its part.
+   */
+  int position() {
+    return positions[part];
+  }
+
+  /**
+   * Returns the catalog-wide sequence number of the current position.
+   */
+  int sequence() {
+    return sequences[part];
+  }
+
+  /**
+   * Packs a part and one of its positions into a hit.
+   */
+  static long hit(int part, int position) {
+    return (long) part << 32 | position;
+  }
+
+  /**
+   * Returns the part of a hit.
+   */
+  static int partOf(long hit) {
+    return (int) (hit >>> 32);
+  }
+
+  /**
+   * Returns the position of a hit, within its part.
+   */
+  static int positionOf(long hit) {
+    return (int) hit;
+  }
+}
@@ -0,0 +1,188 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class holds the {@code catalog.*} settings that control how {@link MockApiService}
+ * loads its books. The defaults reproduce the original behaviour: the bundled
+ * {@code mockdata/books.json} is read on a single thread before the service is ready.
+ */
+@Component
+@ConfigurationProperties(prefix = "catalog")
+public class CatalogProperties {
+
+  private String source = "";
+  private boolean fastStart;
+  private int loadThreads = 1;
+  private int loadChunkSize = 1024;
+  private String snapshot = "";
+  private String wal = "";
+  private Duration walCompactInterval = Duration.ofMinutes(10);
+  private int shards;
+  private int loanDays = LoanCalendar.DEFAULT_LOAN_DAYS;
+  private Map<String, Integer> loanDaysByLocation = new HashMap<>();
+  private Map<Integer, Integer> loanDaysByBook = new HashMap<>();
+
+  /**
+   * Returns the path of the JSON catalog file to load. An empty path selects the bundled
+   * {@code mockdata/books.json} resource.
+   *
+   * @return The file system path of the catalog, or an empty string.
+   */
+  public String getSource() {
+    return source;
+  }
+
+  public void setSource(String source) {
+    this.source = source;
+  }
+
+  /**
+   * Returns whether the service should become ready immediately and load the catalog in the
+   * background, serving books as soon as they have been indexed.
+   *
+   * @return {@code true} to load the catalog in the background.
+   */
+  public boolean isFastStart() {
+    return fastStart;
+  }
+
+  public void setFastStart(boolean fastStart) {
+    this.fastStart = fastStart;
+  }
+
+  /**
+   * Returns the number of threads binding JSON objects to books while loading. With one thread
+   * the file is parsed and bound sequentially.
+   *
+   * @return The number of loader threads.
+   */
+  public int getLoadThreads() {
+    return loadThreads;
+  }
+
+  public void setLoadThreads(int loadThreads) {
+    this.loadThreads = loadThreads;
+  }
+
+  /**
+   * Returns the number of books handed to a loader thread at a time.
+   *
+   * @return The number of books per chunk.
+   */
+  public int getLoadChunkSize() {
+    return loadChunkSize;
+  }
+
+  public void setLoadChunkSize(int loadChunkSize) {
+    this.loadChunkSize = loadChunkSize;
+  }
+
+  /**
+   * Returns the path of the binary catalog snapshot. When set, a valid snapshot is restored at
+   * startup instead of parsing the JSON source, and a new snapshot is written after every JSON
+   * load. An empty path disables snapshots.
+   *
+   * @return The file system path of the snapshot, or an empty string.
+   */
+  public String getSnapshot() {
+    return snapshot;
+  }
+
+  public void setSnapshot(String snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the directory of the inventory write-ahead log. When set, every checkout, return
+   * and copy change is logged before it is acknowledged and replayed on the next start. An
+   * empty path disables the log.
+   *
+   * @return The file system path of the log directory, or an empty string.
+   */
+  public String getWal() {
+    return wal;
+  }
+
+  public void setWal(String wal) {
+    this.wal = wal;
+  }
+
+  /**
+   * Returns how often the log is compacted by writing a snapshot of the catalog and deleting
+   * the log segments it covers. Without {@code catalog.snapshot} the snapshot is kept in the
+   * log directory.
+   *
+   * @return The interval between compactions.
+   */
+  public Duration getWalCompactInterval() {
+    return walCompactInterval;
+  }
+
+  public void setWalCompactInterval(Duration walCompactInterval) {
+    this.walCompactInterval = walCompactInterval;
+  }
+
+  /**
+   * Returns the number of shards the catalog is partitioned into by id, rounded up to a power
+   * of two. Books are added to and replaced in different shards without contending, while
+   * searches walk the shards' indexes together in catalog order. Zero uses one shard per
+   * available processor.
+   *
+   * @return The number of shards, or {@code 0}.
+   */
+  public int getShards() {
+    return shards;
+  }
+
+  public void setShards(int shards) {
+    this.shards = shards;
+  }
+
+  /**
+   * Returns the number of days a copy may be borrowed, unless a period is set for its book or
+   * its shelving location.
+   *
+   * @return The default loan period in days.
+   */
+  public int getLoanDays() {
+    return loanDays;
+  }
+
+  public void setLoanDays(int loanDays) {
+    this.loanDays = loanDays;
+  }
+
+  /**
+   * Returns the loan periods in days by shelving location, such as
+   * {@code catalog.loan-days-by-location[glx]=7}.
+   *
+   * @return The loan periods by shelving location.
+   */
+  public Map<String, Integer> getLoanDaysByLocation() {
+    return loanDaysByLocation;
+  }
+
+  public void setLoanDaysByLocation(Map<String, Integer> loanDaysByLocation) {
+    this.loanDaysByLocation = loanDaysByLocation;
+  }
+
+  /**
+   * Returns the loan periods in days by book id, which take precedence over those by shelving
+   * location.
+   *
+   * @return The loan periods by book id.
+   */
+  public Map<Integer, Integer> getLoanDaysByBook() {
+    return loanDaysByBook;
+  }
+
+  public void setLoanDaysByBook(Map<Integer, Integer> loanDaysByBook) {
+    this.loanDaysByBook = loanDaysByBook;
+  }
+}
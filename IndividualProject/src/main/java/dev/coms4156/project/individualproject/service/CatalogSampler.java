@@ -0,0 +1,69 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class draws random catalog positions without materializing the candidate set. It uses
+ * Floyd's algorithm over a virtual range that skips the excluded positions, so sampling
+ * {@code k} of {@code n} books costs {@code O(k log k + k * e)} time and {@code O(k)} space
+ * for {@code e} exclusions, independent of {@code n}.
+ */
+public final class CatalogSampler {
+
+  private CatalogSampler() {
+  }
+
+  /**
+   * Returns {@code k} distinct positions in {@code [0, n)} that are not excluded.
+   *
+   * @param n The number of positions to draw from.
+   * @param excluded The positions that must not be drawn, in any order. Positions outside
+   *                 {@code [0, n)} are ignored.
+   * @param k The number of positions to draw.
+   * @param random The source of randomness; pass a seeded generator for reproducible draws.
+   * @return A new array of {@code k} distinct positions.
+   * @throws IllegalArgumentException If fewer than {@code k} positions are available.
+   */
+  public static int[] sample(int n, int[] excluded, int k, RandomGenerator random) {
+    int[] skip = excluded.clone();
+    Arrays.sort(skip);
+    int skipCount = 0;
+    for (int e : skip) {
+      if (e >= 0 && e < n && (skipCount == 0 || skip[skipCount - 1] != e)) {
+        skip[skipCount++] = e;
+      }
+    }
+    int range = n - skipCount;
+    if (k < 0 || k > range) {
+      throw new IllegalArgumentException("Cannot draw " + k + " of " + range + " positions.");
+    }
+
+    // Floyd's algorithm: for j in [range - k, range), draw r in [0, j] and take r unless it
+    // was already taken, in which case take j (which cannot have been taken yet).
+    int[] chosen = new int[k];
+    int count = 0;
+    for (int j = range - k; j < range; j++) {
+      int r = random.nextInt(j + 1);
+      int pos = Arrays.binarySearch(chosen, 0, count, r);
+      if (pos >= 0) {
+        r = j;
+        pos = -(count + 1);
+      }
+      int insertAt = -(pos + 1);
+      System.arraycopy(chosen, insertAt, chosen, insertAt + 1, count - insertAt);
+      chosen[insertAt] = r;
+      count++;
+    }
+
+    // Map each virtual position back onto the real range by stepping over the exclusions.
+    for (int i = 0; i < k; i++) {
+      int p = chosen[i];
+      for (int s = 0; s < skipCount && skip[s] <= p; s++) {
+        p++;
+      }
+      chosen[i] = p;
+    }
+    return chosen;
+  }
+}
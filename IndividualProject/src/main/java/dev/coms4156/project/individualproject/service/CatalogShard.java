@@ -0,0 +1,101 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * This class defines one partition of the catalog: the books whose ids hash to it, with their
+ * own id, attribute, title, availability and popularity indexes. Adding or replacing a book
+ * takes only its shard's lock, so such writes to different shards never contend, while
+ * inventory transitions keep using the per-book {@code InventoryLocks} stripes.
+ *
+ * <p>Positions are local to the shard. Each book is also stamped with a catalog-wide sequence
+ * number when it is first added, drawn under the shard's lock, so that within a shard position
+ * order is sequence order and results gathered from several shards can be merged back into
+ * catalog order.
+ */
+final class CatalogShard {
+
+  final BookIndex books;
+  final SearchIndex search = new SearchIndex();
+  final TitleIndex titles = new TitleIndex();
+  final AvailabilityIndex availability = new AvailabilityIndex();
+  final PopularityIndex popularity = new PopularityIndex();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile int[] sequence;
+
+  CatalogShard(int expectedSize) {
+    this.books = new BookIndex(expectedSize);
+    this.sequence = new int[Math.max(expectedSize, 4)];
+  }
+
+  /**
+   * Adds a book to every index of the shard, replacing any book with the same id.
+   *
+   * @param book The {@code Book} to add.
+   * @param nextSequence Supplies the catalog-wide sequence number of a new book.
+   * @return The book that was replaced, or {@code null} if the book is new.
+   */
+  Book put(Book book, IntSupplier nextSequence) {
+    lock.lock();
+    try {
+      Book previous = books.get(book.getId());
+      if (previous != null) {
+        replaceLocked(previous, book);
+        return previous;
+      }
+      int position = books.size();
+      int[] seq = sequence;
+      if (position == seq.length) {
+        seq = Arrays.copyOf(seq, seq.length * 2);
+      }
+      seq[position] = nextSequence.getAsInt();
+      sequence = seq;
+      popularity.add(book);
+      books.put(book);
+      search.add(position, book);
+      titles.add(position, book);
+      availability.update(book);
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Replaces {@code current}, which must be stored in this shard, with {@code book}.
+   *
+   * @param current The {@code Book} currently stored under the id.
+   * @param book The {@code Book} replacing it.
+   */
+  void replace(Book current, Book book) {
+    lock.lock();
+    try {
+      replaceLocked(current, book);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void replaceLocked(Book current, Book book) {
+    popularity.replace(current, book);
+    books.replace(book);
+    int position = books.positionOf(book.getId());
+    search.replace(position, current, book);
+    titles.replace(position, current, book);
+    availability.update(book);
+  }
+
+  /**
+   * Returns the catalog-wide sequence number of the book at a position.
+   *
+   * @param position A position of this shard.
+   * @return The sequence number, which orders books by when they were first added.
+   */
+  int sequenceAt(int position) {
+    return sequence[position];
+  }
+}
@@ -0,0 +1,268 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class reads and writes binary snapshots of the catalog, which restore far faster than
+ * re-parsing the JSON catalog.
+ *
+ * <p>A snapshot starts with a fixed header (magic, format version, book count, string count,
+ * a stamp identifying the JSON source it was derived from, the offset of the string table,
+ * the payload length and a CRC-32 of the payload). The payload holds one record per book
+ * followed by a table of every distinct string. Records refer to strings by their index in the
+ * table, so repeated languages, publishers, locations, authors and subjects are stored once;
+ * counters are stored as plain ints and due dates as epoch days with the number of copies
+ * due on each, copied straight from the book's {@link Inventory}. Snapshots are read through a
+ * memory-mapped {@link FileChannel} and are limited to 2 GB.
+ */
+public final class CatalogSnapshot {
+
+  public static final int VERSION = 2;
+
+  private static final long MAGIC = 0x434C494F534E4150L; // "CLIOSNAP"
+  private static final int HEADER_BYTES = 48;
+  private static final int NULL_REF = -1;
+
+  private CatalogSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot of {@code books} to {@code path}. The snapshot is written to a temporary
+   * file that then atomically replaces {@code path}, so a crash never leaves a partial
+   * snapshot behind. Each book's inventory is read as one immutable version, so every record
+   * is consistent even while checkouts continue, and the write never blocks them.
+   *
+   * @param path The snapshot file to write.
+   * @param books The books to write.
+   * @param sourceStamp The stamp of the JSON source the catalog was loaded from.
+   * @throws IOException If the snapshot cannot be written.
+   */
+  public static void write(Path path, Iterable<Book> books, long sourceStamp)
+      throws IOException {
+    Path dir = path.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+      channel.position(HEADER_BYTES);
+      CRC32 crc = new CRC32();
+      OutputStream body = new CheckedOutputStream(Channels.newOutputStream(channel), crc);
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, 1 << 16));
+
+      Map<String, Integer> refs = new HashMap<>();
+      List<String> strings = new ArrayList<>();
+      int bookCount = 0;
+      for (Book book : books) {
+        writeBook(out, book, refs, strings);
+        bookCount++;
+      }
+
+      out.flush();
+      long stringTableOffset = channel.position();
+      for (String s : strings) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      out.flush();
+      long payloadLength = channel.position() - HEADER_BYTES;
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      header.putLong(MAGIC).putInt(VERSION).putInt(bookCount).putInt(strings.size())
+          .putLong(sourceStamp).putLong(stringTableOffset).putLong(payloadLength)
+          .putInt((int) crc.getValue()).flip();
+      channel.write(header, 0);
+      channel.force(true);
+    } catch (IOException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Verifies the snapshot at {@code path} and passes every book in it to {@code sink}. The
+   * header and checksum are checked before any book is delivered, so a snapshot that fails them
+   * delivers nothing. A snapshot that passes them but is malformed, for example one with wrong
+   * counts, may deliver some books before a {@link RuntimeException} is thrown.
+   *
+   * @param path The snapshot file to read.
+   * @param sourceStamp The stamp of the current JSON source; a snapshot taken from a different
+   *                    source is rejected.
+   * @param sink The consumer receiving each book, in the order they were written.
+   * @return The statistics of the load.
+   * @throws IOException If the file cannot be read or is not a valid, current snapshot.
+   */
+  public static CatalogLoadStats read(Path path, long sourceStamp, Consumer<Book> sink)
+      throws IOException {
+    long start = System.nanoTime();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot has an invalid size: " + size + " bytes.");
+      }
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+      if (buf.getLong() != MAGIC) {
+        throw new IOException("Not a catalog snapshot.");
+      }
+      int version = buf.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version + ".");
+      }
+      int bookCount = buf.getInt();
+      int stringCount = buf.getInt();
+      if (buf.getLong() != sourceStamp) {
+        throw new IOException("Snapshot was taken from a different catalog source.");
+      }
+      long stringTableOffset = buf.getLong();
+      long payloadLength = buf.getLong();
+      int checksum = buf.getInt();
+      if (payloadLength != size - HEADER_BYTES) {
+        throw new IOException("Snapshot is truncated.");
+      }
+      CRC32 crc = new CRC32();
+      crc.update(buf.slice(HEADER_BYTES, (int) payloadLength));
+      if ((int) crc.getValue() != checksum) {
+        throw new IOException("Snapshot checksum mismatch.");
+      }
+
+      String[] strings = new String[stringCount];
+      buf.position((int) stringTableOffset);
+      for (int i = 0; i < stringCount; i++) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        strings[i] = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      buf.position(HEADER_BYTES);
+      for (int i = 0; i < bookCount; i++) {
+        sink.accept(readBook(buf, strings));
+      }
+      return new CatalogLoadStats(bookCount, System.nanoTime() - start);
+    }
+  }
+
+  private static void writeBook(DataOutputStream out, Book book, Map<String, Integer> refs,
+      List<String> strings) throws IOException {
+    out.writeInt(book.getId());
+    out.writeInt(ref(book.getTitle(), refs, strings));
+    writeStrings(out, book.getAuthors(), refs, strings);
+    out.writeInt(ref(book.getLanguage(), refs, strings));
+    out.writeInt(ref(book.getShelvingLocation(), refs, strings));
+    out.writeInt(ref(book.getPublicationDate(), refs, strings));
+    out.writeInt(ref(book.getPublisher(), refs, strings));
+    writeStrings(out, book.getSubjects(), refs, strings);
+    Inventory inventory = book.getInventory();
+    out.writeInt(inventory.getAmountOfTimesCheckedOut());
+    out.writeInt(inventory.getCopiesAvailable());
+    out.writeInt(inventory.getTotalCopies());
+
+    int distinct = inventory.distinctDueDays();
+    int[] days = new int[distinct];
+    int[] counts = new int[distinct];
+    inventory.copyDueDays(days, counts);
+    out.writeInt(distinct);
+    for (int i = 0; i < distinct; i++) {
+      out.writeInt(days[i]);
+      out.writeInt(counts[i]);
+    }
+    List<String> others = inventory.otherDueDates();
+    out.writeInt(others.size());
+    for (String date : others) {
+      out.writeInt(ref(date, refs, strings));
+    }
+  }
+
+  private static Book readBook(ByteBuffer buf, String[] strings) {
+    int id = buf.getInt();
+    String title = string(buf, strings);
+    ArrayList<String> authors = readStrings(buf, strings);
+    String language = string(buf, strings);
+    String shelvingLocation = string(buf, strings);
+    String publicationDate = string(buf, strings);
+    String publisher = string(buf, strings);
+    ArrayList<String> subjects = readStrings(buf, strings);
+    int timesCheckedOut = buf.getInt();
+    int copiesAvailable = buf.getInt();
+    int totalCopies = buf.getInt();
+
+    int distinct = buf.getInt();
+    int[] days = new int[distinct];
+    int[] counts = new int[distinct];
+    for (int i = 0; i < distinct; i++) {
+      days[i] = buf.getInt();
+      counts[i] = buf.getInt();
+    }
+    int otherCount = buf.getInt();
+    List<String> others = new ArrayList<>(otherCount);
+    for (int i = 0; i < otherCount; i++) {
+      others.add(string(buf, strings));
+    }
+
+    Book book = new Book(title, authors, language, shelvingLocation, publicationDate, publisher,
+        subjects, id, copiesAvailable, totalCopies);
+    book.restoreInventory(Inventory.of(timesCheckedOut, copiesAvailable, totalCopies, days,
+        counts, others));
+    return book;
+  }
+
+  private static void writeStrings(DataOutputStream out, List<String> values,
+      Map<String, Integer> refs, List<String> strings) throws IOException {
+    if (values == null) {
+      out.writeInt(NULL_REF);
+      return;
+    }
+    out.writeInt(values.size());
+    for (String value : values) {
+      out.writeInt(ref(value, refs, strings));
+    }
+  }
+
+  private static ArrayList<String> readStrings(ByteBuffer buf, String[] strings) {
+    int count = buf.getInt();
+    if (count == NULL_REF) {
+      return null;
+    }
+    ArrayList<String> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(string(buf, strings));
+    }
+    return values;
+  }
+
+  private static int ref(String value, Map<String, Integer> refs, List<String> strings) {
+    if (value == null) {
+      return NULL_REF;
+    }
+    return refs.computeIfAbsent(value, v -> {
+      strings.add(v);
+      return strings.size() - 1;
+    });
+  }
+
+  private static String string(ByteBuffer buf, String[] strings) {
+    int ref = buf.getInt();
+    return ref == NULL_REF ? null : strings[ref];
+  }
+}
@@ -0,0 +1,463 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class defines an append-only write-ahead log of inventory changes. After every
+ * checkout, return or copy change the full inventory state of the book (checkout count,
+ * copies, total copies and due dates) is appended as one record, so replaying the log in order
+ * and keeping the last record of each book recovers the catalog regardless of where replay
+ * starts, even over a snapshot taken while records were being appended. Due dates are recorded
+ * as distinct days with a count of copies each, which keeps records small for popular books.
+ *
+ * <p>Appends only copy the record into an in-memory batch. A single writer thread drains the
+ * batch, writes it and forces it to disk with one {@code fsync}; records appended while a flush
+ * is in progress are committed together by the next one (group commit). Callers that need
+ * durability wait with {@link #awaitDurable()} after releasing their locks.
+ *
+ * <p>The log is split into numbered segments. {@link #rotate()} starts a new segment so that
+ * the older ones can be deleted once a snapshot of the catalog has been written. Each record is
+ * framed by its length and a CRC-32 and starts with a format version, and replay stops at the
+ * first torn or corrupted record or the first record in another format.
+ *
+ * <p>Once the writer thread has failed or the log has been closed, appends are refused with an
+ * {@link IllegalStateException}. Callers check {@link #checkOpen()} before changing a book, so
+ * that a change the log cannot record is not made in memory either.
+ */
+public final class InventoryLog implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InventoryLog.class);
+
+  private static final String PREFIX = "inventory-";
+  private static final String SUFFIX = ".log";
+
+  /**
+   * The format of the records written by this class. Records without it, written before the
+   * version was recorded, start with the zero high byte of a book id.
+   */
+  static final byte RECORD_VERSION = 2;
+
+  private final Path dir;
+  private final ReentrantLock ioLock = new ReentrantLock();
+  private final ReentrantLock queueLock = new ReentrantLock();
+  private final Condition pending = queueLock.newCondition();
+  private final Condition flushed = queueLock.newCondition();
+  private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+  private final Thread writer;
+
+  private ByteArrayOutputStream batch = new ByteArrayOutputStream(1 << 12);
+  private long appendedSeq;
+  private volatile long durableSeq;
+  private volatile boolean closed;
+  private volatile IOException failure;
+  private FileChannel channel;
+  private long segment;
+
+  private InventoryLog(Path dir, long segment) throws IOException {
+    this.dir = dir;
+    this.segment = segment;
+    this.channel = openSegment(segment);
+    this.writer = new Thread(this::writeLoop, "inventory-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Opens the log in {@code dir} for appending. Appends go to a new segment numbered after
+   * every existing one, so existing segments are never written again.
+   *
+   * @param dir The directory holding the log segments; it is created if necessary.
+   * @return The open {@code InventoryLog}.
+   * @throws IOException If the directory or the new segment cannot be created.
+   */
+  public static InventoryLog open(Path dir) throws IOException {
+    Files.createDirectories(dir);
+    List<Long> segments = segments(dir);
+    long next = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+    return new InventoryLog(dir, next);
+  }
+
+  /**
+   * Reads every segment in {@code dir}, oldest first, and returns the last recorded state of
+   * each book. A missing directory yields an empty map.
+   *
+   * @param dir The directory holding the log segments.
+   * @return The recovered states keyed by book id.
+   * @throws IOException If a segment cannot be read.
+   */
+  public static Map<Integer, Entry> replay(Path dir) throws IOException {
+    Map<Integer, Entry> states = new HashMap<>();
+    if (!Files.isDirectory(dir)) {
+      return states;
+    }
+    for (long segment : segments(dir)) {
+      Path file = segmentPath(dir, segment);
+      ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+      CRC32 crc = new CRC32();
+      while (buf.remaining() >= 8) {
+        int length = buf.getInt();
+        int checksum = buf.getInt();
+        if (length < 0 || length > buf.remaining()) {
+          LOGGER.warn("Ignoring torn record at the end of {}.", file);
+          break;
+        }
+        crc.reset();
+        crc.update(buf.array(), buf.position(), length);
+        if ((int) crc.getValue() != checksum) {
+          LOGGER.warn("Ignoring corrupted records at the end of {}.", file);
+          break;
+        }
+        if (length == 0 || buf.get(buf.position()) != RECORD_VERSION) {
+          LOGGER.warn("Ignoring records in an unknown format at the end of {}.", file);
+          break;
+        }
+        Entry entry;
+        try {
+          entry = decode(buf.slice(buf.position() + 1, length - 1));
+        } catch (RuntimeException e) {
+          LOGGER.warn("Ignoring records in an unknown format at the end of {}.", file, e);
+          break;
+        }
+        buf.position(buf.position() + length);
+        states.put(entry.id(), entry);
+      }
+    }
+    return states;
+  }
+
+  /**
+   * Appends the current inventory state of {@code book}. The caller must hold the book's
+   * inventory lock so that records of the same book are appended in the order the changes
+   * were made. The record is not yet durable when this method returns.
+   *
+   * @param book The {@code Book} that has just changed.
+   * @throws IllegalStateException If the log has failed or has been closed.
+   */
+  public void append(Book book) {
+    checkOpen();
+    byte[] record = encode(book);
+    CRC32 crc = new CRC32();
+    crc.update(record);
+    queueLock.lock();
+    try {
+      checkOpen();
+      DataOutputStream out = new DataOutputStream(batch);
+      out.writeInt(record.length);
+      out.writeInt((int) crc.getValue());
+      out.write(record);
+      lastAppended.get()[0] = ++appendedSeq;
+      pending.signal();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Checks that records can still be appended.
+   *
+   * @throws IllegalStateException If the writer thread failed to write the log, or the log has
+   *                               been closed.
+   */
+  public void checkOpen() {
+    IOException cause = failure;
+    if (cause != null) {
+      throw new IllegalStateException("The inventory log could not be written.", cause);
+    }
+    if (closed) {
+      throw new IllegalStateException("The inventory log is closed.");
+    }
+  }
+
+  /**
+   * Blocks until every record appended by the calling thread has been forced to disk.
+   *
+   * @return {@code true} once the records are durable; {@code false} if the log failed or was
+   *         closed before they could be written.
+   */
+  public boolean awaitDurable() {
+    long seq = lastAppended.get()[0];
+    if (seq <= durableSeq) {
+      return true;
+    }
+    queueLock.lock();
+    try {
+      while (seq > durableSeq && failure == null && !closed) {
+        flushed.awaitUninterruptibly();
+      }
+      return seq <= durableSeq;
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Flushes the current segment and starts a new one. Every record appended before this call
+   * ends up in an older segment, so those segments may be deleted with
+   * {@link #deleteBefore(long)} once a snapshot taken after this call has been written.
+   *
+   * @return The number of the new segment.
+   * @throws IOException If the log cannot be flushed or the new segment cannot be created.
+   */
+  public long rotate() throws IOException {
+    ioLock.lock();
+    try {
+      flush();
+      channel.close();
+      segment++;
+      channel = openSegment(segment);
+      return segment;
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  /**
+   * Deletes every segment numbered below {@code segment}.
+   *
+   * @param segment The first segment to keep.
+   * @throws IOException If a segment cannot be deleted.
+   */
+  public void deleteBefore(long segment) throws IOException {
+    for (long old : segments(dir)) {
+      if (old < segment) {
+        Files.delete(segmentPath(dir, old));
+      }
+    }
+  }
+
+  /**
+   * Returns the size of the segment currently being appended to.
+   *
+   * @return The number of bytes written to the current segment.
+   * @throws IOException If the size cannot be read.
+   */
+  public long segmentSize() throws IOException {
+    ioLock.lock();
+    try {
+      return channel.size();
+    } finally {
+      ioLock.unlock();
+    }
+  }
+
+  /**
+   * Flushes any appended records and stops the writer thread.
+   *
+   * @throws IOException If the final flush fails.
+   */
+  @Override
+  public void close() throws IOException {
+    ioLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      flush();
+      closed = true;
+      channel.close();
+    } finally {
+      ioLock.unlock();
+    }
+    queueLock.lock();
+    try {
+      pending.signalAll();
+      flushed.signalAll();
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  private void writeLoop() {
+    while (!closed) {
+      queueLock.lock();
+      try {
+        while (batch.size() == 0 && !closed) {
+          pending.awaitUninterruptibly();
+        }
+      } finally {
+        queueLock.unlock();
+      }
+
+      ioLock.lock();
+      try {
+        if (!closed) {
+          flush();
+        }
+      } catch (IOException e) {
+        LOGGER.error("Failed to write inventory log.", e);
+        failure = e;
+        closed = true;
+      } finally {
+        ioLock.unlock();
+      }
+    }
+    queueLock.lock();
+    try {
+      flushed.signalAll();
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  /**
+   * Writes and forces the records appended so far. The caller must hold {@code ioLock}, which
+   * keeps batches in append order even when {@link #rotate()} races with the writer thread.
+   */
+  private void flush() throws IOException {
+    byte[] bytes;
+    long seq;
+    queueLock.lock();
+    try {
+      bytes = batch.toByteArray();
+      seq = appendedSeq;
+      batch = new ByteArrayOutputStream(Math.max(bytes.length, 1 << 12));
+    } finally {
+      queueLock.unlock();
+    }
+    if (bytes.length > 0) {
+      ByteBuffer buf = ByteBuffer.wrap(bytes);
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+      channel.force(false);
+    }
+
+    queueLock.lock();
+    try {
+      durableSeq = seq;
+      flushed.signalAll();
+    } finally {
+      queueLock.unlock();
+    }
+  }
+
+  private FileChannel openSegment(long segment) throws IOException {
+    return FileChannel.open(segmentPath(dir, segment), StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE);
+  }
+
+  private static Path segmentPath(Path dir, long segment) {
+    return dir.resolve(String.format("%s%016d%s", PREFIX, segment, SUFFIX));
+  }
+
+  private static List<Long> segments(Path dir) throws IOException {
+    List<Long> segments = new ArrayList<>();
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+          try {
+            segments.add(Long.parseLong(
+                name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+          } catch (NumberFormatException e) {
+            // Not a segment written by this class.
+          }
+        }
+      }
+    }
+    segments.sort(null);
+    return segments;
+  }
+
+  /**
+   * Encodes the inventory of {@code book}. Due dates are written as distinct epoch days with
+   * the number of copies due on each, read straight from the inventory, so a record grows with
+   * the number of distinct due days rather than with the loans of a popular book, and no date
+   * is formatted or sorted under the caller's lock.
+   */
+  private static byte[] encode(Book book) {
+    Inventory inventory = book.getInventory();
+    int distinct = inventory.distinctDueDays();
+    int[] days = new int[distinct];
+    int[] counts = new int[distinct];
+    inventory.copyDueDays(days, counts);
+    List<String> others = inventory.otherDueDates();
+    byte[][] encoded = new byte[others.size()][];
+    int length = 25 + distinct * 8;
+    for (int i = 0; i < encoded.length; i++) {
+      encoded[i] = others.get(i).getBytes(StandardCharsets.UTF_8);
+      length += 4 + encoded[i].length;
+    }
+    ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(RECORD_VERSION);
+    buf.putInt(book.getId());
+    buf.putInt(inventory.getAmountOfTimesCheckedOut());
+    buf.putInt(inventory.getCopiesAvailable());
+    buf.putInt(inventory.getTotalCopies());
+    buf.putInt(distinct);
+    for (int i = 0; i < distinct; i++) {
+      buf.putInt(days[i]);
+      buf.putInt(counts[i]);
+    }
+    buf.putInt(encoded.length);
+    for (byte[] bytes : encoded) {
+      buf.putInt(bytes.length);
+      buf.put(bytes);
+    }
+    return buf.array();
+  }
+
+  private static Entry decode(ByteBuffer buf) {
+    int id = buf.getInt();
+    int timesCheckedOut = buf.getInt();
+    int copiesAvailable = buf.getInt();
+    int totalCopies = buf.getInt();
+    int distinct = buf.getInt();
+    int[] days = new int[distinct];
+    int[] counts = new int[distinct];
+    for (int i = 0; i < distinct; i++) {
+      days[i] = buf.getInt();
+      counts[i] = buf.getInt();
+    }
+    int otherCount = buf.getInt();
+    List<String> others = new ArrayList<>(otherCount);
+    for (int i = 0; i < otherCount; i++) {
+      byte[] bytes = new byte[buf.getInt()];
+      buf.get(bytes);
+      others.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+    return new Entry(id, Inventory.of(timesCheckedOut, copiesAvailable, totalCopies, days,
+        counts, others));
+  }
+
+  /**
+   * The inventory state of one book as recorded in the log.
+   *
+   * @param id The unique id of the book.
+   * @param inventory The recorded inventory version.
+   */
+  public record Entry(int id, Inventory inventory) {
+
+    /**
+     * Overwrites the inventory of {@code book} with this state.
+     *
+     * @param book The {@code Book} with the same id.
+     */
+    public void applyTo(Book book) {
+      book.restoreInventory(inventory);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class defines a latency histogram with fixed, logarithmically spaced buckets from 10
+ * microseconds to 10 seconds in steps of 1, 2.5 and 5, plus an overflow bucket. Recording a
+ * value finds its bucket with a few comparisons and increments two striped counters, so it
+ * allocates nothing and threads recording into the same bucket do not contend on one cache
+ * line. The bucket bounds are those of the exported Prometheus histogram, so quantiles are
+ * computed by the monitoring system rather than here.
+ */
+public final class LatencyHistogram {
+
+  private static final long[] BOUNDS = {
+    10_000L, 25_000L, 50_000L,
+    100_000L, 250_000L, 500_000L,
+    1_000_000L, 2_500_000L, 5_000_000L,
+    10_000_000L, 25_000_000L, 50_000_000L,
+    100_000_000L, 250_000_000L, 500_000_000L,
+    1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+    10_000_000_000L
+  };
+
+  private static final String[] LABELS = new String[BOUNDS.length];
+
+  static {
+    for (int i = 0; i < BOUNDS.length; i++) {
+      LABELS[i] = BigDecimal.valueOf(BOUNDS[i], 9).stripTrailingZeros().toPlainString();
+    }
+  }
+
+  private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+  private final LongAdder sumNanos = new LongAdder();
+
+  /**
+   * Constructs an empty histogram.
+   */
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Records one observation.
+   *
+   * @param nanos The latency in nanoseconds.
+   */
+  public void record(long nanos) {
+    int i = 0;
+    while (i < BOUNDS.length && nanos > BOUNDS[i]) {
+      i++;
+    }
+    buckets[i].increment();
+    sumNanos.add(nanos);
+  }
+
+  /**
+   * Returns the number of bucket bounds, excluding the overflow bucket.
+   *
+   * @return The number of finite bounds.
+   */
+  public static int boundCount() {
+    return BOUNDS.length;
+  }
+
+  /**
+   * Returns an upper bound formatted in seconds, as used for the {@code le} label.
+   *
+   * @param i The index of the bound.
+   * @return The bound in seconds, such as {@code 0.0025}.
+   */
+  public static String boundLabel(int i) {
+    return LABELS[i];
+  }
+
+  /**
+   * Returns the number of observations at or below each bound, with the total number of
+   * observations last.
+   *
+   * @return The cumulative bucket counts, one longer than {@link #boundCount()}.
+   */
+  public long[] cumulativeCounts() {
+    long[] counts = new long[buckets.length];
+    long total = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      total += buckets[i].sum();
+      counts[i] = total;
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the sum of all recorded latencies.
+   *
+   * @return The sum in nanoseconds.
+   */
+  public long sumNanos() {
+    return sumNanos.sum();
+  }
+}
@@ -0,0 +1,12 @@
+package dev.coms4156.project.individualproject.service;
+
+/**
+ * The open loans of one book that fall due on one day.
+ *
+ * @param id The unique id of the book.
+ * @param title The title of the book.
+ * @param dueDate The due date of the loans, as {@code yyyy-MM-dd}.
+ * @param copies The number of copies of the book due on that date.
+ */
+public record Loan(int id, String title, String dueDate, int copies) {
+}
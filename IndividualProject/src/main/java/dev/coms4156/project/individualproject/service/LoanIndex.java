@@ -0,0 +1,124 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class defines an index of the open loans of the catalog by due date. Each entry counts
+ * the copies of one book due on one epoch day, keyed by day and then book id, so the loans due
+ * in a range of days, or overdue before a day, are a contiguous range of keys: a query touches
+ * only the days it asks for, however large the catalog is, and lists loans by due date.
+ *
+ * <p>The index is fed by the service's inventory listener, so the entries of one book are only
+ * ever changed under that book's {@code InventoryLocks} stripe; loans of different books are
+ * recorded concurrently without a lock. Due dates that are not ISO-8601 dates are not indexed.
+ */
+final class LoanIndex {
+
+  /**
+   * The loans of one book due on one day.
+   *
+   * @param id The unique id of the book.
+   * @param day The due date, as an epoch day.
+   * @param copies The number of copies due.
+   */
+  record Due(int id, int day, int copies) {
+  }
+
+  private final ConcurrentSkipListMap<Long, Integer> loans = new ConcurrentSkipListMap<>();
+
+  /**
+   * Records one more copy of a book due on a day.
+   *
+   * @param id The unique id of the book.
+   * @param day The due date as an epoch day, or {@link Inventory#NON_ISO_DATE} to do nothing.
+   */
+  void add(int id, int day) {
+    if (day != Inventory.NON_ISO_DATE) {
+      loans.merge(key(day, id), 1, Integer::sum);
+    }
+  }
+
+  /**
+   * Removes one copy of a book due on a day, if one is recorded.
+   *
+   * @param id The unique id of the book.
+   * @param day The due date as an epoch day, or {@link Inventory#NON_ISO_DATE} to do nothing.
+   */
+  void remove(int id, int day) {
+    if (day != Inventory.NON_ISO_DATE) {
+      loans.computeIfPresent(key(day, id), (k, copies) -> copies == 1 ? null : copies - 1);
+    }
+  }
+
+  /**
+   * Records every open loan of a book, as when it is added to the catalog.
+   */
+  void addAll(Book book) {
+    for (int day : book.getInventory().dueDays()) {
+      add(book.getId(), day);
+    }
+  }
+
+  /**
+   * Removes every open loan of a book, as when it is replaced in the catalog.
+   */
+  void removeAll(Book book) {
+    for (int day : book.getInventory().dueDays()) {
+      remove(book.getId(), day);
+    }
+  }
+
+  /**
+   * Returns the loans due from {@code fromDay} to {@code toDay}, both inclusive, ordered by due
+   * date and then book id.
+   *
+   * @param fromDay The first due date, as an epoch day.
+   * @param toDay The last due date, as an epoch day.
+   * @param limit The maximum number of entries to return.
+   * @return At most {@code limit} entries.
+   */
+  List<Due> range(int fromDay, int toDay, int limit) {
+    List<Due> due = new ArrayList<>();
+    for (Map.Entry<Long, Integer> entry : days(fromDay, toDay).entrySet()) {
+      if (due.size() == limit) {
+        break;
+      }
+      long key = entry.getKey();
+      due.add(new Due((int) key ^ Integer.MIN_VALUE, (int) (key >> 32), entry.getValue()));
+    }
+    return due;
+  }
+
+  /**
+   * Returns the number of copies due from {@code fromDay} to {@code toDay}, both inclusive.
+   */
+  long count(int fromDay, int toDay) {
+    long copies = 0;
+    for (int count : days(fromDay, toDay).values()) {
+      copies += count;
+    }
+    return copies;
+  }
+
+  private ConcurrentNavigableMap<Long, Integer> days(int fromDay, int toDay) {
+    if (fromDay > toDay) {
+      return new ConcurrentSkipListMap<>();
+    }
+    return loans.subMap(key(fromDay, Integer.MIN_VALUE), true, key(toDay, Integer.MAX_VALUE),
+        true);
+  }
+
+  /**
+   * Orders keys by day and then id; flipping the sign bit of the id makes its unsigned order
+   * in the low half of the key match its signed order.
+   */
+  private static long key(int day, int id) {
+    return (long) day << 32 | (id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+  }
+}
@@ -0,0 +1,80 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * This class defines a read-only view merging several collections of books, each in ascending
+ * id order, into one in ascending id order. The merge is lazy: each book is taken from its
+ * collection only when the iterator reaches it, so walking a prefix of the view costs time
+ * proportional to that prefix, and the view is as weakly consistent as the collections it
+ * merges.
+ */
+final class MergedByIdView extends AbstractCollection<Book> {
+
+  private final List<Collection<Book>> parts;
+
+  MergedByIdView(List<Collection<Book>> parts) {
+    this.parts = parts;
+  }
+
+  @Override
+  public Iterator<Book> iterator() {
+    PriorityQueue<Head> heads = new PriorityQueue<>(parts.size(),
+        (a, b) -> Integer.compare(a.book.getId(), b.book.getId()));
+    for (Collection<Book> part : parts) {
+      Iterator<Book> it = part.iterator();
+      if (it.hasNext()) {
+        heads.add(new Head(it.next(), it));
+      }
+    }
+
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return !heads.isEmpty();
+      }
+
+      @Override
+      public Book next() {
+        Head head = heads.poll();
+        if (head == null) {
+          throw new NoSuchElementException();
+        }
+        Book book = head.book;
+        if (head.rest.hasNext()) {
+          head.book = head.rest.next();
+          heads.add(head);
+        }
+        return book;
+      }
+    };
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Collection<Book> part : parts) {
+      size += part.size();
+    }
+    return size;
+  }
+
+  /**
+   * The next book of one collection and the iterator over the ones after it.
+   */
+  private static final class Head {
+    private Book book;
+    private final Iterator<Book> rest;
+
+    private Head(Book book, Iterator<Book> rest) {
+      this.book = book;
+      this.rest = rest;
+    }
+  }
+}
@@ -1,10 +1,38 @@
 package dev.coms4156.project.individualproject.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import dev.coms4156.project.individualproject.model.InventoryLocks;
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -14,55 +42,822 @@ import org.springframework.stereotype.Service;
 @Service
 public class MockApiService {
 
-  private ArrayList<Book> books;
+  private static final Logger LOGGER = LoggerFactory.getLogger(MockApiService.class);
+
+  private static final String BUNDLED_CATALOG = "mockdata/books.json";
+
+  /**
+   * The number of daily overdue sweeps kept by {@link #getOverdueHistory()}.
+   */
+  static final int OVERDUE_HISTORY_DAYS = 90;
+
+  private final InventoryListener listener = new CatalogListener();
+  private final List<IntConsumer> changeListeners = new CopyOnWriteArrayList<>();
+  private final CatalogMetrics metrics = new CatalogMetrics();
+  private final AtomicInteger sequence = new AtomicInteger();
+  private final LongAdder version = new LongAdder();
+  private final CatalogShard[] shards;
+  private final ReentrantLock checkpointLock = new ReentrantLock();
+  private final LoanIndex loans = new LoanIndex();
+  private final ArrayDeque<OverdueCount> overdueHistory = new ArrayDeque<>();
+  private final ReentrantLock historyLock = new ReentrantLock();
+  private final LoanCalendar calendar;
+  private volatile boolean loading;
+  private volatile CatalogLoadStats loadStats;
+  private long sourceStamp;
+  private Path snapshot;
+  private volatile InventoryLog log;
+  private Map<Integer, InventoryLog.Entry> recovered = Map.of();
+  private ScheduledExecutorService scheduler;
 
   /**
    * Constructs a new {@code MockApiService} and loads book data from a JSON file located at
    * {@code resources/mockdata/books.json}.
    * If the file is not found, an empty list of books is initialized. If the file is found but
-   * cannot be parsed, an error message is printed and no data is loaded.
+   * cannot be parsed, an error message is printed and only the books read before the error
+   * are loaded.
    */
   public MockApiService() {
-    try (InputStream is = Thread.currentThread().getContextClassLoader()
-        .getResourceAsStream("mockdata/books.json")) {
-      if (is == null) {
-        System.err.println("Failed to find mockdata/books.json in resources.");
-        books = new ArrayList<>(0);
-      } else {
-        ObjectMapper mapper = new ObjectMapper();
-        books = mapper.readValue(is, new TypeReference<ArrayList<Book>>(){});
-        System.out.println("Successfully loaded books from mockdata/books.json.");
-      }
-    } catch (Exception e) {
-      System.err.println("Failed to load books: " + e.getMessage());
+    this(new CatalogProperties());
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} and streams the catalog described by
+   * {@code properties} into its indexes. In fast-start mode the constructor returns at once
+   * and books become visible as they are loaded by a background thread.
+   *
+   * @param properties The {@code catalog.*} settings.
+   */
+  @Autowired
+  public MockApiService(CatalogProperties properties) {
+    this.shards = newShards(properties.getShards(), 1024);
+    this.calendar = new LoanCalendar(Clock.systemDefaultZone(), properties.getLoanDays(),
+        properties.getLoanDaysByLocation(), properties.getLoanDaysByBook());
+    if (properties.isFastStart()) {
+      loading = true;
+      Thread loader = new Thread(() -> load(properties), "catalog-loader");
+      loader.setDaemon(true);
+      loader.start();
+    } else {
+      load(properties);
     }
   }
 
+  /**
+   * Constructs a new {@code MockApiService} backed by the given books instead of the bundled
+   * mock data.
+   *
+   * @param books The books that make up the catalog.
+   */
+  public MockApiService(List<Book> books) {
+    this(books, 1);
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} backed by the given books, partitioned into
+   * {@code shards} shards by id, that lends books for two weeks on the system clock.
+   *
+   * @param books The books that make up the catalog.
+   * @param shards The number of shards, rounded up to a power of two; {@code 0} uses one per
+   *               available processor.
+   */
+  public MockApiService(List<Book> books, int shards) {
+    this(books, shards, LoanCalendar.systemDefault());
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} backed by the given books, partitioned into
+   * {@code shards} shards by id, that dates its loans with {@code calendar}.
+   *
+   * @param books The books that make up the catalog.
+   * @param shards The number of shards, rounded up to a power of two; {@code 0} uses one per
+   *               available processor.
+   * @param calendar The calendar that dates checkouts and decides which loans are overdue.
+   */
+  public MockApiService(List<Book> books, int shards, LoanCalendar calendar) {
+    this.shards = newShards(shards, books.size());
+    this.calendar = calendar;
+    for (Book book : books) {
+      add(book);
+    }
+  }
+
+  private static CatalogShard[] newShards(int count, int expectedBooks) {
+    int n = count > 0 ? count : Runtime.getRuntime().availableProcessors();
+    n = n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    CatalogShard[] shards = new CatalogShard[n];
+    for (int i = 0; i < n; i++) {
+      shards[i] = new CatalogShard(Math.max(expectedBooks / n, 4));
+    }
+    return shards;
+  }
+
+  /**
+   * Returns whether the catalog is still being loaded in the background.
+   *
+   * @return {@code true} while a fast-start load is in progress.
+   */
+  public boolean isLoading() {
+    return loading;
+  }
+
+  /**
+   * Returns the statistics of the last completed catalog load.
+   *
+   * @return The {@code CatalogLoadStats}, or {@code null} if no load has completed.
+   */
+  public CatalogLoadStats getLoadStats() {
+    return loadStats;
+  }
+
+  /**
+   * Returns every book in the catalog, in load order. The returned list is a copy; modifying it
+   * does not change the catalog.
+   *
+   * @return A new {@code ArrayList} containing all books.
+   */
   public ArrayList<Book> getBooks() {
+    Book[] bySequence = new Book[sequence.get()];
+    for (CatalogShard shard : shards) {
+      int n = shard.books.size();
+      for (int position = 0; position < n; position++) {
+        int seq = shard.sequenceAt(position);
+        if (seq < bySequence.length) {
+          bySequence[seq] = shard.books.getAt(position);
+        }
+      }
+    }
+    ArrayList<Book> list = new ArrayList<>(bySequence.length);
+    for (Book book : bySequence) {
+      if (book != null) {
+        list.add(book);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Returns the number of shards the catalog is partitioned into.
+   *
+   * @return A power of two.
+   */
+  public int getShardCount() {
+    return shards.length;
+  }
+
+  /**
+   * Registers a callback run with the id of a book whenever the stored book is added or
+   * replaced, or its inventory changes. Like {@link InventoryListener} callbacks, it runs while
+   * the book's {@link InventoryLocks} stripe is held.
+   *
+   * @param changeListener The callback to run.
+   */
+  public void addChangeListener(IntConsumer changeListener) {
+    changeListeners.add(changeListener);
+  }
+
+  /**
+   * Returns the version of the catalog, which grows with every book added or replaced and every
+   * inventory change. The counter is striped so that writers to different books do not contend
+   * on it; a version read after a change has completed is always greater than one read before
+   * the change began, so an unchanged version means an unchanged catalog.
+   *
+   * @return The number of changes made to the catalog since startup.
+   */
+  public long getVersion() {
+    return version.sum();
+  }
+
+  /**
+   * Returns the counters and operation latencies of the catalog since startup.
+   *
+   * @return The live {@code CatalogMetrics} of this service.
+   */
+  public CatalogMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the calendar that dates this service's checkouts.
+   *
+   * @return The {@code LoanCalendar} configured for this service.
+   */
+  public LoanCalendar getLoanCalendar() {
+    return calendar;
+  }
+
+  /**
+   * Returns the open loans due from {@code from} to {@code to}, both inclusive, ordered by due
+   * date and then book id. Only the index entries of those days are read, so the cost depends
+   * on the loans returned rather than on the size of the catalog.
+   *
+   * @param from The first due date.
+   * @param to The last due date.
+   * @param limit The maximum number of loans to return.
+   * @return At most {@code limit} loans, one per book and due date.
+   */
+  public List<Loan> getLoansDue(LocalDate from, LocalDate to, int limit) {
+    return loansOf(loans.range(epochDay(from), epochDay(to), limit));
+  }
+
+  /**
+   * Returns the open loans whose due date is before today on the loan calendar, oldest first.
+   *
+   * @param limit The maximum number of loans to return.
+   * @return At most {@code limit} loans, one per book and due date.
+   */
+  public List<Loan> getOverdueLoans(int limit) {
+    return loansOf(loans.range(Integer.MIN_VALUE, calendar.today() - 1, limit));
+  }
+
+  /**
+   * Counts the checked-out copies that are overdue today and records the count in the overdue
+   * history. Runs just after every midnight, reading only the index entries of past due dates.
+   *
+   * @return The count recorded.
+   */
+  public OverdueCount sweepOverdue() {
+    int today = calendar.today();
+    OverdueCount count = new OverdueCount(LoanCalendar.format(today),
+        loans.count(Integer.MIN_VALUE, today - 1));
+    historyLock.lock();
+    try {
+      if (!overdueHistory.isEmpty() && overdueHistory.peekLast().date().equals(count.date())) {
+        overdueHistory.pollLast();
+      }
+      overdueHistory.addLast(count);
+      if (overdueHistory.size() > OVERDUE_HISTORY_DAYS) {
+        overdueHistory.pollFirst();
+      }
+    } finally {
+      historyLock.unlock();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the counts recorded by the daily overdue sweeps, oldest first, for at most the last
+   * {@value #OVERDUE_HISTORY_DAYS} days. A day swept more than once keeps its latest count.
+   *
+   * @return A copy of the overdue history.
+   */
+  public List<OverdueCount> getOverdueHistory() {
+    historyLock.lock();
+    try {
+      return new ArrayList<>(overdueHistory);
+    } finally {
+      historyLock.unlock();
+    }
+  }
+
+  private List<Loan> loansOf(List<LoanIndex.Due> due) {
+    List<Loan> result = new ArrayList<>(due.size());
+    for (LoanIndex.Due entry : due) {
+      Book book = shard(entry.id()).books.get(entry.id());
+      if (book != null) {
+        result.add(new Loan(entry.id(), book.getTitle(),
+            LoanCalendar.format(entry.day()), entry.copies()));
+      }
+    }
+    return result;
+  }
+
+  private static int epochDay(LocalDate date) {
+    return (int) Math.max(Math.min(date.toEpochDay(), Integer.MAX_VALUE), Integer.MIN_VALUE);
+  }
+
+  /**
+   * Blocks until every inventory change made by the calling thread has been forced to the
+   * write-ahead log. Returns at once if no log is configured.
+   *
+   * @return {@code true} if the changes are durable; {@code false} if the log has failed.
+   */
+  public boolean awaitDurable() {
+    InventoryLog current = log;
+    if (current == null) {
+      return true;
+    }
+    long start = System.nanoTime();
+    boolean durable = current.awaitDurable();
+    metrics.durableWait.record(System.nanoTime() - start);
+    return durable;
+  }
+
+  /**
+   * Writes a snapshot of the catalog and deletes the write-ahead log segments it makes
+   * redundant. Does nothing if neither a snapshot nor a log is configured.
+   *
+   * @throws IOException If the snapshot cannot be written or old segments cannot be deleted.
+   */
+  public void checkpoint() throws IOException {
+    if (snapshot == null) {
+      return;
+    }
+    checkpointLock.lock();
+    try {
+      InventoryLog current = log;
+      long segment = current == null ? 0 : current.rotate();
+      writeSnapshot(snapshot);
+      if (current != null) {
+        current.deleteBefore(segment);
+      }
+    } finally {
+      checkpointLock.unlock();
+    }
+  }
+
+  /**
+   * Stops log compaction and the overdue sweep, and flushes the write-ahead log.
+   */
+  @PreDestroy
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    InventoryLog current = log;
+    if (current != null) {
+      try {
+        current.close();
+      } catch (IOException e) {
+        LOGGER.error("Failed to close inventory log.", e);
+      }
+    }
+  }
+
+  /**
+   * Writes a binary snapshot of the current catalog to {@code path}, from which a later start
+   * can restore the catalog without parsing JSON.
+   *
+   * @param path The snapshot file to write.
+   * @throws IOException If the snapshot cannot be written.
+   */
+  public void writeSnapshot(Path path) throws IOException {
+    CatalogSnapshot.write(path, getBooks(), sourceStamp);
+  }
+
+  /**
+   * Returns the book with the given id in constant time.
+   *
+   * @param id The unique id of the book.
+   * @return The matching {@code Book}, or {@code null} if the book is not found.
+   */
+  public Book findById(int id) {
+    Book book = shard(id).books.get(id);
+    if (book == null) {
+      metrics.notFound.increment();
+    }
+    return book;
+  }
+
+  /**
+   * Returns the books that have at least one available copy, without scanning the catalog.
+   *
+   * @param after If not {@code null}, only books with an id greater than this are returned.
+   * @return A live, weakly consistent view of the available books in ascending id order,
+   *         merged lazily from the shards.
+   */
+  public Collection<Book> getAvailableBooks(Integer after) {
+    if (shards.length == 1) {
+      return shards[0].availability.view(after);
+    }
+    List<Collection<Book>> views = new ArrayList<>(shards.length);
+    for (CatalogShard shard : shards) {
+      views.add(shard.availability.view(after));
+    }
+    return new MergedByIdView(views);
+  }
+
+  /**
+   * Returns the number of books in the catalog.
+   *
+   * @return The total over all shards.
+   */
+  public int getBookCount() {
+    int count = 0;
+    for (CatalogShard shard : shards) {
+      count += shard.books.size();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the most checked-out books without sorting the catalog.
+   *
+   * @param k The number of books to return.
+   * @return A list of at most {@code k} books, most popular first.
+   */
+  public List<Book> getMostPopular(int k) {
+    if (shards.length == 1) {
+      return shards[0].popularity.top(k);
+    }
+    List<Book> candidates = new ArrayList<>(k * shards.length);
+    for (CatalogShard shard : shards) {
+      candidates.addAll(shard.popularity.top(k));
+    }
+    candidates.sort(Comparator.comparingInt(Book::getAmountOfTimesCheckedOut).reversed()
+        .thenComparingInt(Book::getId));
+    return new ArrayList<>(candidates.subList(0, Math.min(k, candidates.size())));
+  }
+
+  /**
+   * Returns the books whose authors, subjects, language, publisher or shelving location match
+   * the given terms, using the inverted index instead of scanning the catalog.
+   *
+   * @param terms The terms to match, built with {@link SearchIndex#term}.
+   * @param matchAll {@code true} to require every term, {@code false} to require any.
+   * @param availableOnly {@code true} to skip books with no available copy.
+   * @param limit The maximum number of books to return.
+   * @return The matching books in catalog order.
+   */
+  public List<Book> search(Collection<String> terms, boolean matchAll, boolean availableOnly,
+      int limit) {
+    long start = System.nanoTime();
+    List<SearchIndex> parts = new ArrayList<>(shards.length);
+    for (CatalogShard shard : shards) {
+      parts.add(shard.search);
+    }
+    long[] hits = SearchIndex.search(parts, this::sequenceOf, terms, matchAll,
+        availableOnly ? (part, pos) -> shards[part].books.getAt(pos).hasCopies()
+            : (part, pos) -> true, limit);
+    List<Book> matches = booksOf(hits);
+    metrics.search.record(System.nanoTime() - start);
+    return matches;
+  }
+
+  /**
+   * Returns the books whose titles best match the given words, for keyword search and
+   * type-ahead. The last word is matched as a prefix unless the query ends with a space.
+   *
+   * @param query The words typed so far.
+   * @param k The maximum number of books to return.
+   * @return At most {@code k} books, best match first.
+   */
+  public List<Book> searchTitles(String query, int k) {
+    long start = System.nanoTime();
+    List<TitleIndex> parts = new ArrayList<>(shards.length);
+    for (CatalogShard shard : shards) {
+      parts.add(shard.titles);
+    }
+    List<Book> matches = booksOf(TitleIndex.search(parts, this::sequenceOf, query, k));
+    metrics.titleSearch.record(System.nanoTime() - start);
+    return matches;
+  }
+
+  private int sequenceOf(int shard, int position) {
+    return shards[shard].sequenceAt(position);
+  }
+
+  private List<Book> booksOf(long[] hits) {
+    List<Book> books = new ArrayList<>(hits.length);
+    for (long hit : hits) {
+      books.add(shards[CatalogOrderWalk.partOf(hit)].books.getAt(
+          CatalogOrderWalk.positionOf(hit)));
+    }
     return books;
   }
 
   /**
-   * Updates the stored list of books by replacing the existing book that matches the given
+   * Returns {@code k} distinct books drawn uniformly at random from the catalog, skipping the
+   * given books. Only {@code O(k)} memory is used, however large the catalog is.
+   *
+   * @param k The number of books to return.
+   * @param excluded Books that must not be drawn.
+   * @param random The source of randomness; pass a seeded generator for reproducible draws.
+   * @return A list of {@code k} books, or {@code null} if fewer than {@code k} books are
+   *         eligible.
+   */
+  public List<Book> getRandomBooks(int k, List<Book> excluded, RandomGenerator random) {
+    // Number the books of all shards consecutively, shard after shard, as of now.
+    int[] offsets = new int[shards.length + 1];
+    for (int i = 0; i < shards.length; i++) {
+      offsets[i + 1] = offsets[i] + shards[i].books.size();
+    }
+    int n = offsets[shards.length];
+    int[] skip = new int[excluded.size()];
+    for (int i = 0; i < skip.length; i++) {
+      int id = excluded.get(i).getId();
+      int shard = shardIndex(id);
+      int position = shards[shard].books.positionOf(id);
+      boolean counted = position >= 0 && position < offsets[shard + 1] - offsets[shard];
+      skip[i] = counted ? offsets[shard] + position : -1;
+    }
+
+    int[] positions;
+    try {
+      positions = CatalogSampler.sample(n, skip, k, random);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+
+    List<Book> sample = new ArrayList<>(k);
+    for (int position : positions) {
+      int shard = 0;
+      while (position >= offsets[shard + 1]) {
+        shard++;
+      }
+      sample.add(shards[shard].books.getAt(position - offsets[shard]));
+    }
+    return sample;
+  }
+
+  /**
+   * Replaces the stored book that has the same id as {@code book} in constant time.
+   *
+   * @param book A {@code Book} object containing the updated information.
+   * @return {@code true} if a book was replaced; {@code false} if no book has that id.
+   */
+  public boolean update(Book book) {
+    ReentrantLock lock = InventoryLocks.forId(book.getId());
+    lock.lock();
+    try {
+      CatalogShard shard = shard(book.getId());
+      Book current = shard.books.get(book.getId());
+      if (current == null) {
+        return false;
+      }
+      if (current != book) {
+        checkLog();
+        shard.replace(current, book);
+        loans.removeAll(current);
+        loans.addAll(book);
+        metrics.availableCopies.add(book.getCopiesAvailable() - current.getCopiesAvailable());
+        current.setInventoryListener(null);
+        book.setInventoryListener(listener);
+        logChange(book);
+        changed(book);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Updates the catalog by replacing the existing book that matches the given
    * {@code newBook} with the updated version.
    *
    * @param newBook A {@code Book} object containing the updated information
    *                to replace the existing entry.
    */
   public void updateBook(Book newBook) {
-    ArrayList<Book> tmpBooks = new ArrayList<>();
+    update(newBook);
+  }
+
+  public void printBooks() {
+    for (Book book : getBooks()) {
+      System.out.println(book);
+    }
+  }
+
+  private void load(CatalogProperties properties) {
+    try {
+      sourceStamp = sourceStamp(properties.getSource());
+      Path wal = properties.getWal().isBlank() ? null : Path.of(properties.getWal());
+      if (!properties.getSnapshot().isBlank()) {
+        snapshot = Path.of(properties.getSnapshot());
+      } else if (wal != null) {
+        snapshot = wal.resolve("catalog.snap");
+      }
+      if (wal != null) {
+        openLog(wal);
+      }
+
+      if (snapshot != null && Files.exists(snapshot) && restore(snapshot)) {
+        return;
+      }
+      loadJson(properties);
+      if (snapshot != null && loadStats != null) {
+        checkpoint();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Failed to write snapshot.", e);
+    } finally {
+      recovered = Map.of();
+      loading = false;
+      scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-maintenance");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduleOverdueSweep();
+      if (log != null) {
+        scheduleCompaction(properties.getWalCompactInterval().toMillis());
+      }
+    }
+  }
+
+  /**
+   * Sweeps once now that the catalog is loaded, and then just after every midnight of the loan
+   * calendar.
+   */
+  private void scheduleOverdueSweep() {
+    scheduler.execute(this::sweepOverdue);
+    scheduler.scheduleAtFixedRate(this::sweepOverdue,
+        calendar.millisUntilTomorrow(), TimeUnit.DAYS.toMillis(1),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Recovers the logged inventory states, which {@link #add(Book)} applies as the books are
+   * loaded, and starts a new log segment for the changes made from now on.
+   */
+  private void openLog(Path wal) {
+    try {
+      recovered = InventoryLog.replay(wal);
+      log = InventoryLog.open(wal);
+      if (!recovered.isEmpty()) {
+        LOGGER.info("Recovered the inventory of {} books from {}.", recovered.size(), wal);
+      }
+    } catch (IOException e) {
+      LOGGER.error("Failed to open inventory log.", e);
+    }
+  }
+
+  private void scheduleCompaction(long intervalMillis) {
+    scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        if (log.segmentSize() > 0) {
+          checkpoint();
+        }
+      } catch (IOException e) {
+        LOGGER.error("Failed to compact inventory log.", e);
+      }
+    }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Restores the catalog from a snapshot. The books are only added once the whole snapshot has
+   * been read, so a snapshot that turns out to be malformed part way through, which surfaces as
+   * a runtime exception from the buffer reads, leaves the catalog empty for the JSON load.
+   */
+  private boolean restore(Path snapshot) {
+    List<Book> books = new ArrayList<>();
+    CatalogLoadStats stats;
+    try {
+      stats = CatalogSnapshot.read(snapshot, sourceStamp, books::add);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Ignoring snapshot {}.", snapshot, e);
+      return false;
+    }
     for (Book book : books) {
-      if (book.equals(newBook)) {
-        tmpBooks.add(newBook);
+      add(book);
+    }
+    loadStats = stats;
+    LOGGER.info("Successfully restored {} books from snapshot {} in {} ms.",
+        stats.books(), snapshot, stats.elapsedMillis());
+    return true;
+  }
+
+  private void loadJson(CatalogProperties properties) {
+    String source = properties.getSource().isBlank() ? BUNDLED_CATALOG : properties.getSource();
+    CatalogLoader loader = new CatalogLoader(properties.getLoadThreads(),
+        properties.getLoadChunkSize());
+    try (InputStream is = open(properties.getSource())) {
+      if (is == null) {
+        LOGGER.error("Failed to find {} in resources.", BUNDLED_CATALOG);
       } else {
-        tmpBooks.add(book);
+        loadStats = loader.load(is, this::add);
+        LOGGER.info("Successfully loaded {} books from {} in {} ms ({} books/s).",
+            loadStats.books(), source, loadStats.elapsedMillis(),
+            Math.round(loadStats.booksPerSecond()));
       }
+    } catch (Exception e) {
+      LOGGER.error("Failed to load books.", e);
     }
+  }
 
-    this.books = tmpBooks;
+  /**
+   * Identifies the current version of the JSON source by its size and modification time, so
+   * that a snapshot taken from an older source is not restored.
+   */
+  private static long sourceStamp(String source) {
+    try {
+      if (source.isBlank()) {
+        URL url = Thread.currentThread().getContextClassLoader().getResource(BUNDLED_CATALOG);
+        if (url == null) {
+          return 0;
+        }
+        URLConnection connection = url.openConnection();
+        return connection.getContentLengthLong() * 31 + connection.getLastModified();
+      }
+      Path path = Path.of(source);
+      return Files.size(path) * 31 + Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
   }
 
-  public void printBooks() {
-    books.forEach(System.out::println);
+  private static InputStream open(String source) throws IOException {
+    if (source.isBlank()) {
+      return Thread.currentThread().getContextClassLoader().getResourceAsStream(BUNDLED_CATALOG);
+    }
+    return new BufferedInputStream(Files.newInputStream(Path.of(source)), 1 << 16);
+  }
+
+  /**
+   * Adds a book to every index, replacing any book with the same id. The listener is registered
+   * before the book is published so no transition can be missed.
+   */
+  private void add(Book book) {
+    ReentrantLock lock = InventoryLocks.forId(book.getId());
+    lock.lock();
+    try {
+      InventoryLog.Entry entry = recovered.get(book.getId());
+      if (entry != null) {
+        entry.applyTo(book);
+      }
+      book.setInventoryListener(listener);
+      Book previous = shard(book.getId()).put(book, sequence::getAndIncrement);
+      if (previous != null) {
+        previous.setInventoryListener(null);
+        loans.removeAll(previous);
+      }
+      loans.addAll(book);
+      metrics.availableCopies.add(book.getCopiesAvailable()
+          - (previous == null ? 0 : previous.getCopiesAvailable()));
+      changed(book);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private CatalogShard shard(int id) {
+    return shards[shardIndex(id)];
+  }
+
+  private int shardIndex(int id) {
+    int h = id * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (shards.length - 1);
+  }
+
+  /**
+   * Refuses a change that the write-ahead log could no longer record, before it is applied.
+   */
+  private void checkLog() {
+    InventoryLog current = log;
+    if (current != null) {
+      current.checkOpen();
+    }
+  }
+
+  private void logChange(Book book) {
+    InventoryLog current = log;
+    if (current != null) {
+      current.append(book);
+    }
+  }
+
+  private void changed(Book book) {
+    version.increment();
+    for (IntConsumer changeListener : changeListeners) {
+      changeListener.accept(book.getId());
+    }
+  }
+
+  /**
+   * Keeps the derived indexes, the write-ahead log, the change listeners and the metrics in
+   * step with inventory transitions of catalog books.
+   */
+  private final class CatalogListener implements InventoryListener {
+    @Override
+    public void beforeChange(Book book) {
+      checkLog();
+    }
+
+    @Override
+    public void onCheckout(Book book, int dueDay, String dueDate) {
+      CatalogShard shard = shard(book.getId());
+      shard.popularity.onCheckout(book);
+      shard.availability.update(book);
+      loans.add(book.getId(), dueDay);
+      metrics.availableCopies.decrement();
+      metrics.checkouts.increment();
+      logChange(book);
+      changed(book);
+    }
+
+    @Override
+    public void onReturn(Book book, String dueDate) {
+      shard(book.getId()).availability.update(book);
+      loans.remove(book.getId(), Inventory.epochDay(dueDate));
+      metrics.availableCopies.increment();
+      metrics.returns.increment();
+      logChange(book);
+      changed(book);
+    }
+
+    @Override
+    public void onCopiesChanged(Book book, int delta) {
+      shard(book.getId()).availability.update(book);
+      metrics.availableCopies.add(delta);
+      (delta > 0 ? metrics.copiesAdded : metrics.copiesDeleted).add(Math.abs(delta));
+      logChange(book);
+      changed(book);
+    }
+
+    @Override
+    public void onCheckoutRefused(Book book, int count) {
+      metrics.refusedCheckouts.add(count);
+    }
   }
 }
@@ -0,0 +1,10 @@
+package dev.coms4156.project.individualproject.service;
+
+/**
+ * The result of one daily overdue sweep.
+ *
+ * @param date The day of the sweep, as {@code yyyy-MM-dd}.
+ * @param loans The number of checked-out copies that were due before that day.
+ */
+public record OverdueCount(String date, long loans) {
+}
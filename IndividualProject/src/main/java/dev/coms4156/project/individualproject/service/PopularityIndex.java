@@ -0,0 +1,73 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class defines an index of books ordered by popularity ({@code amountOfTimesCheckedOut}).
+ * Each book is stored under a key combining its checkout count with its id, so that a checkout
+ * moves a single entry in {@code O(log n)} and the {@code k} most popular books are read off the
+ * head of the map in {@code O(k)}. Books with the same count are ordered by ascending id.
+ *
+ * <p>Moves of a given book are serialized by its inventory lock. Readers are weakly consistent:
+ * a book that is being moved may be missed by a concurrent {@link #top(int)}.
+ */
+public final class PopularityIndex {
+
+  private final ConcurrentSkipListMap<Long, Book> byPopularity =
+      new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+
+  /**
+   * Adds a book under its current checkout count.
+   *
+   * @param book The {@code Book} to index.
+   */
+  public void add(Book book) {
+    byPopularity.put(key(book.getAmountOfTimesCheckedOut(), book.getId()), book);
+  }
+
+  /**
+   * Moves a book that has just been checked out once more.
+   *
+   * @param book The {@code Book} whose checkout count was incremented by one.
+   */
+  public void onCheckout(Book book) {
+    int count = book.getAmountOfTimesCheckedOut();
+    byPopularity.remove(key(count - 1, book.getId()));
+    byPopularity.put(key(count, book.getId()), book);
+  }
+
+  /**
+   * Replaces the entry of {@code oldBook} with {@code newBook}.
+   *
+   * @param oldBook The {@code Book} currently indexed.
+   * @param newBook The {@code Book} replacing it.
+   */
+  public void replace(Book oldBook, Book newBook) {
+    byPopularity.remove(key(oldBook.getAmountOfTimesCheckedOut(), oldBook.getId()));
+    add(newBook);
+  }
+
+  /**
+   * Returns the {@code k} most popular books, most popular first.
+   *
+   * @param k The number of books to return.
+   * @return A new list of at most {@code k} books.
+   */
+  public List<Book> top(int k) {
+    List<Book> top = new ArrayList<>(k);
+    Iterator<Book> it = byPopularity.values().iterator();
+    while (top.size() < k && it.hasNext()) {
+      top.add(it.next());
+    }
+    return top;
+  }
+
+  private static long key(int count, int id) {
+    return ((long) count << 32) | (~id & 0xFFFFFFFFL);
+  }
+}
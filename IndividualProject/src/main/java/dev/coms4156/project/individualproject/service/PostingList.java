@@ -0,0 +1,112 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class defines the set of catalog positions carrying one search term. Like the containers
+ * of a Roaring bitmap, it picks its encoding by density: a rare term is stored as a sorted
+ * {@code int[]} of positions, and a term held by more than one book in 32 is converted to a
+ * {@link BitSet}, which is then the smaller of the two. Either way membership tests and
+ * in-order iteration are cheap, which is all that query evaluation needs.
+ *
+ * <p>Instances are not thread-safe; {@link SearchIndex} guards them with its lock.
+ */
+final class PostingList {
+
+  private static final int MIN_BITMAP_SIZE = 1024;
+
+  private int[] positions = new int[2];
+  private int size;
+  private BitSet bits;
+
+  /**
+   * Adds a position. Positions are usually added in increasing order, which appends.
+   */
+  void add(int position) {
+    if (bits != null) {
+      if (!bits.get(position)) {
+        bits.set(position);
+        size++;
+      }
+      return;
+    }
+    int at = size == 0 || positions[size - 1] < position ? -(size + 1)
+        : Arrays.binarySearch(positions, 0, size, position);
+    if (at >= 0) {
+      return;
+    }
+    at = -(at + 1);
+    if (size == positions.length) {
+      positions = Arrays.copyOf(positions, size + (size >> 1) + 1);
+    }
+    System.arraycopy(positions, at, positions, at + 1, size - at);
+    positions[at] = position;
+    size++;
+    if (size >= MIN_BITMAP_SIZE && size > (positions[size - 1] >>> 5)) {
+      toBitmap();
+    }
+  }
+
+  /**
+   * Removes a position if present.
+   */
+  void remove(int position) {
+    if (bits != null) {
+      if (bits.get(position)) {
+        bits.clear(position);
+        size--;
+      }
+      return;
+    }
+    int at = Arrays.binarySearch(positions, 0, size, position);
+    if (at >= 0) {
+      System.arraycopy(positions, at + 1, positions, at, size - at - 1);
+      size--;
+    }
+  }
+
+  boolean contains(int position) {
+    return bits != null ? bits.get(position)
+        : Arrays.binarySearch(positions, 0, size, position) >= 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the smallest position that is at least {@code from}, or {@code -1} if there is none.
+   */
+  int next(int from) {
+    if (bits != null) {
+      return bits.nextSetBit(from);
+    }
+    int at = Arrays.binarySearch(positions, 0, size, from);
+    if (at < 0) {
+      at = -(at + 1);
+    }
+    return at < size ? positions[at] : -1;
+  }
+
+  /**
+   * Sets the bit of every position in {@code target}.
+   */
+  void orInto(BitSet target) {
+    if (bits != null) {
+      target.or(bits);
+      return;
+    }
+    for (int i = 0; i < size; i++) {
+      target.set(positions[i]);
+    }
+  }
+
+  private void toBitmap() {
+    bits = new BitSet(positions[size - 1] + 1);
+    for (int i = 0; i < size; i++) {
+      bits.set(positions[i]);
+    }
+    positions = null;
+  }
+}
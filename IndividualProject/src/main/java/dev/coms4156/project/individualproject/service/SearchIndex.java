@@ -0,0 +1,228 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * This class defines an inverted index from author, subject, language, publisher and shelving
+ * location values to the catalog positions of the books carrying them. Values are matched
+ * exactly after normalization (case, surrounding whitespace and the trailing punctuation of
+ * catalog records are ignored), so a query costs time proportional to the posting lists
+ * involved rather than to the size of the catalog.
+ *
+ * <p>Queries take a read lock and index updates a write lock, so a query never observes a
+ * half-indexed book.
+ */
+public final class SearchIndex {
+
+  /**
+   * The indexed book fields.
+   */
+  public enum Field {
+    AUTHOR, SUBJECT, LANGUAGE, PUBLISHER, LOCATION
+  }
+
+  private final Map<String, PostingList> postings = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /**
+   * Indexes a book stored at the given catalog position.
+   *
+   * @param position The position of the book in the catalog.
+   * @param book The {@code Book} to index.
+   */
+  public void add(int position, Book book) {
+    lock.writeLock().lock();
+    try {
+      for (String term : terms(book)) {
+        postings.computeIfAbsent(term, t -> new PostingList()).add(position);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Re-indexes the book at the given position after it was replaced.
+   *
+   * @param position The position of the book in the catalog.
+   * @param oldBook The {@code Book} previously stored there.
+   * @param newBook The {@code Book} now stored there.
+   */
+  public void replace(int position, Book oldBook, Book newBook) {
+    lock.writeLock().lock();
+    try {
+      for (String term : terms(oldBook)) {
+        PostingList list = postings.get(term);
+        if (list != null) {
+          list.remove(position);
+          if (list.size() == 0) {
+            postings.remove(term);
+          }
+        }
+      }
+      add(position, newBook);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the positions of the books matching the given terms. Evaluation stops as soon as
+   * {@code limit} positions have been found, so small pages of very common terms stay cheap.
+   *
+   * @param terms The terms to match, built with {@link #term(Field, String)}.
+   * @param matchAll {@code true} to require every term, {@code false} to require any.
+   * @param filter An additional condition on the positions, such as availability.
+   * @param limit The maximum number of positions to return.
+   * @return The matching positions in increasing order.
+   */
+  public int[] search(Collection<String> terms, boolean matchAll, IntPredicate filter,
+      int limit) {
+    long[] hits = search(List.of(this), (part, position) -> position, terms, matchAll,
+        (part, position) -> filter.test(position), limit);
+    int[] positions = new int[hits.length];
+    for (int i = 0; i < hits.length; i++) {
+      positions[i] = CatalogOrderWalk.positionOf(hits[i]);
+    }
+    return positions;
+  }
+
+  /**
+   * Searches several indexes holding disjoint parts of one catalog as if they were a single
+   * index over the whole catalog. The parts' postings are walked together in catalog order, so
+   * evaluation still stops after {@code limit} matches in all, rather than after
+   * {@code limit} matches in every part.
+   *
+   * @param parts The indexes of the parts, whose read locks are taken in list order.
+   * @param sequence The catalog order of the parts' positions.
+   * @param terms The terms to match, built with {@link #term(Field, String)}.
+   * @param matchAll {@code true} to require every term, {@code false} to require any.
+   * @param filter An additional condition on the positions, such as availability.
+   * @param limit The maximum number of matches to return.
+   * @return The matches as {@link CatalogOrderWalk#hit hits}, in catalog order.
+   */
+  static long[] search(List<SearchIndex> parts, CatalogOrderWalk.Sequence sequence,
+      Collection<String> terms, boolean matchAll, CatalogOrderWalk.Filter filter, int limit) {
+    int locked = 0;
+    try {
+      for (SearchIndex part : parts) {
+        part.lock.readLock().lock();
+        locked++;
+      }
+      CatalogOrderWalk.Positions[] drivers = new CatalogOrderWalk.Positions[parts.size()];
+      List<List<PostingList>> rest = new ArrayList<>(parts.size());
+      long candidates = 0;
+      for (int p = 0; p < parts.size(); p++) {
+        List<PostingList> lists = parts.get(p).lookup(terms, matchAll);
+        if (lists == null || lists.isEmpty()) {
+          rest.add(List.of());
+        } else if (matchAll) {
+          // Any list can drive the intersection of a part; the shortest does it cheapest.
+          lists.sort(Comparator.comparingInt(PostingList::size));
+          drivers[p] = lists.get(0)::next;
+          candidates += lists.get(0).size();
+          rest.add(lists.subList(1, lists.size()));
+        } else {
+          // A part's union is ORed into one bitmap, one bit per position at most, however
+          // many lists are combined.
+          BitSet union = new BitSet();
+          for (PostingList list : lists) {
+            list.orInto(union);
+          }
+          drivers[p] = union::nextSetBit;
+          candidates += union.cardinality();
+          rest.add(List.of());
+        }
+      }
+
+      long[] matches = new long[(int) Math.min(candidates, limit)];
+      int n = 0;
+      CatalogOrderWalk walk = new CatalogOrderWalk(drivers, sequence);
+      while (n < matches.length && walk.next()) {
+        int part = walk.part();
+        int pos = walk.position();
+        List<PostingList> others = rest.get(part);
+        boolean all = true;
+        for (int i = 0; i < others.size() && all; i++) {
+          all = others.get(i).contains(pos);
+        }
+        if (all && filter.test(part, pos)) {
+          matches[n++] = CatalogOrderWalk.hit(part, pos);
+        }
+      }
+      return n == matches.length ? matches : Arrays.copyOf(matches, n);
+    } finally {
+      for (int p = locked - 1; p >= 0; p--) {
+        parts.get(p).lock.readLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the posting lists of the given terms, skipping unknown terms, or {@code null} if
+   * {@code matchAll} is set and a term is unknown. The caller holds the read lock.
+   */
+  private List<PostingList> lookup(Collection<String> terms, boolean matchAll) {
+    List<PostingList> lists = new ArrayList<>(terms.size());
+    for (String term : terms) {
+      PostingList list = postings.get(term);
+      if (list != null) {
+        lists.add(list);
+      } else if (matchAll) {
+        return null;
+      }
+    }
+    return lists;
+  }
+
+  /**
+   * Builds the index term for a field value.
+   *
+   * @param field The field the value belongs to.
+   * @param value The value, as stored in the catalog or typed by a user.
+   * @return The term under which the value is indexed.
+   */
+  public static String term(Field field, String value) {
+    String normalized = value.strip().toLowerCase(Locale.ROOT);
+    int end = normalized.length();
+    while (end > 0 && ",.;:/ ".indexOf(normalized.charAt(end - 1)) >= 0) {
+      end--;
+    }
+    return field.ordinal() + ":" + normalized.substring(0, end);
+  }
+
+  private static List<String> terms(Book book) {
+    List<String> terms = new ArrayList<>();
+    addAll(terms, Field.AUTHOR, book.getAuthors());
+    addAll(terms, Field.SUBJECT, book.getSubjects());
+    add(terms, Field.LANGUAGE, book.getLanguage());
+    add(terms, Field.PUBLISHER, book.getPublisher());
+    add(terms, Field.LOCATION, book.getShelvingLocation());
+    return terms;
+  }
+
+  private static void addAll(List<String> terms, Field field, List<String> values) {
+    if (values != null) {
+      for (String value : values) {
+        add(terms, field, value);
+      }
+    }
+  }
+
+  private static void add(List<String> terms, Field field, String value) {
+    if (value != null && !value.isBlank()) {
+      terms.add(term(field, value));
+    }
+  }
+}
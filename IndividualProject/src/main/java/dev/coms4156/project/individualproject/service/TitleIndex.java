@@ -0,0 +1,416 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class defines a full-text index over book titles. Titles are split into lowercase,
+ * accent-free words; each word is indexed as a whole term and as its edge n-grams (the
+ * prefixes of two to {@value #MAX_GRAM} characters), so the last, partially typed word of a
+ * query can be matched as a prefix without scanning a dictionary.
+ *
+ * <p>A query matches the books whose titles contain every query word, the last one as a
+ * prefix unless the query ends with a separator. A last word of a single letter is ignored, and
+ * prefixes longer than {@value #MAX_GRAM} characters are matched on their first
+ * {@value #MAX_GRAM}. Matches are ranked with BM25 using binary term frequencies, since a word
+ * rarely repeats within a title.
+ *
+ * <p>With binary frequencies every match of a query has the same term weights, so its score
+ * only falls as its title gets longer. For common words the index therefore walks the
+ * catalog shortest titles first and stops after {@code k} matches, instead of scoring every
+ * match; this keeps type-ahead on one- or two-letter prefixes fast. Selective queries simply
+ * score every match and keep the top {@code k} on a heap.
+ */
+public final class TitleIndex {
+
+  static final int MAX_GRAM = 15;
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final Map<String, PostingList> terms = new HashMap<>();
+  private final Map<String, PostingList> grams = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final PostingList[] byLength = new PostingList[256];
+  private byte[] lengths = new byte[1024];
+  private long totalLength;
+  private int docs;
+
+  /**
+   * Indexes the title of a book stored at the given catalog position.
+   *
+   * @param position The position of the book in the catalog.
+   * @param book The {@code Book} to index.
+   */
+  public void add(int position, Book book) {
+    List<String> words = tokenize(book.getTitle());
+    lock.writeLock().lock();
+    try {
+      if (position >= lengths.length) {
+        lengths = Arrays.copyOf(lengths, Math.max(position + 1, lengths.length * 2));
+      }
+      int length = Math.min(words.size(), 255);
+      lengths[position] = (byte) length;
+      if (byLength[length] == null) {
+        byLength[length] = new PostingList();
+      }
+      byLength[length].add(position);
+      totalLength += length;
+      docs++;
+      for (String word : new LinkedHashSet<>(words)) {
+        terms.computeIfAbsent(word, w -> new PostingList()).add(position);
+        for (String gram : edgeGrams(word)) {
+          grams.computeIfAbsent(gram, g -> new PostingList()).add(position);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Re-indexes the title at the given position after the book was replaced.
+   *
+   * @param position The position of the book in the catalog.
+   * @param oldBook The {@code Book} previously stored there.
+   * @param newBook The {@code Book} now stored there.
+   */
+  public void replace(int position, Book oldBook, Book newBook) {
+    lock.writeLock().lock();
+    try {
+      for (String word : new LinkedHashSet<>(tokenize(oldBook.getTitle()))) {
+        remove(terms, word, position);
+        for (String gram : edgeGrams(word)) {
+          remove(grams, gram, position);
+        }
+      }
+      int length = Byte.toUnsignedInt(lengths[position]);
+      byLength[length].remove(position);
+      totalLength -= length;
+      docs--;
+      add(position, newBook);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the positions of the {@code k} best-matching titles, best first.
+   *
+   * @param query The words typed so far.
+   * @param k The maximum number of positions to return.
+   * @return The matching positions, ranked by BM25 score; ties keep catalog order.
+   */
+  public int[] search(String query, int k) {
+    long[] hits = search(List.of(this), (part, position) -> position, query, k);
+    int[] positions = new int[hits.length];
+    for (int i = 0; i < hits.length; i++) {
+      positions[i] = CatalogOrderWalk.positionOf(hits[i]);
+    }
+    return positions;
+  }
+
+  /**
+   * Searches several indexes holding disjoint parts of one catalog as if they were a single
+   * index over the whole catalog: scores use the statistics of the whole catalog, and the
+   * length-ordered walk visits each length's titles across all parts in catalog order, so it
+   * stops after {@code k} matches in all rather than after {@code k} matches in every part.
+   *
+   * @param parts The indexes of the parts, whose read locks are taken in list order.
+   * @param sequence The catalog order of the parts' positions.
+   * @param query The words typed so far.
+   * @param k The maximum number of matches to return.
+   * @return The matches as {@link CatalogOrderWalk#hit hits}, ranked by BM25 score; ties keep
+   *         catalog order.
+   */
+  static long[] search(List<TitleIndex> parts, CatalogOrderWalk.Sequence sequence,
+      String query, int k) {
+    List<String> words = tokenize(query);
+    boolean prefix = !words.isEmpty()
+        && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+    if (prefix && words.get(words.size() - 1).length() < 2) {
+      // A single typed letter is too unselective to be worth matching.
+      words.remove(words.size() - 1);
+      prefix = false;
+    }
+    if (words.isEmpty()) {
+      return new long[0];
+    }
+
+    // A match holds at least one word per distinct whole query word, plus one for the prefix
+    // unless it may be completed by one of those words.
+    String last = words.get(words.size() - 1);
+    Set<String> whole = new HashSet<>(prefix ? words.subList(0, words.size() - 1) : words);
+    int minLength = whole.size();
+    if (prefix && whole.stream().noneMatch(w -> w.startsWith(last))) {
+      minLength++;
+    }
+
+    int locked = 0;
+    try {
+      for (TitleIndex part : parts) {
+        part.lock.readLock().lock();
+        locked++;
+      }
+      List<List<PostingList>> lists = new ArrayList<>(parts.size());
+      int[] df = new int[words.size()];
+      for (TitleIndex part : parts) {
+        List<PostingList> partLists = part.lookup(words, prefix, df);
+        if (partLists != null) {
+          partLists.sort(Comparator.comparingInt(PostingList::size));
+        }
+        lists.add(partLists);
+      }
+      return new Ranking(parts, sequence, lists, df).topK(k, minLength);
+    } finally {
+      for (int p = locked - 1; p >= 0; p--) {
+        parts.get(p).lock.readLock().unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the posting lists of the query words, the last one as a prefix if {@code prefix}
+   * is set, or {@code null} if a word matches no title of this index. Adds the size of each
+   * list to {@code df}. The caller holds the read lock.
+   */
+  private List<PostingList> lookup(List<String> words, boolean prefix, int[] df) {
+    List<PostingList> lists = new ArrayList<>(words.size());
+    for (int i = 0; i < words.size(); i++) {
+      String word = words.get(i);
+      PostingList list;
+      if (prefix && i == words.size() - 1) {
+        list = grams.get(word.substring(0, Math.min(word.length(), MAX_GRAM)));
+      } else {
+        list = terms.get(word);
+      }
+      if (list == null) {
+        lists = null;
+      } else {
+        df[i] += list.size();
+        if (lists != null) {
+          lists.add(list);
+        }
+      }
+    }
+    return lists;
+  }
+
+  /**
+   * Ranks the matches of one query across the parts of a catalog, under their read locks.
+   */
+  private static final class Ranking {
+
+    private final List<TitleIndex> parts;
+    private final CatalogOrderWalk.Sequence sequence;
+    private final List<List<PostingList>> lists;
+    private final int[] df;
+    private int docs;
+    private long totalLength;
+
+    /**
+     * Gathers the statistics of the whole catalog.
+     *
+     * @param lists The posting lists of each part, shortest first, or {@code null} for a part
+     *              without matches.
+     * @param df The number of titles in the whole catalog holding each query word.
+     */
+    Ranking(List<TitleIndex> parts, CatalogOrderWalk.Sequence sequence,
+        List<List<PostingList>> lists, int[] df) {
+      this.parts = parts;
+      this.sequence = sequence;
+      this.lists = lists;
+      this.df = df;
+      for (TitleIndex part : parts) {
+        docs += part.docs;
+        totalLength += part.totalLength;
+      }
+    }
+
+    long[] topK(int k, int minLength) {
+      // Estimate, as if the words were independent, how many titles the length-ordered walk
+      // visits before it has k matches, and take it only if that beats scoring every match.
+      double density = 1;
+      int shortest = Integer.MAX_VALUE;
+      for (int count : df) {
+        density *= (double) count / docs;
+        shortest = Math.min(shortest, count);
+      }
+      if (shortest == 0) {
+        return new long[0];
+      }
+      if (k / density < shortest / 4.0) {
+        long[] ranked = shortestFirst(k, minLength, shortest / 2);
+        if (ranked != null) {
+          return ranked;
+        }
+      }
+      return scoreAll(k);
+    }
+
+    /**
+     * Walks positions in order of increasing title length, which is decreasing score, from
+     * {@code minLength} words on, and returns the first {@code k} matches. Gives up, returning
+     * {@code null}, after visiting {@code budget} positions.
+     */
+    private long[] shortestFirst(int k, int minLength, int budget) {
+      long[] ranked = new long[k];
+      int n = 0;
+      int visited = 0;
+      CatalogOrderWalk.Positions[] buckets = new CatalogOrderWalk.Positions[parts.size()];
+      for (int length = minLength; length < 256; length++) {
+        boolean any = false;
+        for (int p = 0; p < buckets.length; p++) {
+          PostingList bucket = lists.get(p) == null ? null : parts.get(p).byLength[length];
+          buckets[p] = bucket == null ? null : bucket::next;
+          any |= bucket != null;
+        }
+        if (!any) {
+          continue;
+        }
+        CatalogOrderWalk walk = new CatalogOrderWalk(buckets, sequence);
+        while (walk.next()) {
+          if (++visited > budget) {
+            return null;
+          }
+          int pos = walk.position();
+          List<PostingList> partLists = lists.get(walk.part());
+          boolean all = true;
+          for (int i = 0; i < partLists.size() && all; i++) {
+            all = partLists.get(i).contains(pos);
+          }
+          if (all) {
+            ranked[n++] = CatalogOrderWalk.hit(walk.part(), pos);
+            if (n == k) {
+              return ranked;
+            }
+          }
+        }
+      }
+      return Arrays.copyOf(ranked, n);
+    }
+
+    /**
+     * Scores every position held by all lists of a part, walking its shortest list and probing
+     * the others, and keeps the best {@code k} on a min-heap.
+     */
+    private long[] scoreAll(int k) {
+      double idfSum = 0;
+      for (int count : df) {
+        idfSum += Math.log(1 + (docs - count + 0.5) / (count + 0.5));
+      }
+      double avgLength = docs == 0 ? 1 : Math.max(1.0, (double) totalLength / docs);
+
+      PriorityQueue<double[]> heap = new PriorityQueue<>(k + 1, TitleIndex::compareHits);
+      for (int p = 0; p < parts.size(); p++) {
+        List<PostingList> partLists = lists.get(p);
+        if (partLists == null) {
+          continue;
+        }
+        byte[] lengths = parts.get(p).lengths;
+        PostingList shortest = partLists.get(0);
+        for (int pos = shortest.next(0); pos >= 0; pos = shortest.next(pos + 1)) {
+          boolean all = true;
+          for (int i = 1; i < partLists.size() && all; i++) {
+            all = partLists.get(i).contains(pos);
+          }
+          if (!all) {
+            continue;
+          }
+          double norm = K1 * (1 - B + B * Byte.toUnsignedInt(lengths[pos]) / avgLength);
+          double score = idfSum * (K1 + 1) / (1 + norm);
+          if (heap.size() < k) {
+            heap.add(new double[] {score, sequence.of(p, pos), p, pos});
+          } else if (score >= heap.peek()[0]) {
+            // Parts are scored one after the other, so an equal score may still come earlier
+            // in catalog order.
+            double[] hit = {score, sequence.of(p, pos), p, pos};
+            if (compareHits(hit, heap.peek()) > 0) {
+              heap.poll();
+              heap.add(hit);
+            }
+          }
+        }
+      }
+
+      long[] ranked = new long[heap.size()];
+      for (int i = ranked.length - 1; i >= 0; i--) {
+        double[] hit = heap.poll();
+        ranked[i] = CatalogOrderWalk.hit((int) hit[2], (int) hit[3]);
+      }
+      return ranked;
+    }
+  }
+
+  /**
+   * Orders hits from worst to best: lower score first, and on equal scores the later one in
+   * catalog order.
+   */
+  private static int compareHits(double[] a, double[] b) {
+    int c = Double.compare(a[0], b[0]);
+    return c != 0 ? c : Double.compare(b[1], a[1]);
+  }
+
+  /**
+   * Splits text into lowercase words of letters and digits, with accents removed. Modifier
+   * letters, such as the apostrophe used in romanized Korean, are dropped too.
+   *
+   * @param text The text to split.
+   * @return The words in order of appearance.
+   */
+  static List<String> tokenize(String text) {
+    List<String> words = new ArrayList<>();
+    if (text == null) {
+      return words;
+    }
+    String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < folded.length(); i++) {
+      char c = folded.charAt(i);
+      int type = Character.getType(c);
+      if (type == Character.NON_SPACING_MARK || type == Character.MODIFIER_LETTER) {
+        continue;
+      }
+      if (Character.isLetterOrDigit(c)) {
+        word.append(c);
+      } else if (word.length() > 0) {
+        words.add(word.toString());
+        word.setLength(0);
+      }
+    }
+    if (word.length() > 0) {
+      words.add(word.toString());
+    }
+    return words;
+  }
+
+  private static Set<String> edgeGrams(String word) {
+    Set<String> prefixes = new LinkedHashSet<>();
+    for (int n = 2; n <= Math.min(word.length(), MAX_GRAM); n++) {
+      prefixes.add(word.substring(0, n));
+    }
+    return prefixes;
+  }
+
+  private static void remove(Map<String, PostingList> index, String key, int position) {
+    PostingList list = index.get(key);
+    if (list != null) {
+      list.remove(position);
+      if (list.size() == 0) {
+        index.remove(key);
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.controller.BookCborConverter;
+import dev.coms4156.project.individualproject.controller.BookJsonCache;
+import dev.coms4156.project.individualproject.controller.BookJsonConverter;
+import dev.coms4156.project.individualproject.controller.ResponseCacheConfig;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Unit tests for the BookCborConverter class.
+ */
+public class BookCborConverterUnitTests {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final BookCborConverter converter = new BookCborConverter();
+  private MockApiService service;
+  private RouteController controller;
+
+  /**
+   * A response that records what is written to it.
+   */
+  private static final class RecordedMessage implements HttpOutputMessage {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+
+  private static Book book(int id) {
+    return new Book("Book " + id, new ArrayList<>(List.of("Author")), "eng", "eax", "2001.",
+        "Press", new ArrayList<>(List.of("Art")), id, 2, 2);
+  }
+
+  private RecordedMessage write(Object body) throws IOException {
+    RecordedMessage message = new RecordedMessage();
+    converter.write(body, MediaType.APPLICATION_CBOR, message);
+    return message;
+  }
+
+  private JsonNode decoded(Object body) throws IOException {
+    return CborDecoder.decode(write(body).body.toByteArray());
+  }
+
+  /**
+   * Sets up a catalog of 600 books, more than one flush of a streamed response.
+   */
+  @BeforeEach
+  public void setUp() {
+    List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 600; id++) {
+      books.add(book(id));
+    }
+    service = new MockApiService(books);
+    controller = new RouteController(service);
+  }
+
+  /**
+   * Tests that a book decodes to the same tree as its JSON, including nulls, non-ASCII text,
+   * long strings, large numbers and due dates.
+   */
+  @Test
+  public void testBookMatchesJson() throws IOException {
+    String title = "Quotes \"and\" \u00e9\u4e2d\ud83d\udcd6\t" + "x".repeat(300);
+    Book full = new Book(title, new ArrayList<>(List.of("Author, One", "")), "eng", "off,glx",
+        "2001.", "Press", new ArrayList<>(List.of("Art", "History")), 70000, 3, 6);
+    full.setReturnDates(new ArrayList<>(List.of("2025-05-01", "someday", "2025-05-01")));
+    full.setAmountOfTimesCheckedOut(Integer.MAX_VALUE);
+    Book nulls = new Book();
+    nulls.setTitle(null);
+    nulls.setAuthors(null);
+    nulls.setSubjects(null);
+    Book checkedOut = service.findById(3);
+    checkedOut.checkoutCopy();
+
+    for (Book book : List.of(full, nulls, checkedOut)) {
+      assertEquals(mapper.readTree(mapper.writeValueAsBytes(book)), decoded(book));
+    }
+    RecordedMessage message = write(checkedOut);
+    assertEquals(MediaType.APPLICATION_CBOR, message.headers.getContentType());
+    assertEquals(List.of(HttpHeaders.ACCEPT), message.headers.getVary());
+  }
+
+  /**
+   * Tests that pages, streamed lists and projections decode to the same trees as their JSON.
+   */
+  @Test
+  public void testListsMatchJson() throws IOException {
+    List<Object> bodies = List.of(
+        controller.getAvailableBooks(100, null, false, null).getBody(),
+        controller.getAvailableBooks(5, 1000, false, null).getBody(),
+        controller.getAvailableBooks(null, null, true, null).getBody(),
+        controller.getAvailableBooks(300, 10, true, "id,title,returnDates").getBody(),
+        controller.getAvailableBooks(20, null, false, "copiesAvailable").getBody());
+    for (Object body : bodies) {
+      assertEquals(mapper.readTree(mapper.writeValueAsBytes(body)), decoded(body));
+    }
+    assertEquals(600, decoded(bodies.get(2)).size());
+    assertEquals(300, decoded(bodies.get(3)).size());
+    assertEquals(0, decoded(bodies.get(1)).size());
+  }
+
+  /**
+   * Tests that search results without a projection are written as CBOR like the other lists.
+   */
+  @Test
+  public void testSearchesMatchJson() throws IOException {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("subject", "Art");
+    params.add("limit", "50");
+    List<Object> bodies = List.of(
+        controller.searchBooks(params).getBody(),
+        controller.searchTitles("book 1", 5, null).getBody());
+    for (Object body : bodies) {
+      assertTrue(converter.canWrite(body.getClass(), MediaType.APPLICATION_CBOR));
+      assertEquals(mapper.readTree(mapper.writeValueAsBytes(body)), decoded(body));
+    }
+    assertEquals(50, decoded(bodies.get(0)).size());
+    assertEquals(5, decoded(bodies.get(1)).size());
+  }
+
+  /**
+   * Tests that the converter only writes book bodies, only as CBOR, and that it is registered
+   * after the JSON converters so that JSON stays the default.
+   */
+  @Test
+  public void testNegotiation() {
+    Object streamed = controller.getAvailableBooks(null, null, true, null).getBody();
+    assertTrue(converter.canWrite(Book.class, MediaType.APPLICATION_CBOR));
+    assertTrue(converter.canWrite(Book.class, null));
+    assertTrue(converter.canWrite(streamed.getClass(), MediaType.ALL));
+    assertFalse(converter.canWrite(Book.class, MediaType.APPLICATION_JSON));
+    assertFalse(converter.canWrite(ArrayList.class, MediaType.APPLICATION_CBOR));
+    assertFalse(converter.canRead(Book.class, MediaType.APPLICATION_CBOR));
+
+    List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+        new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter()));
+    new ResponseCacheConfig(new BookJsonCache(service, mapper, 0), service)
+        .extendMessageConverters(converters);
+    assertEquals(4, converters.size());
+    assertTrue(converters.get(0) instanceof BookJsonConverter);
+    assertTrue(converters.get(3) instanceof BookCborConverter);
+  }
+}
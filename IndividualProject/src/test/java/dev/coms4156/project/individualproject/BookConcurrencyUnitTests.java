@@ -0,0 +1,156 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.Inventory;
+import dev.coms4156.project.individualproject.service.BookIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Multi-threaded stress tests for the inventory operations of Book and the BookIndex.
+ */
+public class BookConcurrencyUnitTests {
+
+  private static final int THREADS = 16;
+
+  /**
+   * Tests that concurrent checkouts of the same book never hand out more copies than exist.
+   */
+  @Test
+  public void testConcurrentCheckoutNeverOversells() throws Exception {
+    Book book = new Book("Popular", new ArrayList<>(), "", "", "", "", new ArrayList<>(),
+        1, 500, 500);
+
+    AtomicInteger granted = new AtomicInteger();
+    runConcurrently(() -> {
+      for (int i = 0; i < 100; i++) {
+        if (book.checkoutCopy() != null) {
+          granted.incrementAndGet();
+        }
+      }
+    });
+
+    assertEquals(500, granted.get());
+    assertEquals(0, book.getCopiesAvailable());
+    assertEquals(500, book.getReturnDates().size());
+    assertEquals(500, book.getAmountOfTimesCheckedOut());
+    assertEquals(500, book.getTotalCopies());
+  }
+
+  /**
+   * Tests that interleaved checkouts, returns and copy changes keep the counters consistent.
+   */
+  @Test
+  public void testMixedOperationsKeepInventoryConsistent() throws Exception {
+    Book book = new Book("Busy", 2);
+    AtomicInteger added = new AtomicInteger();
+    AtomicInteger deleted = new AtomicInteger();
+    runConcurrently(() -> {
+      for (int i = 0; i < 1000; i++) {
+        String due = book.checkoutCopy();
+        if (due != null) {
+          assertTrue(book.returnCopy(due));
+        }
+        book.addCopy();
+        added.incrementAndGet();
+        if (book.deleteCopy()) {
+          deleted.incrementAndGet();
+        }
+        book.getReturnDates();
+      }
+    });
+
+    assertEquals(1 + added.get() - deleted.get(), book.getTotalCopies());
+    assertEquals(book.getTotalCopies(), book.getCopiesAvailable());
+    assertTrue(book.getReturnDates().isEmpty());
+  }
+
+  /**
+   * Tests that readers never see a torn inventory while checkouts and returns run: every
+   * version read, and every JSON form written, has one due date per checked-out copy.
+   */
+  @Test
+  public void testReadersSeeConsistentVersions() throws Exception {
+    Book book = new Book("Contended", new ArrayList<>(), "", "", "", "", new ArrayList<>(),
+        1, 8, 8);
+    ObjectMapper mapper = new ObjectMapper();
+    AtomicInteger turn = new AtomicInteger();
+    runConcurrently(() -> {
+      boolean writer = turn.getAndIncrement() % 2 == 0;
+      for (int i = 0; i < 500; i++) {
+        if (writer) {
+          String due = book.checkoutCopy();
+          if (due != null) {
+            assertTrue(book.returnCopy(due));
+          }
+          continue;
+        }
+        Inventory inventory = book.getInventory();
+        assertEquals(inventory.getTotalCopies(),
+            inventory.getCopiesAvailable() + inventory.getReturnDates().size());
+        JsonNode json = mapper.valueToTree(book);
+        assertEquals(json.get("totalCopies").asInt(),
+            json.get("copiesAvailable").asInt() + json.get("returnDates").size());
+      }
+    });
+  }
+
+  /**
+   * Tests that readers always find previously inserted books while the index grows.
+   */
+  @Test
+  public void testIndexReadsDuringConcurrentInserts() throws Exception {
+    BookIndex index = new BookIndex(4);
+    int total = 20000;
+    AtomicInteger next = new AtomicInteger();
+    runConcurrently(() -> {
+      int id;
+      while ((id = next.getAndIncrement()) < total) {
+        index.put(new Book("Book " + id, id));
+        assertNotNull(index.get(id));
+        int probe = id / 2;
+        if (probe < next.get() - THREADS) {
+          index.get(probe);
+        }
+        index.toList();
+      }
+    });
+
+    assertEquals(total, index.size());
+    for (int id = 0; id < total; id++) {
+      assertEquals(id, index.get(id).getId());
+    }
+  }
+
+  private static void runConcurrently(Runnable task) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      futures.add(pool.submit(() -> {
+        start.await();
+        task.run();
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+  }
+}
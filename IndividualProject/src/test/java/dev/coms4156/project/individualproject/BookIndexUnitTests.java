@@ -0,0 +1,53 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookIndex;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BookIndex class.
+ */
+public class BookIndexUnitTests {
+
+  /**
+   * Tests that every inserted book can be found by id after the table has grown.
+   */
+  @Test
+  public void testPutAndGetAcrossResize() {
+    BookIndex index = new BookIndex(0);
+    for (int id = -50; id < 5000; id++) {
+      assertTrue(index.put(new Book("Book " + id, id)));
+    }
+    assertEquals(5050, index.size());
+    for (int id = -50; id < 5000; id++) {
+      assertEquals(id, index.get(id).getId());
+    }
+    assertNull(index.get(5000));
+  }
+
+  /**
+   * Tests that put() and replace() overwrite an existing id in place.
+   */
+  @Test
+  public void testReplaceKeepsPosition() {
+    BookIndex index = new BookIndex(4);
+    index.put(new Book("A", 0));
+    index.put(new Book("B", 7));
+
+    Book updated = new Book("B2", 7);
+    assertTrue(index.replace(updated));
+    assertFalse(index.put(new Book("A2", 0)));
+    assertFalse(index.replace(new Book("Missing", 8)));
+
+    assertEquals(2, index.size());
+    assertSame(updated, index.getAt(1));
+    assertEquals("A2", index.get(0).getTitle());
+    assertEquals("B2", index.toList().get(1).getTitle());
+  }
+}
@@ -0,0 +1,232 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.controller.BookJsonCache;
+import dev.coms4156.project.individualproject.controller.BookJsonConverter;
+import dev.coms4156.project.individualproject.controller.CacheStats;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.ServerHttpResponse;
+
+/**
+ * Unit tests for the BookJsonCache and BookJsonConverter classes.
+ */
+public class BookJsonCacheUnitTests {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private MockApiService service;
+  private BookJsonCache cache;
+  private BookJsonConverter converter;
+
+  /**
+   * A response that records what is written to it.
+   */
+  private static final class RecordedResponse implements ServerHttpResponse {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private HttpStatusCode status = HttpStatus.OK;
+
+    @Override
+    public void setStatusCode(HttpStatusCode status) {
+      this.status = status;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+
+  private static Book book(int id) {
+    return new Book("Book " + id, new ArrayList<>(List.of("Author")), "eng", "eax", "2001.",
+        "Press", new ArrayList<>(List.of("Art")), id, 2, 2);
+  }
+
+  private RecordedResponse write(Object body, String ifNoneMatch) throws IOException {
+    RecordedResponse response = new RecordedResponse();
+    converter.writeConditional(body, ifNoneMatch, response);
+    return response;
+  }
+
+  /**
+   * Sets up a small catalog with a response cache.
+   */
+  @BeforeEach
+  public void setUp() {
+    List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 50; id++) {
+      books.add(book(id));
+    }
+    service = new MockApiService(books);
+    cache = new BookJsonCache(service, mapper, 1 << 20);
+    converter = new BookJsonConverter(cache);
+  }
+
+  /**
+   * Tests that cached JSON is what Jackson writes and that repeated reads hit the cache.
+   */
+  @Test
+  public void testWritesJacksonOutput() throws IOException {
+    Book book = service.findById(7);
+    RecordedResponse first = write(book, null);
+    assertArrayEquals(mapper.writeValueAsBytes(book), first.body.toByteArray());
+    assertEquals(first.body.size(), first.headers.getContentLength());
+
+    RecordedResponse second = write(book, null);
+    assertEquals(first.headers.getETag(), second.headers.getETag());
+    CacheStats stats = cache.stats();
+    assertEquals(1, stats.misses());
+    assertEquals(1, stats.hits());
+    assertEquals(1, stats.entries());
+  }
+
+  /**
+   * Tests that a matching If-None-Match turns the response into a 304 without a body.
+   */
+  @Test
+  public void testNotModified() throws IOException {
+    Book book = service.findById(3);
+    String etag = write(book, null).headers.getETag();
+
+    RecordedResponse cached = write(book, "\"other\", W/" + etag);
+    assertEquals(HttpStatus.NOT_MODIFIED, cached.status);
+    assertEquals(0, cached.body.size());
+    assertEquals(etag, cached.headers.getETag());
+
+    assertEquals(HttpStatus.OK, write(book, "\"other\"").status);
+  }
+
+  /**
+   * Tests that every kind of inventory change and replacing a book invalidate its entry.
+   */
+  @Test
+  public void testMutationsInvalidate() throws IOException {
+    Book book = service.findById(5);
+    List<String> etags = new ArrayList<>();
+    etags.add(write(book, null).headers.getETag());
+    String due = book.checkoutCopy();
+    etags.add(write(book, null).headers.getETag());
+    book.returnCopy(due);
+    etags.add(write(book, null).headers.getETag());
+    book.addCopy();
+    etags.add(write(book, null).headers.getETag());
+    book.deleteCopy();
+    etags.add(write(book, null).headers.getETag());
+
+    Book replacement = book(5);
+    replacement.setTitle("Replaced");
+    service.updateBook(replacement);
+    RecordedResponse replaced = write(service.findById(5), null);
+    assertArrayEquals(mapper.writeValueAsBytes(replacement), replaced.body.toByteArray());
+    etags.add(replaced.headers.getETag());
+
+    for (int i = 1; i < etags.size(); i++) {
+      assertNotEquals(etags.get(i - 1), etags.get(i));
+    }
+    // Deleting the added copy restores the state, and so the tag, from before it was added.
+    assertEquals(etags.get(2), etags.get(4));
+    assertEquals(5, cache.stats().invalidations());
+  }
+
+  /**
+   * Tests that books outside the catalog are serialized but never cached.
+   */
+  @Test
+  public void testForeignBooksNotCached() throws IOException {
+    Book stale = book(9);
+    stale.setTitle("Not the catalog copy");
+    RecordedResponse response = write(stale, null);
+    assertArrayEquals(mapper.writeValueAsBytes(stale), response.body.toByteArray());
+    assertEquals(0, cache.stats().entries());
+    assertArrayEquals(mapper.writeValueAsBytes(service.findById(9)),
+        write(service.findById(9), null).body.toByteArray());
+  }
+
+  /**
+   * Tests that lists are written as Jackson would and tagged by their contents.
+   */
+  @Test
+  public void testBookLists() throws IOException {
+    RouteController controller = new RouteController(service, cache);
+    Object page = controller.getAvailableBooks(10, null, false, null).getBody();
+    RecordedResponse response = write(page, null);
+    assertArrayEquals(mapper.writeValueAsBytes(page), response.body.toByteArray());
+    assertEquals(response.body.size(), response.headers.getContentLength());
+
+    String etag = response.headers.getETag();
+    assertEquals(HttpStatus.NOT_MODIFIED, write(page, etag).status);
+    service.findById(2).addCopy();
+    assertNotEquals(etag, write(page, null).headers.getETag());
+
+    Object empty = controller.getAvailableBooks(10, 1000, false, null).getBody();
+    assertEquals("[]", write(empty, null).body.toString());
+  }
+
+  /**
+   * Tests that the cache stays within its size and that a scan does not evict hot books.
+   */
+  @Test
+  public void testEviction() throws IOException {
+    int size = mapper.writeValueAsBytes(service.findById(1)).length;
+    cache = new BookJsonCache(service, mapper, 16L * 2 * size);
+    converter = new BookJsonConverter(cache);
+    Book hot = service.findById(1);
+    write(hot, null);
+    write(hot, null);
+    for (int id = 2; id <= 50; id++) {
+      write(service.findById(id), null);
+    }
+
+    CacheStats stats = cache.stats();
+    assertTrue(stats.bytes() <= 16L * 2 * size);
+    assertTrue(stats.evictions() > 0);
+    long hits = stats.hits();
+    write(hot, null);
+    assertEquals(hits + 1, cache.stats().hits());
+  }
+
+  /**
+   * Tests that a zero size disables caching but still tags responses.
+   */
+  @Test
+  public void testDisabled() throws IOException {
+    cache = new BookJsonCache(service, mapper, 0);
+    converter = new BookJsonConverter(cache);
+    RecordedResponse response = write(service.findById(1), null);
+    assertTrue(response.headers.getETag() != null);
+    write(service.findById(1), null);
+    assertEquals(0, cache.stats().entries());
+    assertEquals(2, cache.stats().misses());
+    assertEquals(HttpStatus.NOT_FOUND, new RouteController(service).getCacheStats()
+        .getStatusCode());
+  }
+}
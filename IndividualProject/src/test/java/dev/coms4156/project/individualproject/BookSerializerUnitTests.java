@@ -0,0 +1,147 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.BookField;
+import dev.coms4156.project.individualproject.model.Inventory;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Unit tests for the BookSerializer class and the field projections of the list endpoints.
+ */
+public class BookSerializerUnitTests {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Restores the bean serialization that Book used before it had its own serializer.
+   */
+  @JsonSerialize(using = JsonSerializer.None.class)
+  @JsonPropertyOrder({"title", "authors", "language", "shelvingLocation", "publicationDate",
+      "publisher", "subjects", "id", "inventory"})
+  abstract static class ReflectiveBook {
+    @JsonIgnore(false)
+    @JsonUnwrapped
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    abstract Inventory getInventory();
+  }
+
+  private static List<Book> books() {
+    Book plain = new Book("Plain", 1);
+    Book full = new Book("Quotes \"and\" \\ slashes \u00e9\u4e2d\t", new ArrayList<>(
+        List.of("Author, One", "Author Two")), "eng", "off,glx", "2001.", "Press",
+        new ArrayList<>(List.of("Art", "History")), 2, 3, 6);
+    full.setReturnDates(new ArrayList<>(List.of("2025-05-01", "someday", "2024-12-31",
+        "2025-05-01")));
+    full.setAmountOfTimesCheckedOut(17);
+    Book nulls = new Book();
+    nulls.setTitle(null);
+    nulls.setAuthors(null);
+    nulls.setPublisher(null);
+    Book checkedOut = new Book("Out", 4);
+    checkedOut.checkoutCopy();
+    return List.of(plain, full, nulls, checkedOut);
+  }
+
+  /**
+   * Tests that the serializer writes exactly the bytes that bean serialization wrote, and that
+   * the JSON can still be read back.
+   */
+  @Test
+  public void testSameBytesAsBeanSerialization() throws Exception {
+    ObjectMapper reflective = new ObjectMapper().addMixIn(Book.class, ReflectiveBook.class);
+    for (Book book : books()) {
+      byte[] json = mapper.writeValueAsBytes(book);
+      assertArrayEquals(reflective.writeValueAsBytes(book), json);
+      assertArrayEquals(json, mapper.writeValueAsBytes(mapper.readValue(json, Book.class)));
+    }
+    assertEquals(reflective.writeValueAsString(books()), mapper.writeValueAsString(books()));
+  }
+
+  /**
+   * Tests that projections keep the usual field order and reject unknown names.
+   */
+  @Test
+  public void testParseFields() {
+    assertEquals(EnumSet.of(BookField.TITLE, BookField.COPIES_AVAILABLE),
+        BookField.parse("copiesAvailable, title,,title"));
+    assertThrows(IllegalArgumentException.class, () -> BookField.parse("title,isbn"));
+    assertThrows(IllegalArgumentException.class, () -> BookField.parse(" , "));
+    assertEquals(Arrays.asList(BookField.values()).size(),
+        BookField.parse("title,authors,language,shelvingLocation,publicationDate,publisher,"
+            + "subjects,id,amountOfTimesCheckedOut,copiesAvailable,returnDates,totalCopies")
+            .size());
+  }
+
+  /**
+   * Tests that the list endpoints write only the requested fields.
+   */
+  @Test
+  public void testProjectedEndpoints() throws Exception {
+    List<Book> catalog = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      catalog.add(new Book("Book " + id, new ArrayList<>(), "eng", "", "", "",
+          new ArrayList<>(), id, 1, 1));
+    }
+    RouteController controller = new RouteController(new MockApiService(catalog));
+
+    ResponseEntity<?> page = controller.getAvailableBooks(2, 5, false, "copiesAvailable,id");
+    assertEquals("[{\"id\":6,\"copiesAvailable\":1},{\"id\":7,\"copiesAvailable\":1}]",
+        mapper.writeValueAsString(page.getBody()));
+    assertEquals("</books/available?limit=2&after=7&fields=copiesAvailable%2Cid>; rel=\"next\"",
+        page.getHeaders().getFirst("Link"));
+    assertEquals("</books/available?limit=2&after=7&fields=%20id%2C%20title%20>; rel=\"next\"",
+        controller.getAvailableBooks(2, 5, false, " id, title ").getHeaders().getFirst("Link"));
+    assertEquals("[{\"title\":\"Book 1\"}]", mapper.writeValueAsString(
+        controller.getAvailableBooks(1, null, true, "title").getBody()));
+
+    assertEquals("[{\"title\":\"Book 12\"}]",
+        mapper.writeValueAsString(controller.searchTitles("book 12", 1, "title").getBody()));
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("language", "eng");
+    params.add("limit", "1");
+    params.add("fields", "id");
+    assertEquals("[{\"id\":1}]",
+        mapper.writeValueAsString(controller.searchBooks(params).getBody()));
+    assertEquals(4, mapper.readTree(mapper.writeValueAsString(
+        controller.getRecommendations(2, 1L, "id").getBody())).size());
+
+    ResponseEntity<StreamingResponseBody> stream =
+        controller.streamAvailableBooks(2, 18, "id,totalCopies");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    stream.getBody().writeTo(out);
+    assertEquals("{\"id\":19,\"totalCopies\":1}\n{\"id\":20,\"totalCopies\":1}\n",
+        out.toString());
+
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.getAvailableBooks(2, null, false, "isbn").getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.searchTitles("book", 1, "").getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.getRecommendations(2, 1L, "isbn").getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.streamAvailableBooks(2, null, "isbn").getStatusCode());
+  }
+}
@@ -1,9 +1,11 @@
 package dev.coms4156.project.individualproject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import dev.coms4156.project.individualproject.model.Book;
 import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -214,4 +216,57 @@ public class BookUnitTests {
     assertEquals(false, b.hasMultipleAuthors());
   }
 
+  /**
+   * Tests that repeated strings from separately built books share one instance.
+   */
+
+  @Test
+  public void testRepeatedStringsAreShared() {
+    Book first = new Book("First", 81);
+    Book second = new Book("Second", 82);
+    first.setPublisher(new String("Columbia University Press"));
+    second.setPublisher(new String("Columbia University Press"));
+    first.setAuthors(new ArrayList<>(List.of(new String("Munjal"))));
+    second.setAuthors(new ArrayList<>(List.of(new String("Munjal"))));
+    assertSame(first.getPublisher(), second.getPublisher());
+    assertSame(first.getAuthors().get(0), second.getAuthors().get(0));
+  }
+
+  /**
+   * Tests that due dates keep their JSON form, duplicates and non-ISO values included.
+   */
+
+  @Test
+  public void testReturnDatesRoundTrip() {
+    Book b = new Book("Dates", 83);
+    b.setTotalCopies(4);
+    b.setReturnDates(new ArrayList<>(List.of("2025-04-19", "someday", "2025-04-19")));
+    assertEquals(List.of("2025-04-19", "2025-04-19", "someday"), b.getReturnDates());
+    assertEquals(true, b.returnCopy("2025-04-19"));
+    assertEquals(true, b.returnCopy("someday"));
+    assertEquals(false, b.returnCopy("2025-4-19"));
+    assertEquals(List.of("2025-04-19"), b.getReturnDates());
+  }
+
+  /**
+   * Tests that many loans spread over many days are matched and removed in any order.
+   */
+
+  @Test
+  public void testManyLoansReturnedInAnyOrder() {
+    Book b = new Book("Popular", 84);
+    ArrayList<String> dates = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      dates.add(java.time.LocalDate.of(2025, 1, 1).plusDays(i % 97).toString());
+    }
+    b.setTotalCopies(dates.size());
+    b.setReturnDates(dates);
+    java.util.Collections.shuffle(dates, new java.util.Random(7));
+    for (String date : dates) {
+      assertEquals(true, b.returnCopy(date));
+    }
+    assertEquals(false, b.returnCopy("2025-01-01"));
+    assertEquals(List.of(), b.getReturnDates());
+  }
+
 }
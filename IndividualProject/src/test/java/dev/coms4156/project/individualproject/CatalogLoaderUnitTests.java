@@ -0,0 +1,105 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogLoadStats;
+import dev.coms4156.project.individualproject.service.CatalogLoader;
+import dev.coms4156.project.individualproject.service.CatalogProperties;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CatalogLoader class and the loading modes of MockApiService.
+ */
+public class CatalogLoaderUnitTests {
+
+  private static byte[] catalog;
+
+  /**
+   * Serializes a catalog of 5000 books to load in the tests.
+   */
+  @BeforeAll
+  public static void setUpCatalog() throws IOException {
+    List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 5000; id++) {
+      Book book = new Book("Book " + id, id);
+      book.setLanguage(id % 2 == 0 ? "eng" : "fre");
+      books.add(book);
+    }
+    catalog = new ObjectMapper().writeValueAsBytes(books);
+  }
+
+  /**
+   * Tests that sequential and parallel loads deliver every book in file order.
+   */
+  @Test
+  public void testSequentialAndParallelLoadsPreserveOrder() throws IOException {
+    for (int threads : new int[] {1, 4}) {
+      List<Book> loaded = new ArrayList<>();
+      CatalogLoadStats stats = new CatalogLoader(threads, 64)
+          .load(new ByteArrayInputStream(catalog), loaded::add);
+      assertEquals(5000, stats.books());
+      assertEquals(5000, loaded.size());
+      for (int i = 0; i < loaded.size(); i++) {
+        assertEquals(i + 1, loaded.get(i).getId());
+      }
+      assertEquals("eng", loaded.get(1).getLanguage());
+    }
+  }
+
+  /**
+   * Tests that input which is not a JSON array of books is rejected.
+   */
+  @Test
+  public void testMalformedInputFails() {
+    byte[] notArray = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+    assertThrows(IOException.class, () -> new CatalogLoader(1, 16)
+        .load(new ByteArrayInputStream(notArray), book -> { }));
+    byte[] truncated = "[{\"id\": 1}, {\"id\": ".getBytes(StandardCharsets.UTF_8);
+    assertThrows(IOException.class, () -> new CatalogLoader(4, 1)
+        .load(new ByteArrayInputStream(truncated), book -> { }));
+  }
+
+  /**
+   * Tests that a fast-start service becomes usable and ends up with the whole catalog.
+   */
+  @Test
+  public void testFastStartLoadsFileInBackground() throws Exception {
+    Path file = Files.createTempFile("books", ".json");
+    try {
+      Files.write(file, catalog);
+      CatalogProperties properties = new CatalogProperties();
+      properties.setSource(file.toString());
+      properties.setFastStart(true);
+      properties.setLoadThreads(2);
+      properties.setLoadChunkSize(100);
+
+      MockApiService service = new MockApiService(properties);
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (service.isLoading() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+
+      assertFalse(service.isLoading());
+      assertEquals(5000, service.getBookCount());
+      assertNotNull(service.findById(4321));
+      assertTrue(service.getLoadStats().booksPerSecond() > 0);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.CatalogSampler;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CatalogSampler class.
+ */
+public class CatalogSamplerUnitTests {
+
+  /**
+   * Tests that samples are distinct, in range and never contain an excluded position.
+   */
+  @Test
+  public void testSampleIsDistinctAndSkipsExcluded() {
+    int[] excluded = {0, 5, 9, 5, 42};
+    for (int trial = 0; trial < 1000; trial++) {
+      int[] sample = CatalogSampler.sample(10, excluded, 7, ThreadLocalRandom.current());
+      Set<Integer> seen = new HashSet<>();
+      for (int p : sample) {
+        assertTrue(p >= 0 && p < 10);
+        assertFalse(p == 0 || p == 5 || p == 9);
+        assertTrue(seen.add(p));
+      }
+    }
+  }
+
+  /**
+   * Tests that drawing every eligible position returns exactly those positions.
+   */
+  @Test
+  public void testSampleAllEligible() {
+    int[] sample = CatalogSampler.sample(6, new int[] {4, 1}, 4, new SplittableRandom(1));
+    Arrays.sort(sample);
+    assertArrayEquals(new int[] {0, 2, 3, 5}, sample);
+    assertThrows(IllegalArgumentException.class,
+        () -> CatalogSampler.sample(6, new int[] {4, 1}, 5, new SplittableRandom(1)));
+  }
+
+  /**
+   * Tests that the same seed produces the same sample and that draws are roughly uniform.
+   */
+  @Test
+  public void testSeededAndUniform() {
+    assertArrayEquals(CatalogSampler.sample(1000, new int[0], 5, new SplittableRandom(7)),
+        CatalogSampler.sample(1000, new int[0], 5, new SplittableRandom(7)));
+
+    int[] hits = new int[5];
+    SplittableRandom random = new SplittableRandom(3);
+    for (int trial = 0; trial < 50000; trial++) {
+      for (int p : CatalogSampler.sample(6, new int[] {2}, 2, random)) {
+        hits[p > 2 ? p - 1 : p]++;
+      }
+    }
+    for (int count : hits) {
+      assertEquals(20000, count, 1000);
+    }
+  }
+}
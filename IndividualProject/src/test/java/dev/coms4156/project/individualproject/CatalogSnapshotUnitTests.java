@@ -0,0 +1,152 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogProperties;
+import dev.coms4156.project.individualproject.service.CatalogSnapshot;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CatalogSnapshot class and snapshot restarts of MockApiService.
+ */
+public class CatalogSnapshotUnitTests {
+
+  private Path dir;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("snapshot");
+  }
+
+  /**
+   * Deletes the files written by a test.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    try (var files = Files.list(dir)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dir);
+  }
+
+  /**
+   * Tests that every field of every book survives a write and read.
+   */
+  @Test
+  public void testRoundTripPreservesBooks() throws IOException {
+    Book full = new Book("Qurneh /", new ArrayList<>(Arrays.asList("Petrie, W. M.", "Walker")),
+        "eng", "off,utn", "1909.", "School of Archaeology", new ArrayList<>(List.of("Tombs")),
+        3, 3, 4);
+    full.checkoutCopy();
+    full.setReturnDates(new ArrayList<>(Arrays.asList("2025-04-19", "not a date", "2025-04-19")));
+    full.setAmountOfTimesCheckedOut(8);
+    Book sparse = new Book("Sparse", 4);
+    sparse.setAuthors(null);
+    sparse.setPublisher(null);
+
+    Path file = dir.resolve("catalog.snap");
+    CatalogSnapshot.write(file, List.of(full, sparse), 7L);
+    List<Book> restored = new ArrayList<>();
+    assertEquals(2, CatalogSnapshot.read(file, 7L, restored::add).books());
+
+    Book copy = restored.get(0);
+    assertEquals(full.getTitle(), copy.getTitle());
+    assertEquals(full.getAuthors(), copy.getAuthors());
+    assertEquals(full.getLanguage(), copy.getLanguage());
+    assertEquals(full.getShelvingLocation(), copy.getShelvingLocation());
+    assertEquals(full.getPublicationDate(), copy.getPublicationDate());
+    assertEquals(full.getPublisher(), copy.getPublisher());
+    assertEquals(full.getSubjects(), copy.getSubjects());
+    assertEquals(3, copy.getId());
+    assertEquals(8, copy.getAmountOfTimesCheckedOut());
+    assertEquals(2, copy.getCopiesAvailable());
+    assertEquals(4, copy.getTotalCopies());
+    assertEquals(full.getReturnDates(), copy.getReturnDates());
+    assertNull(restored.get(1).getAuthors());
+    assertNull(restored.get(1).getPublisher());
+  }
+
+  /**
+   * Tests that corrupted, foreign and stale snapshots are rejected before delivering books.
+   */
+  @Test
+  public void testInvalidSnapshotsAreRejected() throws IOException {
+    Path file = dir.resolve("catalog.snap");
+    CatalogSnapshot.write(file, List.of(new Book("A", 1), new Book("B", 2)), 7L);
+    List<Book> restored = new ArrayList<>();
+
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(file, 8L, restored::add));
+
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(file, 7L, restored::add));
+
+    Files.write(file, Arrays.copyOf(bytes, 20));
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(file, 7L, restored::add));
+    assertTrue(restored.isEmpty());
+  }
+
+  /**
+   * Tests that the service writes a snapshot after a JSON load and restores from it next time.
+   */
+  @Test
+  public void testServiceRestartsFromSnapshot() throws IOException {
+    Path snapshot = dir.resolve("books.snap");
+    CatalogProperties properties = new CatalogProperties();
+    properties.setSnapshot(snapshot.toString());
+
+    MockApiService first = new MockApiService(properties);
+    assertTrue(Files.exists(snapshot));
+    first.findById(4).checkoutCopy();
+    first.writeSnapshot(snapshot);
+
+    MockApiService second = new MockApiService(properties);
+    assertEquals(first.getBookCount(), second.getBookCount());
+    assertEquals(first.findById(4).getCopiesAvailable(),
+        second.findById(4).getCopiesAvailable());
+    assertEquals(first.findById(4).getReturnDates(), second.findById(4).getReturnDates());
+  }
+
+  /**
+   * Tests that a snapshot whose checksum is valid but whose book count is wrong is ignored,
+   * and that the service then loads the whole catalog from JSON without any restored book.
+   */
+  @Test
+  public void testMalformedSnapshotFallsBackToJson() throws IOException {
+    Path snapshot = dir.resolve("books.snap");
+    CatalogProperties properties = new CatalogProperties();
+    properties.setSnapshot(snapshot.toString());
+
+    MockApiService first = new MockApiService(properties);
+    int available = first.findById(4).getCopiesAvailable();
+    first.findById(4).checkoutCopy();
+    first.writeSnapshot(snapshot);
+    // The book count sits in the header, outside the checksum.
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, first.getBookCount() + 1000), 12);
+    }
+
+    MockApiService second = new MockApiService(properties);
+    assertEquals(first.getBookCount(), second.getBookCount());
+    assertEquals(available, second.findById(4).getCopiesAvailable());
+  }
+}
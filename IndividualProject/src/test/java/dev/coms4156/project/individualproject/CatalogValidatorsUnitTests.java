@@ -0,0 +1,225 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.controller.BookJsonCache;
+import dev.coms4156.project.individualproject.controller.BookJsonConverter;
+import dev.coms4156.project.individualproject.controller.CatalogValidators;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+/**
+ * Unit tests for the catalog version of MockApiService and the CatalogValidators class.
+ */
+public class CatalogValidatorsUnitTests {
+
+  private MockApiService service;
+  private ManualClock clock;
+  private CatalogValidators validators;
+
+  /**
+   * A clock that only moves when told to.
+   */
+  private static final class ManualClock extends Clock {
+    private Instant now;
+
+    ManualClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static Book book(int id) {
+    return new Book("Book " + id, new ArrayList<>(List.of("Author")), "eng", "eax", "2001.",
+        "Press", new ArrayList<>(List.of("Art")), id, 2, 2);
+  }
+
+  /**
+   * Sets up a small catalog and validators on a manual clock.
+   */
+  @BeforeEach
+  public void setUp() {
+    List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      books.add(book(id));
+    }
+    service = new MockApiService(books);
+    clock = new ManualClock(Instant.parse("2025-05-01T10:00:00.250Z"));
+    validators = new CatalogValidators(service, clock);
+  }
+
+  /**
+   * Tests that every kind of change moves the catalog version and that reads do not.
+   */
+  @Test
+  public void testVersionFollowsChanges() {
+    List<Long> versions = new ArrayList<>();
+    versions.add(service.getVersion());
+    Book book = service.findById(4);
+    String due = book.checkoutCopy();
+    versions.add(service.getVersion());
+    book.returnCopy(due);
+    versions.add(service.getVersion());
+    book.addCopy();
+    versions.add(service.getVersion());
+    book.deleteCopy();
+    versions.add(service.getVersion());
+    service.updateBook(book(4));
+    versions.add(service.getVersion());
+
+    for (int i = 1; i < versions.size(); i++) {
+      assertTrue(versions.get(i) > versions.get(i - 1));
+    }
+    service.getAvailableBooks(null);
+    service.searchTitles("book", 5);
+    assertEquals(versions.get(versions.size() - 1).longValue(), service.getVersion());
+  }
+
+  /**
+   * Tests that an unchanged catalog keeps its validators and a change replaces them.
+   */
+  @Test
+  public void testStampTracksVersion() {
+    CatalogValidators.Stamp first = validators.current();
+    assertTrue(first.etag().startsWith("W/\""));
+    assertEquals(Instant.parse("2025-05-01T10:00:00Z").toEpochMilli(), first.lastModified());
+    clock.advance(Duration.ofMinutes(5));
+    assertSame(first, validators.current());
+
+    service.findById(1).checkoutCopy();
+    CatalogValidators.Stamp second = validators.current();
+    assertNotEquals(first.etag(), second.etag());
+    assertEquals(Instant.parse("2025-05-01T10:05:00Z").toEpochMilli(), second.lastModified());
+    assertSame(second, validators.current());
+  }
+
+  /**
+   * Tests that versions served within a second already dated are left undated until the clock
+   * reaches the next second, so that If-Modified-Since alone never confirms a changed list.
+   */
+  @Test
+  public void testChangesWithinOneSecond() {
+    long first = validators.current().lastModified();
+    service.findById(2).addCopy();
+    assertEquals(-1, validators.current().lastModified());
+    clock.advance(Duration.ofMillis(300));
+    service.findById(3).checkoutCopy();
+    CatalogValidators.Stamp third = validators.current();
+    assertEquals(-1, third.lastModified());
+    assertSame(third, validators.current());
+
+    clock.advance(Duration.ofMillis(500));
+    CatalogValidators.Stamp dated = validators.current();
+    assertEquals(third.etag(), dated.etag());
+    assertEquals(first + 1000, dated.lastModified());
+    assertSame(dated, validators.current());
+
+    clock.advance(Duration.ofMinutes(1));
+    service.findById(4).addCopy();
+    assertEquals(Instant.parse("2025-05-01T10:01:01Z").toEpochMilli(),
+        validators.current().lastModified());
+  }
+
+  /**
+   * Tests that many changes a second never date a version later than the clock, and never give
+   * two versions the same date.
+   */
+  @Test
+  public void testManyChangesNeverRunAhead() {
+    long latest = validators.current().lastModified();
+    for (int i = 0; i < 500; i++) {
+      clock.advance(Duration.ofMillis(7));
+      service.findById(1 + i % 20).addCopy();
+      long lastModified = validators.current().lastModified();
+      assertTrue(lastModified <= clock.millis());
+      if (lastModified >= 0) {
+        assertTrue(lastModified > latest);
+        latest = lastModified;
+      }
+    }
+    assertEquals(clock.millis() / 1000 * 1000, latest);
+  }
+
+  /**
+   * Tests that dates never go backwards when the clock does, and that a restarted service
+   * never reuses the tags of the previous run.
+   */
+  @Test
+  public void testDatesAndRestarts() {
+    clock.advance(Duration.ofHours(-1));
+    service.findById(2).addCopy();
+    assertEquals(-1, validators.current().lastModified());
+
+    clock.advance(Duration.ofHours(2));
+    assertEquals(Instant.parse("2025-05-01T11:00:00Z").toEpochMilli(),
+        validators.current().lastModified());
+    CatalogValidators restarted = new CatalogValidators(service, clock);
+    assertEquals(validators.current().version(), restarted.current().version());
+    assertNotEquals(validators.current().etag(), restarted.current().etag());
+  }
+
+  /**
+   * Tests that a page already tagged with the catalog version is written with that tag rather
+   * than one computed from its books.
+   */
+  @Test
+  public void testConverterKeepsCatalogTag() throws IOException {
+    Object page = new RouteController(service).getAvailableBooks(10, null, false, null).getBody();
+    HttpHeaders headers = new HttpHeaders();
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    headers.setETag(validators.current().etag());
+    HttpOutputMessage message = new HttpOutputMessage() {
+      @Override
+      public OutputStream getBody() {
+        return body;
+      }
+
+      @Override
+      public HttpHeaders getHeaders() {
+        return headers;
+      }
+    };
+    ObjectMapper mapper = new ObjectMapper();
+    new BookJsonConverter(new BookJsonCache(service, mapper, 1 << 20))
+        .writeConditional(page, validators.current().etag(), message);
+    assertEquals(validators.current().etag(), headers.getETag());
+    assertEquals(mapper.writeValueAsString(page), body.toString());
+  }
+}
@@ -0,0 +1,152 @@
+package dev.coms4156.project.individualproject;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A minimal CBOR (RFC 8949) decoder for tests and benchmarks. It reads integers, text strings,
+ * arrays and maps of definite or indefinite length, and the simple values {@code false},
+ * {@code true} and {@code null} into a Jackson tree, so that a CBOR response can be compared
+ * with the tree Jackson parses from the JSON one.
+ */
+public final class CborDecoder {
+
+  private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+  private static final int BREAK = 0xFF;
+
+  private final byte[] data;
+  private int position;
+
+  private CborDecoder(byte[] data) {
+    this.data = data;
+  }
+
+  /**
+   * Decodes a single CBOR data item.
+   *
+   * @param data The encoded item.
+   * @return The item as a tree.
+   * @throws IllegalArgumentException If the data is not one well-formed item of a supported
+   *     type.
+   */
+  public static JsonNode decode(byte[] data) {
+    CborDecoder decoder = new CborDecoder(data);
+    JsonNode node = decoder.item();
+    if (decoder.position != data.length) {
+      throw new IllegalArgumentException("Trailing bytes at offset " + decoder.position);
+    }
+    return node;
+  }
+
+  private JsonNode item() {
+    int initial = next();
+    int major = initial >>> 5;
+    int info = initial & 0x1F;
+    switch (major) {
+      case 0:
+        return number(argument(info));
+      case 1:
+        return number(-1 - argument(info));
+      case 3:
+        return text(info);
+      case 4:
+        return array(info);
+      case 5:
+        return map(info);
+      case 7:
+        return simple(info);
+      default:
+        throw new IllegalArgumentException("Unsupported major type " + major);
+    }
+  }
+
+  /**
+   * Returns an int node for values that fit, as Jackson's JSON parser does.
+   */
+  private static JsonNode number(long value) {
+    return value == (int) value ? NODES.numberNode((int) value) : NODES.numberNode(value);
+  }
+
+  private JsonNode text(int info) {
+    int length = length(info);
+    String value = new String(data, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return NODES.textNode(value);
+  }
+
+  private JsonNode array(int info) {
+    ArrayNode array = NODES.arrayNode();
+    if (info == 31) {
+      while ((data[position] & 0xFF) != BREAK) {
+        array.add(item());
+      }
+      position++;
+      return array;
+    }
+    for (long i = argument(info); i > 0; i--) {
+      array.add(item());
+    }
+    return array;
+  }
+
+  private JsonNode map(int info) {
+    if (info == 31) {
+      throw new IllegalArgumentException("Maps of indefinite length are not supported");
+    }
+    ObjectNode map = NODES.objectNode();
+    for (long i = argument(info); i > 0; i--) {
+      JsonNode key = item();
+      if (!key.isTextual()) {
+        throw new IllegalArgumentException("Map keys must be text strings");
+      }
+      map.set(key.textValue(), item());
+    }
+    return map;
+  }
+
+  private JsonNode simple(int info) {
+    switch (info) {
+      case 20:
+        return NODES.booleanNode(false);
+      case 21:
+        return NODES.booleanNode(true);
+      case 22:
+        return NODES.nullNode();
+      default:
+        throw new IllegalArgumentException("Unsupported simple value " + info);
+    }
+  }
+
+  private int length(int info) {
+    long length = argument(info);
+    if (length > data.length - position) {
+      throw new IllegalArgumentException("Truncated string at offset " + position);
+    }
+    return (int) length;
+  }
+
+  private long argument(int info) {
+    if (info < 24) {
+      return info;
+    }
+    if (info > 27) {
+      throw new IllegalArgumentException("Unsupported additional information " + info);
+    }
+    int bytes = 1 << (info - 24);
+    long value = 0;
+    for (int i = 0; i < bytes; i++) {
+      value = value << 8 | next();
+    }
+    return value;
+  }
+
+  private int next() {
+    if (position >= data.length) {
+      throw new IllegalArgumentException("Truncated item");
+    }
+    return data[position++] & 0xFF;
+  }
+}
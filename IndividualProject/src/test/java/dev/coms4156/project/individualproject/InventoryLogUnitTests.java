@@ -0,0 +1,224 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogProperties;
+import dev.coms4156.project.individualproject.service.InventoryLog;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Unit tests for the InventoryLog class and inventory recovery in MockApiService.
+ */
+public class InventoryLogUnitTests {
+
+  private Path dir;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("wal");
+  }
+
+  /**
+   * Deletes the log directory of a test.
+   */
+  @AfterEach
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Tests that replay keeps the last logged state of each book.
+   */
+  @Test
+  public void testReplayKeepsLastState() throws IOException {
+    Book book = new Book("Logged", 7);
+    try (InventoryLog log = InventoryLog.open(dir)) {
+      book.checkoutCopy();
+      log.append(book);
+      book.addCopy();
+      log.append(book);
+      assertTrue(log.awaitDurable());
+    }
+
+    Map<Integer, InventoryLog.Entry> states = InventoryLog.replay(dir);
+    assertEquals(1, states.size());
+    Book recovered = new Book("Logged", 7);
+    states.get(7).applyTo(recovered);
+    assertEquals(1, recovered.getAmountOfTimesCheckedOut());
+    assertEquals(1, recovered.getCopiesAvailable());
+    assertEquals(2, recovered.getTotalCopies());
+    assertEquals(book.getReturnDates(), recovered.getReturnDates());
+  }
+
+  /**
+   * Tests that due dates, including ones that are not ISO-8601 dates, are recovered, and that
+   * records of a popular book do not grow with its loans when they fall on the same days.
+   */
+  @Test
+  public void testRecordsGrowWithDistinctDueDays() throws IOException {
+    Book book = new Book("Popular", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 3,
+        2000, 2000);
+    book.setReturnDates(new ArrayList<>(List.of("2025-05-01", "someday", "2025-04-30")));
+    long[] sizes = new long[3];
+    try (InventoryLog log = InventoryLog.open(dir)) {
+      for (int i = 0; i < sizes.length; i++) {
+        for (int n = 0; n < 500; n++) {
+          book.checkoutCopy();
+          log.append(book);
+        }
+        assertTrue(log.awaitDurable());
+        sizes[i] = log.segmentSize();
+      }
+    }
+    assertEquals(sizes[1] - sizes[0], sizes[2] - sizes[1]);
+
+    Book recovered = new Book("Popular", 3);
+    InventoryLog.replay(dir).get(3).applyTo(recovered);
+    assertEquals(book.getReturnDates(), recovered.getReturnDates());
+    assertEquals(1503, recovered.getReturnDates().size());
+    assertEquals(book.getCopiesAvailable(), recovered.getCopiesAvailable());
+  }
+
+  /**
+   * Tests that a record torn by a crash is ignored together with anything after it.
+   */
+  @Test
+  public void testReplayIgnoresTornRecord() throws IOException {
+    try (InventoryLog log = InventoryLog.open(dir)) {
+      log.append(new Book("First", 1));
+      log.append(new Book("Second", 2));
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(dir)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    assertEquals(2, InventoryLog.replay(dir).size());
+  }
+
+  /**
+   * Tests that a record without the current format version, as written before records carried
+   * one, ends replay even though its checksum is valid.
+   */
+  @Test
+  public void testReplayIgnoresUnversionedRecord() throws IOException {
+    try (InventoryLog log = InventoryLog.open(dir)) {
+      log.append(new Book("First", 1));
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(dir)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    ByteBuffer record = ByteBuffer.allocate(24).putInt(2).putInt(0).putInt(1).putInt(1);
+    CRC32 crc = new CRC32();
+    crc.update(record.array());
+    ByteBuffer frame = ByteBuffer.allocate(32).putInt(24).putInt((int) crc.getValue())
+        .put(record.array());
+    Files.write(segment, frame.array(), StandardOpenOption.APPEND);
+
+    assertEquals(List.of(1), List.copyOf(InventoryLog.replay(dir).keySet()));
+  }
+
+  /**
+   * Tests that once the log is closed a change is refused before it is made in memory, and
+   * that the controller answers it with HTTP 503.
+   */
+  @Test
+  public void testClosedLogRefusesChanges() throws IOException {
+    CatalogProperties properties = new CatalogProperties();
+    properties.setWal(dir.toString());
+    MockApiService service = new MockApiService(properties);
+    Book book = service.getBooks().stream().filter(Book::hasCopies).findFirst().orElseThrow();
+    int id = book.getId();
+    int available = book.getCopiesAvailable();
+    service.close();
+
+    assertThrows(IllegalStateException.class, () -> book.checkoutCopy());
+    assertThrows(IllegalStateException.class, () -> book.addCopies(2));
+    assertThrows(IllegalStateException.class, () -> service.update(new Book("New", id)));
+    assertEquals(available, book.getCopiesAvailable());
+    assertSame(book, service.findById(id));
+
+    RouteController controller = new RouteController(service);
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.checkoutBook(id).getStatusCode());
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+        controller.addCopies(Map.of(id, 1)).getStatusCode());
+    assertEquals(available, book.getCopiesAvailable());
+  }
+
+  /**
+   * Tests that concurrent checkouts are all durable once acknowledged and survive a restart,
+   * both before and after the log has been compacted into a snapshot.
+   */
+  @Test
+  public void testServiceRecoversCheckouts() throws Exception {
+    CatalogProperties properties = new CatalogProperties();
+    properties.setWal(dir.toString());
+    MockApiService first = new MockApiService(properties);
+    List<Book> books = first.getBooks();
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (Book book : books) {
+      results.add(pool.submit(() -> {
+        book.checkoutCopy();
+        return first.awaitDurable();
+      }));
+    }
+    for (Future<Boolean> result : results) {
+      assertTrue(result.get());
+    }
+    pool.shutdown();
+    first.close();
+
+    MockApiService second = new MockApiService(properties);
+    assertInventoryEquals(books, second);
+    second.checkpoint();
+    second.close();
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(2, files.count());
+    }
+
+    MockApiService third = new MockApiService(properties);
+    assertInventoryEquals(books, third);
+    third.close();
+  }
+
+  private static void assertInventoryEquals(List<Book> expected, MockApiService service) {
+    assertEquals(expected.size(), service.getBookCount());
+    for (Book book : expected) {
+      Book recovered = service.findById(book.getId());
+      assertEquals(book.getAmountOfTimesCheckedOut(), recovered.getAmountOfTimesCheckedOut());
+      assertEquals(book.getCopiesAvailable(), recovered.getCopiesAvailable());
+      assertEquals(book.getReturnDates(), recovered.getReturnDates());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LoanCalendar class, run on clocks the tests control.
+ */
+public class LoanCalendarUnitTests {
+
+  private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+  /**
+   * A clock that only moves when a test advances it.
+   */
+  private static final class ManualClock extends Clock {
+    private Instant now;
+
+    ManualClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZONE;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private static Instant at(String dateTime) {
+    return LocalDateTime.parse(dateTime).atZone(ZONE).toInstant();
+  }
+
+  private static Book book(int id, String shelvingLocation) {
+    return new Book("Book " + id, new ArrayList<>(), "", shelvingLocation, "", "",
+        new ArrayList<>(), id, 5, 5);
+  }
+
+  /**
+   * Tests that book periods override location periods, which override the default.
+   */
+  @Test
+  public void testLoanPeriods() {
+    LoanCalendar calendar = new LoanCalendar(Clock.fixed(at("2025-03-10T09:00"), ZONE), 14,
+        Map.of("glx", 7, "ref", 0), Map.of(42, 3, 7, 28));
+    assertEquals(LocalDate.of(2025, 3, 10).toEpochDay(), calendar.today());
+    assertEquals(14, calendar.loanDays(book(1, "off,glx")));
+    assertEquals(7, calendar.loanDays(book(1, "glx")));
+    assertEquals(0, calendar.loanDays(book(2, "ref")));
+    assertEquals(3, calendar.loanDays(book(42, "glx")));
+    assertEquals(28, calendar.loanDays(book(7, "")));
+    assertEquals("2025-03-13", LoanCalendar.format(calendar.dueDay(book(42, ""))));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoanCalendar(Clock.systemUTC(), 14, Map.of(), Map.of(1, -1)));
+  }
+
+  /**
+   * Tests that the dates around the current day are formatted once and shared.
+   */
+  @Test
+  public void testDueDatesAreShared() {
+    LoanCalendar calendar = new LoanCalendar(Clock.fixed(at("2025-12-25T12:00"), ZONE), 14,
+        Map.of(), Map.of());
+    String due = LoanCalendar.format(calendar.today() + 14);
+    assertEquals("2026-01-08", due);
+    assertSame(due, LoanCalendar.format(calendar.today() + 14));
+    assertEquals("2026-01-09", LoanCalendar.format(calendar.today() + 15));
+    assertEquals("2025-12-24", LoanCalendar.format(calendar.today() - 1));
+    assertEquals("2020-01-01", LoanCalendar.format((int) LocalDate.of(2020, 1, 1).toEpochDay()));
+    assertEquals(LocalDate.ofEpochDay(Integer.MIN_VALUE).toString(),
+        LoanCalendar.format(Integer.MIN_VALUE));
+  }
+
+  /**
+   * Tests that the calendar moves to the next day at midnight in the clock's zone, including
+   * across a daylight saving change, and back if the clock is set back.
+   */
+  @Test
+  public void testMidnight() {
+    ManualClock clock = new ManualClock(at("2025-03-08T23:59:59"));
+    LoanCalendar calendar = new LoanCalendar(clock, 14, Map.of(), Map.of());
+    assertEquals(1000, calendar.millisUntilTomorrow());
+    String before = LoanCalendar.format(calendar.today() + 14);
+    assertEquals("2025-03-22", before);
+
+    clock.advance(Duration.ofSeconds(1));
+    assertEquals(LocalDate.of(2025, 3, 9).toEpochDay(), calendar.today());
+    assertEquals("2025-03-23", LoanCalendar.format(calendar.today() + 14));
+    // The clocks go forward on March 9, so that day is 23 hours long.
+    assertEquals(Duration.ofHours(23).toMillis(), calendar.millisUntilTomorrow());
+
+    clock.advance(Duration.ofHours(-1));
+    assertEquals(LocalDate.of(2025, 3, 8).toEpochDay(), calendar.today());
+  }
+
+  /**
+   * Tests that checkouts are dated by the calendar they are given.
+   */
+  @Test
+  public void testCheckoutUsesGivenCalendar() {
+    LoanCalendar calendar = new LoanCalendar(Clock.fixed(at("2025-06-01T10:00"), ZONE), 14,
+        Map.of("glx", 7), Map.of());
+    Book book = book(3, "glx");
+    assertEquals("2025-06-08", book.checkoutCopy(calendar));
+    assertEquals(List.of("2025-06-08", "2025-06-08"), book.checkoutCopies(2, calendar));
+    assertEquals(List.of("2025-06-08", "2025-06-08", "2025-06-08"), book.getReturnDates());
+    assertEquals("2025-06-15", book(4, "").checkoutCopy(calendar));
+  }
+
+  /**
+   * Tests that each service keeps its own calendar, so building another service does not
+   * change how the first one dates its loans.
+   */
+  @Test
+  public void testServicesKeepTheirCalendars() {
+    LoanCalendar weekly = new LoanCalendar(Clock.fixed(at("2025-06-01T10:00"), ZONE), 7,
+        Map.of(), Map.of());
+    MockApiService first = new MockApiService(List.of(book(1, "")), 1, weekly);
+    MockApiService second = new MockApiService(List.of(book(1, "")));
+    assertSame(weekly, first.getLoanCalendar());
+    assertSame(LoanCalendar.systemDefault(), second.getLoanCalendar());
+    assertEquals("2025-06-08", first.findById(1).checkoutCopy(first.getLoanCalendar()));
+    assertEquals(LocalDate.now().plusWeeks(2).toString(), book(2, "").checkoutCopy());
+  }
+}
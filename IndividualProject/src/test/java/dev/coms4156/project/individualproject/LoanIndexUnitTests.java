@@ -0,0 +1,128 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import dev.coms4156.project.individualproject.service.Loan;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.OverdueCount;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Unit tests for the due-date index of open loans behind the {@code /loans} endpoints.
+ */
+public class LoanIndexUnitTests {
+
+  private final LocalDate today = LocalDate.of(2025, 4, 15);
+  private MockApiService service;
+
+  private static Book book(int id, String... dueDates) {
+    Book book = new Book("Book " + id, new ArrayList<>(), "", "", "", "", new ArrayList<>(),
+        id, 3, 3 + dueDates.length);
+    book.setReturnDates(new ArrayList<>(List.of(dueDates)));
+    return book;
+  }
+
+  /**
+   * Sets up a catalog with loans due last week, yesterday and next week, on a fixed clock.
+   */
+  @BeforeEach
+  public void setUp() {
+    ZoneId zone = ZoneId.of("UTC");
+    LoanCalendar calendar = new LoanCalendar(
+        Clock.fixed(today.atTime(12, 0).atZone(zone).toInstant(), zone), 14, Map.of(),
+        Map.of());
+    String lastWeek = today.minusWeeks(1).toString();
+    String yesterday = today.minusDays(1).toString();
+    service = new MockApiService(List.of(
+        book(1, yesterday, lastWeek, lastWeek),
+        book(2, lastWeek, "not a date"),
+        book(3, today.plusWeeks(1).toString()),
+        book(4)), 4, calendar);
+  }
+
+  /**
+   * Tests that loaded loans are listed by due date and then id, one entry per day and book.
+   */
+  @Test
+  public void testOverdueLoans() {
+    List<Loan> overdue = service.getOverdueLoans(10);
+    assertEquals(List.of(
+        new Loan(1, "Book 1", today.minusWeeks(1).toString(), 2),
+        new Loan(2, "Book 2", today.minusWeeks(1).toString(), 1),
+        new Loan(1, "Book 1", today.minusDays(1).toString(), 1)), overdue);
+    assertEquals(overdue.subList(0, 2), service.getOverdueLoans(2));
+  }
+
+  /**
+   * Tests that checkouts and returns feed and drain the index.
+   */
+  @Test
+  public void testCheckoutAndReturn() {
+    LocalDate due = today.plusWeeks(2);
+    Book book = service.findById(4);
+    assertEquals(due.toString(), book.checkoutCopy(service.getLoanCalendar()));
+    assertEquals(due.toString(), book.checkoutCopy(service.getLoanCalendar()));
+    service.findById(3).checkoutCopy(service.getLoanCalendar());
+    assertEquals(List.of(new Loan(3, "Book 3", due.toString(), 1),
+        new Loan(4, "Book 4", due.toString(), 2)), service.getLoansDue(due, due, 10));
+
+    assertTrue(book.returnCopy(due.toString()));
+    assertTrue(service.findById(3).returnCopy(due.toString()));
+    assertEquals(List.of(new Loan(4, "Book 4", due.toString(), 1)),
+        service.getLoansDue(today, due, 10).subList(1, 2));
+    assertTrue(book.returnCopy(due.toString()));
+    assertEquals(1, service.getLoansDue(today, due.plusYears(1), 10).size());
+  }
+
+  /**
+   * Tests that replacing a book replaces its loans.
+   */
+  @Test
+  public void testUpdateReplacesLoans() {
+    service.updateBook(book(1, today.plusDays(3).toString()));
+    assertEquals(List.of(new Loan(2, "Book 2", today.minusWeeks(1).toString(), 1)),
+        service.getOverdueLoans(10));
+    assertEquals(List.of(new Loan(1, "Book 1", today.plusDays(3).toString(), 1)),
+        service.getLoansDue(today.plusDays(3), today.plusDays(3), 10));
+  }
+
+  /**
+   * Tests that the sweep counts overdue copies and keeps one count per day.
+   */
+  @Test
+  public void testSweep() {
+    assertEquals(new OverdueCount(today.toString(), 4), service.sweepOverdue());
+    service.findById(1).returnCopy(today.minusDays(1).toString());
+    service.sweepOverdue();
+    assertEquals(List.of(new OverdueCount(today.toString(), 3)), service.getOverdueHistory());
+  }
+
+  /**
+   * Tests the validation of the {@code /loans} endpoints.
+   */
+  @Test
+  public void testEndpoints() {
+    RouteController controller = new RouteController(service);
+    String from = today.minusWeeks(1).toString();
+    assertEquals(List.of(new Loan(1, "Book 1", from, 2), new Loan(2, "Book 2", from, 1)),
+        controller.getLoansDue(from, null, 100).getBody());
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.getLoansDue("next week", null, 100).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST,
+        controller.getLoansDue(today.toString(), from, 100).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, controller.getOverdueLoans(0).getStatusCode());
+    assertEquals(3, ((List<?>) controller.getOverdueLoans(100).getBody()).size());
+  }
+}
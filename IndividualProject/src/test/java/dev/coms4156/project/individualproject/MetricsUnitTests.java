@@ -0,0 +1,127 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.controller.BookJsonCache;
+import dev.coms4156.project.individualproject.controller.MetricsController;
+import dev.coms4156.project.individualproject.controller.RequestMetricsFilter;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogMetrics;
+import dev.coms4156.project.individualproject.service.LatencyHistogram;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LatencyHistogram, CatalogMetrics and MetricsController classes.
+ */
+public class MetricsUnitTests {
+
+  private MockApiService service;
+  private RouteController controller;
+
+  /**
+   * Sets up a catalog of ten books with two copies each.
+   */
+  @BeforeEach
+  public void setUp() {
+    List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 10; id++) {
+      books.add(new Book("Book " + id, new ArrayList<>(List.of("Author")), "eng", "eax",
+          "2001.", "Press", new ArrayList<>(List.of("Art")), id, 2, 2));
+    }
+    service = new MockApiService(books);
+    controller = new RouteController(service);
+  }
+
+  /**
+   * Tests that latencies land in the bucket whose bound is the first at or above them.
+   */
+  @Test
+  public void testHistogramBuckets() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(5_000L);
+    histogram.record(10_000L);
+    histogram.record(10_001L);
+    histogram.record(3_000_000L);
+    histogram.record(60_000_000_000L);
+
+    long[] counts = histogram.cumulativeCounts();
+    assertEquals(LatencyHistogram.boundCount() + 1, counts.length);
+    assertEquals("0.00001", LatencyHistogram.boundLabel(0));
+    assertEquals("10", LatencyHistogram.boundLabel(LatencyHistogram.boundCount() - 1));
+    assertEquals(2, counts[0]);
+    assertEquals(3, counts[1]);
+    assertEquals(3, counts[7]);
+    assertEquals(4, counts[8]);
+    assertEquals(4, counts[counts.length - 2]);
+    assertEquals(5, counts[counts.length - 1]);
+    assertEquals(60_003_025_001L, histogram.sumNanos());
+  }
+
+  /**
+   * Tests that inventory transitions and failed requests are counted and that the available
+   * copies gauge follows every change, including a replaced book.
+   */
+  @Test
+  public void testCatalogCounters() {
+    CatalogMetrics metrics = service.getMetrics();
+    assertEquals(20, metrics.getAvailableCopies());
+
+    controller.checkoutBook(1);
+    controller.checkoutBook(1);
+    controller.checkoutBook(1);
+    controller.checkoutBooks(List.of(2, 2, 2, 99));
+    controller.addCopy(3);
+    controller.addCopies(Map.of(4, 3));
+    service.findById(5).deleteCopy();
+    String due = service.findById(6).checkoutCopy();
+    service.findById(6).returnCopy(due);
+    controller.getBook(1000);
+
+    assertEquals(5, metrics.getCheckouts());
+    assertEquals(1, metrics.getReturns());
+    assertEquals(4, metrics.getCopiesAdded());
+    assertEquals(1, metrics.getCopiesDeleted());
+    assertEquals(2, metrics.getRefusedCheckouts());
+    assertEquals(2, metrics.getNotFound());
+    assertEquals(20 - 5 + 1 + 4 - 1, metrics.getAvailableCopies());
+
+    Book replacement = new Book("Replaced", new ArrayList<>(List.of("Author")), "eng", "eax",
+        "2001.", "Press", new ArrayList<>(List.of("Art")), 7, 5, 5);
+    service.updateBook(replacement);
+    assertEquals(19 + 3, metrics.getAvailableCopies());
+  }
+
+  /**
+   * Tests that the endpoint reports counters, gauges and histograms in the Prometheus format.
+   */
+  @Test
+  public void testPrometheusOutput() {
+    controller.checkoutBook(1);
+    controller.searchTitles("book", 5, null);
+    MetricsController endpoint = new MetricsController(service, new RequestMetricsFilter(),
+        new BookJsonCache(service, new ObjectMapper(), 1 << 20));
+
+    String text = endpoint.getMetrics().getBody();
+    assertEquals("text", endpoint.getMetrics().getHeaders().getContentType().getType());
+    assertTrue(text.contains("# TYPE library_checkouts_total counter\n"
+        + "library_checkouts_total 1\n"));
+    assertTrue(text.contains("library_catalog_books 10\n"));
+    assertTrue(text.contains("library_available_copies 19\n"));
+    assertTrue(text.contains("library_operation_duration_seconds_bucket"
+        + "{operation=\"title_search\",le=\"+Inf\"} 1\n"));
+    assertTrue(text.contains("library_operation_duration_seconds_count"
+        + "{operation=\"search\"} 0\n"));
+    assertTrue(text.contains("library_response_cache_misses_total 0\n"));
+    for (String line : text.split("\n")) {
+      assertTrue(line.startsWith("# ") || line.matches("[a-z_]+(\\{.*\\})? [0-9.E+-]+"), line);
+    }
+  }
+}
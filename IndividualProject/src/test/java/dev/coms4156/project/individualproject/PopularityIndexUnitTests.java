@@ -0,0 +1,63 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.PopularityIndex;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PopularityIndex class.
+ */
+public class PopularityIndexUnitTests {
+
+  /**
+   * Tests that top() orders by checkout count, then by ascending id.
+   */
+  @Test
+  public void testTopOrdersByCountThenId() {
+    PopularityIndex index = new PopularityIndex();
+    Book a = new Book("A", 1);
+    Book b = new Book("B", 2);
+    Book c = new Book("C", 3);
+    index.add(a);
+    index.add(b);
+    index.add(c);
+
+    c.checkoutCopy();
+    index.onCheckout(c);
+
+    List<Book> top = index.top(3);
+    assertEquals(3, top.get(0).getId());
+    assertEquals(1, top.get(1).getId());
+    assertEquals(2, top.get(2).getId());
+    assertEquals(1, index.top(1).size());
+    assertEquals(3, index.top(10).size());
+  }
+
+  /**
+   * Tests that the service keeps the index current across checkouts and updateBook().
+   */
+  @Test
+  public void testServiceTracksCheckoutsAndUpdates() {
+    ArrayList<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 5; id++) {
+      books.add(new Book("Book " + id, id));
+    }
+    MockApiService service = new MockApiService(books);
+
+    service.findById(4).checkoutCopy();
+    assertEquals(4, service.getMostPopular(1).get(0).getId());
+
+    Book replacement = new Book("Replacement", 4);
+    service.updateBook(replacement);
+    assertEquals(1, service.getMostPopular(1).get(0).getId());
+    assertEquals(5, service.getMostPopular(10).size());
+
+    replacement.checkoutCopy();
+    assertEquals("Replacement", service.getMostPopular(1).get(0).getTitle());
+  }
+}
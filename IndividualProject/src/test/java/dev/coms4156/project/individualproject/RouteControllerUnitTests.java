@@ -1,17 +1,33 @@
 package dev.coms4156.project.individualproject;
 
+import dev.coms4156.project.individualproject.controller.BulkReturnResult;
+import dev.coms4156.project.individualproject.controller.CheckoutResult;
+import dev.coms4156.project.individualproject.controller.CopyAddResult;
+import dev.coms4156.project.individualproject.controller.LoanReturn;
 import dev.coms4156.project.individualproject.controller.RouteController;
 import dev.coms4156.project.individualproject.model.Book;
 import dev.coms4156.project.individualproject.service.MockApiService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Locale;
 import java.util.Set;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
 * Unit tests for RouteController methods.
@@ -27,14 +43,9 @@ public class RouteControllerUnitTests {
   @BeforeEach
   public void setUp() {
     // Create a mock service with one book
-    mockApiService = new MockApiService() {
-        @Override
-        public ArrayList<Book> getBooks() {
-            ArrayList<Book> books = new ArrayList<>();
-            books.add(new Book("Manav Book", 1));
-            return books;
-        }
-    };
+    ArrayList<Book> books = new ArrayList<>();
+    books.add(new Book("Manav Book", 1));
+    mockApiService = new MockApiService(books);
     routeController = new RouteController(mockApiService);
   }
 
@@ -83,7 +94,7 @@ public class RouteControllerUnitTests {
     MockApiService service = new MockApiService();
     RouteController rc = new RouteController(service);
 
-    ResponseEntity<?> response = rc.getRecommendations();
+    ResponseEntity<?> response = rc.getRecommendations(5, null, null);
     Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
     Assertions.assertTrue(response.getBody() instanceof List<?>);
 
@@ -160,21 +171,68 @@ public class RouteControllerUnitTests {
   @Test
   public void testRecommendationsInsufficientBooks() {
     // service with fewer than 10 books.
-    mockApiService = new MockApiService() {
-      @Override
-      public ArrayList<Book> getBooks() {
-        ArrayList<Book> list = new ArrayList<>();
-        list.add(new Book("A", 301));
-        list.add(new Book("B", 302));
-        list.add(new Book("C", 303));
-        return list;
-      }
-    };
+    ArrayList<Book> list = new ArrayList<>();
+    list.add(new Book("A", 301));
+    list.add(new Book("B", 302));
+    list.add(new Book("C", 303));
+    mockApiService = new MockApiService(list);
 
     RouteController rc = new RouteController(mockApiService);
-    ResponseEntity<?> resp = rc.getRecommendations();
-    Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, resp.getStatusCode());
+    ResponseEntity<?> resp = rc.getRecommendations(5, null, null);
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, resp.getStatusCode());
     Assertions.assertEquals("Not enough books available for recommendations.", resp.getBody());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.getRecommendations(2, null, null).getStatusCode());
+    Assertions.assertEquals(HttpStatus.OK, rc.getRecommendations(1, null, null).getStatusCode());
+
+    // 2 * k would overflow to a negative number for these.
+    for (int k : new int[] {Integer.MAX_VALUE / 2 + 1, Integer.MAX_VALUE}) {
+      Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+          rc.getRecommendations(k, null, null).getStatusCode());
+    }
+  }
+
+  /**
+   * Tests getRecommendations() returns the k most checked-out books and rejects k below one.
+   */
+  @Test
+  public void testRecommendationsTopK() {
+    ArrayList<Book> list = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      list.add(new Book("Book " + id, id));
+    }
+    MockApiService service = new MockApiService(list);
+    RouteController rc = new RouteController(service);
+
+    // Make books 7, 3 and 12 the most popular, in that order.
+    for (int id : new int[] {7, 7, 7, 3, 3, 12}) {
+      Book book = service.findById(id);
+      book.returnCopy(book.checkoutCopy());
+    }
+
+    ResponseEntity<?> resp = rc.getRecommendations(3, null, null);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    @SuppressWarnings("unchecked")
+    List<Book> recs = (List<Book>) resp.getBody();
+    Assertions.assertEquals(6, recs.size());
+    Assertions.assertEquals(7, recs.get(0).getId());
+    Assertions.assertEquals(3, recs.get(1).getId());
+    Assertions.assertEquals(12, recs.get(2).getId());
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.getRecommendations(0, null, null).getStatusCode());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.getRecommendations(11, null, null).getStatusCode());
+  }
+
+  /**
+   * Tests getRecommendations() returns the same books for the same seed.
+   */
+  @Test
+  public void testRecommendationsSeeded() {
+    RouteController rc = new RouteController(new MockApiService());
+    Assertions.assertEquals(rc.getRecommendations(5, 42L, null).getBody(),
+        rc.getRecommendations(5, 42L, null).getBody());
   }
 
   /**
@@ -193,35 +251,30 @@ public class RouteControllerUnitTests {
    */
   @Test
   public void testGetAvailableBooks() {
-    mockApiService = new MockApiService() {
-      @Override
-      public ArrayList<Book> getBooks() {
-        ArrayList<Book> list = new ArrayList<>();
-        // default simple constructor has copiesAvailable = 1.
-        Book available = new Book("Available", 101);
-
-        // use the full constructor to set copiesAvailable = 0.
-        Book unavailable = new Book(
-            "Unavailable",
-            new ArrayList<>(),
-            "",
-            "",
-            "",
-            "",
-            new ArrayList<>(),
-            102,
-            0,
-            0
-        );
-
-        list.add(available);
-        list.add(unavailable);
-        return list;
-      }
-    };
+    ArrayList<Book> list = new ArrayList<>();
+    // default simple constructor has copiesAvailable = 1.
+    Book available = new Book("Available", 101);
+
+    // use the full constructor to set copiesAvailable = 0.
+    Book unavailable = new Book(
+        "Unavailable",
+        new ArrayList<>(),
+        "",
+        "",
+        "",
+        "",
+        new ArrayList<>(),
+        102,
+        0,
+        0
+    );
+
+    list.add(available);
+    list.add(unavailable);
+    mockApiService = new MockApiService(list);
 
     RouteController rc = new RouteController(mockApiService);
-    ResponseEntity<?> resp = rc.getAvailableBooks();
+    ResponseEntity<?> resp = rc.getAvailableBooks(null, null, false, null);
     Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
 
     @SuppressWarnings("unchecked")
@@ -231,6 +284,97 @@ public class RouteControllerUnitTests {
   }
 
 
+  /**
+   * Tests that getAvailableBooks() pages with limit/after and tracks inventory transitions.
+   */
+  @Test
+  public void testGetAvailableBooksPagination() {
+    ArrayList<Book> list = new ArrayList<>();
+    for (int id = 1; id <= 10; id++) {
+      list.add(new Book("Book " + id, id));
+    }
+    MockApiService service = new MockApiService(list);
+    RouteController rc = new RouteController(service);
+    rc.checkoutBook(2);
+    rc.checkoutBook(5);
+
+    ResponseEntity<?> first = rc.getAvailableBooks(3, null, false, null);
+    @SuppressWarnings("unchecked")
+    List<Book> page = (List<Book>) first.getBody();
+    Assertions.assertEquals(List.of(1, 3, 4), page.stream().map(Book::getId).toList());
+    Assertions.assertEquals("</books/available?limit=3&after=4>; rel=\"next\"",
+        first.getHeaders().getFirst(HttpHeaders.LINK));
+
+    service.findById(5).returnCopy(service.findById(5).getReturnDates().get(0));
+    ResponseEntity<?> second = rc.getAvailableBooks(3, 4, false, null);
+    @SuppressWarnings("unchecked")
+    List<Book> next = (List<Book>) second.getBody();
+    Assertions.assertEquals(List.of(5, 6, 7), next.stream().map(Book::getId).toList());
+
+    ResponseEntity<?> last = rc.getAvailableBooks(3, 7, false, null);
+    Assertions.assertEquals(3, ((List<?>) last.getBody()).size());
+    Assertions.assertNull(last.getHeaders().getFirst(HttpHeaders.LINK));
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.getAvailableBooks(0, null, false, null).getStatusCode());
+  }
+
+  /**
+   * Tests that getAvailableBooks() with stream=true serializes the same books as JSON.
+   */
+  @Test
+  public void testGetAvailableBooksStreaming() throws Exception {
+    ArrayList<Book> list = new ArrayList<>();
+    for (int id = 1; id <= 600; id++) {
+      list.add(new Book("Book " + id, id));
+    }
+    RouteController rc = new RouteController(new MockApiService(list));
+    rc.checkoutBook(300);
+
+    ResponseEntity<?> resp = rc.getAvailableBooks(null, 100, true, null);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    ObjectMapper mapper = new ObjectMapper();
+    List<Book> books = mapper.readValue(mapper.writeValueAsBytes(resp.getBody()),
+        new TypeReference<List<Book>>(){});
+    Assertions.assertEquals(499, books.size());
+    Assertions.assertEquals(101, books.get(0).getId());
+    Assertions.assertTrue(books.stream().noneMatch(b -> b.getId() == 300));
+  }
+
+  /**
+   * Tests that streamAvailableBooks() writes one available book per line and honours limit.
+   */
+  @Test
+  public void testStreamAvailableBooksNdjson() throws Exception {
+    ArrayList<Book> list = new ArrayList<>();
+    for (int id = 1; id <= 200; id++) {
+      list.add(new Book("Book " + id, id));
+    }
+    RouteController rc = new RouteController(new MockApiService(list));
+    rc.checkoutBook(150);
+
+    ResponseEntity<StreamingResponseBody> resp = rc.streamAvailableBooks(100, 90, null);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    Assertions.assertEquals("application/x-ndjson",
+        resp.getHeaders().getContentType().toString());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    resp.getBody().writeTo(out);
+
+    ObjectMapper mapper = new ObjectMapper();
+    String[] lines = out.toString().split("\n");
+    Assertions.assertEquals(100, lines.length);
+    List<Integer> ids = new ArrayList<>();
+    for (String line : lines) {
+      ids.add(mapper.readValue(line, Book.class).getId());
+    }
+    Assertions.assertEquals(91, (int) ids.get(0));
+    Assertions.assertEquals(191, (int) ids.get(99));
+    Assertions.assertFalse(ids.contains(150));
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.streamAvailableBooks(0, null, null).getStatusCode());
+  }
+
   /**
    * Tests addCopy() increments totalCopies and copiesAvailable.
    */
@@ -240,14 +384,9 @@ public class RouteControllerUnitTests {
     int beforeTotal = book.getTotalCopies();
     int beforeAvail = book.getCopiesAvailable();
 
-    mockApiService = new MockApiService() {
-      @Override
-      public ArrayList<Book> getBooks() {
-        ArrayList<Book> list = new ArrayList<>();
-        list.add(book);
-        return list;
-      }
-    };
+    ArrayList<Book> list = new ArrayList<>();
+    list.add(book);
+    mockApiService = new MockApiService(list);
 
     RouteController rc = new RouteController(mockApiService);
     ResponseEntity<?> resp = rc.addCopy(201);
@@ -268,6 +407,24 @@ public class RouteControllerUnitTests {
     Assertions.assertEquals("Book not found.", resp.getBody());
   }
 
+  /**
+   * Tests checkoutBook() replaces the stored book and getBook() finds it by id afterwards.
+   */
+  @Test
+  public void testCheckoutUsesIdIndex() {
+    ArrayList<Book> list = new ArrayList<>();
+    for (int id = 1000; id < 1100; id++) {
+      list.add(new Book("Indexed " + id, id));
+    }
+    RouteController rc = new RouteController(new MockApiService(list));
+
+    ResponseEntity<?> resp = rc.checkoutBook(1050);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    Book found = (Book) rc.getBook(1050).getBody();
+    Assertions.assertEquals(0, found.getCopiesAvailable());
+    Assertions.assertEquals(HttpStatus.NOT_FOUND, rc.getBook(1100).getStatusCode());
+  }
+
   /**
    * Tests getAvailableBooks() handles exceptions with 500.
    */
@@ -275,13 +432,13 @@ public class RouteControllerUnitTests {
   public void testGetAvailableBooksException() {
     mockApiService = new MockApiService() {
       @Override
-      public ArrayList<Book> getBooks() {
+      public Collection<Book> getAvailableBooks(Integer after) {
         throw new RuntimeException("Simulated failure");
       }
     };
 
     RouteController rc = new RouteController(mockApiService);
-    ResponseEntity<?> resp = rc.getAvailableBooks();
+    ResponseEntity<?> resp = rc.getAvailableBooks(null, null, false, null);
     Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, resp.getStatusCode());
     Assertions.assertEquals("Error occurred when getting all available books", resp.getBody());
   }
@@ -293,7 +450,7 @@ public class RouteControllerUnitTests {
   public void testAddCopyException() {
     mockApiService = new MockApiService() {
       @Override
-      public ArrayList<Book> getBooks() {
+      public Book findById(int id) {
         throw new RuntimeException("Simulated failure");
       }
     };
@@ -303,4 +460,189 @@ public class RouteControllerUnitTests {
     Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, resp.getStatusCode());
     Assertions.assertEquals("Error occurred when adding a copy.", resp.getBody());
   }
+
+  /**
+   * Tests returnBook() closes a loan and rejects unknown dates and books.
+   */
+  @Test
+  public void testReturnBook() {
+    Book book = mockApiService.findById(1);
+    String due = book.checkoutCopy();
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        routeController.returnBook(1, "1999-01-01").getStatusCode());
+    Assertions.assertEquals(HttpStatus.NOT_FOUND,
+        routeController.returnBook(2, due).getStatusCode());
+
+    ResponseEntity<?> resp = routeController.returnBook(1, due);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    Assertions.assertEquals(1, book.getCopiesAvailable());
+    Assertions.assertTrue(book.getReturnDates().isEmpty());
+    Assertions.assertEquals(1, mockApiService.getAvailableBooks(null).size());
+  }
+
+  /**
+   * Tests returnBooks() applies every matching return and reports the others.
+   */
+  @Test
+  public void testReturnBooksBulk() {
+    Book book = new Book("Popular", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 7, 3, 3);
+    book.checkoutCopy();
+    book.checkoutCopy();
+    RouteController rc = new RouteController(new MockApiService(List.of(book)));
+    String due = book.getReturnDates().get(0);
+
+    List<LoanReturn> returns = List.of(new LoanReturn(7, due), new LoanReturn(7, due),
+        new LoanReturn(7, due), new LoanReturn(8, due));
+    ResponseEntity<?> resp = rc.returnBooks(returns);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    BulkReturnResult result = (BulkReturnResult) resp.getBody();
+    Assertions.assertEquals(2, result.returned());
+    Assertions.assertEquals(List.of(new LoanReturn(7, due), new LoanReturn(8, due)),
+        result.rejected());
+    Assertions.assertEquals(3, book.getCopiesAvailable());
+  }
+
+  /**
+   * Tests returnBooks() rejects a missing entry, id or date before returning any copy.
+   */
+  @Test
+  public void testReturnBooksRejectsIncompleteEntries() throws Exception {
+    Book book = new Book("Popular", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 7, 3, 3);
+    book.checkoutCopy();
+    RouteController rc = new RouteController(new MockApiService(List.of(book)));
+    String due = book.getReturnDates().get(0);
+
+    List<LoanReturn> parsed = new ObjectMapper().readValue("[{\"date\": \"" + due + "\"}]",
+        new TypeReference<List<LoanReturn>>() {});
+    Assertions.assertNull(parsed.get(0).id());
+    for (LoanReturn bad : Arrays.asList(null, parsed.get(0), new LoanReturn(7, null))) {
+      Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+          rc.returnBooks(Arrays.asList(new LoanReturn(7, due), bad)).getStatusCode());
+    }
+    Assertions.assertEquals(2, book.getCopiesAvailable());
+  }
+
+  /**
+   * Tests checkoutBooks() groups repeated ids and reports each book once.
+   */
+  @Test
+  public void testCheckoutBooksBatch() {
+    Book book = new Book("Stack", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 7, 2, 2);
+    RouteController rc = new RouteController(new MockApiService(List.of(book)));
+
+    ResponseEntity<?> resp = rc.checkoutBooks(List.of(7, 9, 7, 7));
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    List<?> results = (List<?>) resp.getBody();
+    Assertions.assertEquals(2, results.size());
+    CheckoutResult stack = (CheckoutResult) results.get(0);
+    Assertions.assertEquals(3, stack.requested());
+    Assertions.assertEquals(2, stack.dueDates().size());
+    Assertions.assertEquals("No copy available.", stack.error());
+    Assertions.assertEquals("Book not found.", ((CheckoutResult) results.get(1)).error());
+    Assertions.assertEquals(0, book.getCopiesAvailable());
+    Assertions.assertEquals(2, book.getAmountOfTimesCheckedOut());
+  }
+
+  /**
+   * Tests checkoutBooks() rejects a null id before checking out any copy.
+   */
+  @Test
+  public void testCheckoutBooksRejectsNullIds() {
+    Book book = new Book("Stack", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 7, 2, 2);
+    RouteController rc = new RouteController(new MockApiService(List.of(book)));
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.checkoutBooks(Arrays.asList(7, null)).getStatusCode());
+    Assertions.assertEquals(2, book.getCopiesAvailable());
+    Assertions.assertEquals(0, book.getAmountOfTimesCheckedOut());
+  }
+
+  /**
+   * Tests addCopies() adds copies per book and rejects non-positive counts.
+   */
+  @Test
+  public void testAddCopiesBatch() {
+    Map<Integer, Integer> copies = new LinkedHashMap<>();
+    copies.put(1, 3);
+    copies.put(2, 1);
+    ResponseEntity<?> resp = routeController.addCopies(copies);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    List<?> results = (List<?>) resp.getBody();
+    Assertions.assertEquals(new CopyAddResult(1, 3, 4, null), results.get(0));
+    Assertions.assertEquals(new CopyAddResult(2, 0, 0, "Book not found."), results.get(1));
+    Assertions.assertEquals(4, mockApiService.findById(1).getCopiesAvailable());
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        routeController.addCopies(Map.of(1, 0)).getStatusCode());
+  }
+
+  /**
+   * Tests addCopies() rejects missing and oversized counts before adding any copy, and refuses
+   * to overflow a book's copy counts.
+   */
+  @Test
+  public void testAddCopiesBounds() {
+    Map<Integer, Integer> copies = new LinkedHashMap<>();
+    copies.put(1, 3);
+    copies.put(2, null);
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        routeController.addCopies(copies).getStatusCode());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        routeController.addCopies(Map.of(1, -1)).getStatusCode());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        routeController.addCopies(Map.of(1, 10_001)).getStatusCode());
+    Assertions.assertEquals(1, mockApiService.findById(1).getTotalCopies());
+
+    int most = Integer.MAX_VALUE - 5;
+    Book full = new Book("Full", new ArrayList<>(), "", "", "", "", new ArrayList<>(), 9, most,
+        most);
+    RouteController rc = new RouteController(new MockApiService(List.of(full)));
+    ResponseEntity<?> resp = rc.addCopies(Map.of(9, 10_000));
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    Assertions.assertEquals(new CopyAddResult(9, 0, most, "Too many copies."),
+        ((List<?>) resp.getBody()).get(0));
+    Assertions.assertEquals(most, full.getCopiesAvailable());
+  }
+
+  /**
+   * Tests searchBooks() on the bundled catalog, including values containing commas.
+   */
+  @Test
+  public void testSearchBooks() {
+    RouteController rc = new RouteController(new MockApiService());
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("author", "Baldwin, Gordon");
+    params.add("language", "ENG");
+    ResponseEntity<?> resp = rc.searchBooks(params);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    List<?> books = (List<?>) resp.getBody();
+    Assertions.assertEquals(1, books.size());
+    Assertions.assertEquals(2, ((Book) books.get(0)).getId());
+
+    params.add("op", "xor");
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, rc.searchBooks(params).getStatusCode());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.searchBooks(new LinkedMultiValueMap<>()).getStatusCode());
+  }
+
+  /**
+   * Tests searchTitles() on the bundled catalog.
+   */
+  @Test
+  public void testSearchTitles() {
+    MockApiService service = new MockApiService();
+    RouteController rc = new RouteController(service);
+    ResponseEntity<?> resp = rc.searchTitles("the ar", 3, null);
+    Assertions.assertEquals(HttpStatus.OK, resp.getStatusCode());
+    List<?> books = (List<?>) resp.getBody();
+    Assertions.assertEquals("The art of governance :", ((Book) books.get(0)).getTitle());
+
+    resp = rc.searchTitles("HANGUK KUNDAE", 3, null);
+    Assertions.assertEquals(List.of(service.findById(1)), resp.getBody());
+
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST, rc.searchTitles(" ", 10, null).getStatusCode());
+    Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+        rc.searchTitles("art", 0, null).getStatusCode());
+  }
 }
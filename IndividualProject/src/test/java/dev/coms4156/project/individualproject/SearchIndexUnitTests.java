@@ -0,0 +1,89 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.SearchIndex;
+import dev.coms4156.project.individualproject.service.SearchIndex.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SearchIndex class and catalog search in MockApiService.
+ */
+public class SearchIndexUnitTests {
+
+  private static Book book(int id, String author, String subject, String language) {
+    return new Book("Book " + id, new ArrayList<>(List.of(author)), language, "eax", "2001.",
+        "Press", new ArrayList<>(List.of(subject)), id, 1, 1);
+  }
+
+  /**
+   * Tests that terms ignore case and the trailing punctuation of catalog values.
+   */
+  @Test
+  public void testTermNormalization() {
+    assertEquals(SearchIndex.term(Field.AUTHOR, "Baldwin, Gordon,"),
+        SearchIndex.term(Field.AUTHOR, " baldwin, gordon"));
+    assertEquals(SearchIndex.term(Field.PUBLISHER, "Metropolitan Museum of Art ;"),
+        SearchIndex.term(Field.PUBLISHER, "metropolitan museum of art"));
+  }
+
+  /**
+   * Tests AND and OR queries across fields, on both sparse and dense posting lists.
+   */
+  @Test
+  public void testAndOrQueries() {
+    SearchIndex index = new SearchIndex();
+    for (int pos = 0; pos < 10000; pos++) {
+      index.add(pos, book(pos, pos % 3 == 0 ? "Common" : "Rare " + pos,
+          pos % 1000 == 0 ? "Egypt" : "Other", pos % 2 == 0 ? "eng" : "fre"));
+    }
+    String common = SearchIndex.term(Field.AUTHOR, "Common");
+    String egypt = SearchIndex.term(Field.SUBJECT, "Egypt");
+    String eng = SearchIndex.term(Field.LANGUAGE, "eng");
+    String fre = SearchIndex.term(Field.LANGUAGE, "fre");
+
+    assertArrayEquals(new int[] {0, 3000, 6000, 9000},
+        index.search(List.of(common, egypt, eng), true, pos -> true, 10));
+    assertArrayEquals(IntStream.range(0, 10000).filter(p -> p % 3 == 0 || p % 2 == 1).toArray(),
+        index.search(List.of(common, fre), false, pos -> true, Integer.MAX_VALUE));
+    assertArrayEquals(new int[] {0, 3},
+        index.search(List.of(common), true, pos -> true, 2));
+    assertArrayEquals(new int[] {3, 9},
+        index.search(List.of(common, fre), true, pos -> true, 2));
+    assertEquals(0, index.search(List.of(common, "unknown"), true, pos -> true, 10).length);
+  }
+
+  /**
+   * Tests that replacing a book moves it between posting lists.
+   */
+  @Test
+  public void testReplaceReindexes() {
+    SearchIndex index = new SearchIndex();
+    Book before = book(1, "Old Author", "Law", "eng");
+    index.add(0, before);
+    index.replace(0, before, book(1, "New Author", "Law", "eng"));
+    assertEquals(0, index.search(List.of(SearchIndex.term(Field.AUTHOR, "Old Author")), true,
+        pos -> true, 10).length);
+    assertArrayEquals(new int[] {0}, index.search(
+        List.of(SearchIndex.term(Field.AUTHOR, "New Author")), true, pos -> true, 10));
+  }
+
+  /**
+   * Tests that the service filters search results by availability.
+   */
+  @Test
+  public void testServiceSearchAvailability() {
+    Book out = book(1, "Shared", "Art", "eng");
+    out.checkoutCopy();
+    MockApiService service = new MockApiService(List.of(out, book(2, "Shared", "Art", "eng")));
+    List<String> terms = List.of(SearchIndex.term(Field.AUTHOR, "shared"));
+    assertEquals(2, service.search(terms, true, false, 10).size());
+    assertEquals(List.of(service.findById(2)), service.search(terms, true, true, 10));
+  }
+}
@@ -0,0 +1,187 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.SearchIndex;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for a MockApiService partitioned into several shards, checked against the same
+ * catalog held in a single shard.
+ */
+public class ShardedCatalogUnitTests {
+
+  private static final String[] WORDS = {"history", "art", "modern", "the", "of", "science",
+      "photography", "health", "public", "medicine"};
+
+  private MockApiService single;
+  private MockApiService sharded;
+
+  /**
+   * Builds a catalog of 2000 books, added in shuffled id order so that catalog order and id
+   * order differ.
+   */
+  private static List<Book> catalog() {
+    Random random = new Random(11);
+    List<Integer> ids = new ArrayList<>();
+    for (int id = 1; id <= 2000; id++) {
+      ids.add(id);
+    }
+    Collections.shuffle(ids, random);
+    List<Book> books = new ArrayList<>();
+    for (int id : ids) {
+      StringBuilder title = new StringBuilder();
+      int words = 1 + random.nextInt(6);
+      for (int i = 0; i < words; i++) {
+        title.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+      }
+      int copies = 1 + random.nextInt(3);
+      Book book = new Book(title.toString(),
+          new ArrayList<>(List.of("Author " + random.nextInt(50))), "eng", "eax", "2001.",
+          "Press " + random.nextInt(5), new ArrayList<>(List.of("Subject " + random.nextInt(20))),
+          id, copies, copies);
+      for (int i = random.nextInt(copies + 1); i > 0; i--) {
+        book.checkoutCopy();
+      }
+      books.add(book);
+    }
+    return books;
+  }
+
+  private static List<Integer> ids(Iterable<Book> books) {
+    List<Integer> ids = new ArrayList<>();
+    for (Book book : books) {
+      ids.add(book.getId());
+    }
+    return ids;
+  }
+
+  /**
+   * Builds the same catalog once in one shard and once in eight.
+   */
+  @BeforeEach
+  public void setUp() {
+    single = new MockApiService(catalog());
+    sharded = new MockApiService(catalog(), 5);
+  }
+
+  /**
+   * Tests that the shard count is rounded up to a power of two and that lookups and catalog
+   * order are the same as with a single shard.
+   */
+  @Test
+  public void testLookupsAndCatalogOrder() {
+    assertEquals(1, single.getShardCount());
+    assertEquals(8, sharded.getShardCount());
+    assertEquals(2000, sharded.getBookCount());
+    assertEquals(ids(single.getBooks()), ids(sharded.getBooks()));
+    assertEquals(1234, sharded.findById(1234).getId());
+    assertNull(sharded.findById(2001));
+  }
+
+  /**
+   * Tests that available books are merged from the shards in id order, also from a cursor.
+   */
+  @Test
+  public void testAvailableBooksMerged() {
+    assertEquals(ids(single.getAvailableBooks(null)), ids(sharded.getAvailableBooks(null)));
+    assertEquals(ids(single.getAvailableBooks(1500)), ids(sharded.getAvailableBooks(1500)));
+    assertEquals(single.getAvailableBooks(null).size(),
+        sharded.getAvailableBooks(null).size());
+
+    Book book = sharded.findById(1501);
+    book.checkoutCopies(book.getCopiesAvailable(), sharded.getLoanCalendar());
+    assertFalse(ids(sharded.getAvailableBooks(1500)).contains(1501));
+  }
+
+  /**
+   * Tests that the most popular books are merged by checkout count and then id.
+   */
+  @Test
+  public void testMostPopularMerged() {
+    for (int k : new int[] {1, 5, 40}) {
+      assertEquals(ids(single.getMostPopular(k)), ids(sharded.getMostPopular(k)));
+    }
+  }
+
+  /**
+   * Tests that attribute searches return the same books in the same catalog order.
+   */
+  @Test
+  public void testSearchMerged() {
+    List<String> author = List.of(SearchIndex.term(SearchIndex.Field.AUTHOR, "Author 7"));
+    List<String> mixed = List.of(SearchIndex.term(SearchIndex.Field.PUBLISHER, "Press 2"),
+        SearchIndex.term(SearchIndex.Field.SUBJECT, "Subject 3"));
+    for (int limit : new int[] {3, 10, 1000}) {
+      assertEquals(ids(single.search(author, true, false, limit)),
+          ids(sharded.search(author, true, false, limit)));
+      assertEquals(ids(single.search(mixed, true, true, limit)),
+          ids(sharded.search(mixed, true, true, limit)));
+      assertEquals(ids(single.search(mixed, false, false, limit)),
+          ids(sharded.search(mixed, false, false, limit)));
+    }
+  }
+
+  /**
+   * Tests that ranked title searches return the same books in the same order.
+   */
+  @Test
+  public void testTitleSearchMerged() {
+    for (String query : new String[] {"hi", "art", "modern sc", "the of", "public health "}) {
+      for (int k : new int[] {1, 10, 500}) {
+        assertEquals(ids(single.searchTitles(query, k)), ids(sharded.searchTitles(query, k)),
+            query + " k=" + k);
+      }
+    }
+  }
+
+  /**
+   * Tests that random books are distinct catalog books and skip the excluded ones.
+   */
+  @Test
+  public void testRandomBooksAcrossShards() {
+    List<Book> excluded = sharded.getMostPopular(5);
+    List<Book> sample = sharded.getRandomBooks(1995, excluded, new SplittableRandom(3));
+    Set<Integer> seen = new HashSet<>(ids(sample));
+    assertEquals(1995, seen.size());
+    for (Book book : excluded) {
+      assertFalse(seen.contains(book.getId()));
+    }
+    for (Book book : sample) {
+      assertSame(book, sharded.findById(book.getId()));
+    }
+    assertNull(sharded.getRandomBooks(1996, excluded, new SplittableRandom(3)));
+  }
+
+  /**
+   * Tests that a replaced book is re-indexed in its shard and keeps its place in catalog order.
+   */
+  @Test
+  public void testReplaceInShard() {
+    Book old = sharded.findById(77);
+    Book replacement = new Book("Zymurgy handbook", new ArrayList<>(List.of("Brewer")), "eng",
+        "eax", "2001.", "Press 9", new ArrayList<>(List.of("Brewing")), 77, 2, 2);
+    assertTrue(sharded.update(replacement));
+    assertSame(replacement, sharded.findById(77));
+    assertEquals(List.of(77), ids(sharded.searchTitles("zymu", 5)));
+    assertEquals(List.of(77), ids(sharded.search(
+        List.of(SearchIndex.term(SearchIndex.Field.AUTHOR, "Brewer")), true, false, 5)));
+    assertTrue(sharded.searchTitles(old.getTitle() + " ", 2000).stream()
+        .noneMatch(b -> b == old));
+    assertEquals(ids(single.getBooks()), ids(sharded.getBooks()));
+  }
+}
@@ -0,0 +1,138 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.TitleIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the TitleIndex class and title search in MockApiService.
+ */
+public class TitleIndexUnitTests {
+
+  private static Book book(int id, String title) {
+    return new Book(title, new ArrayList<>(List.of("Author")), "eng", "eax", "2001.", "Press",
+        new ArrayList<>(List.of("Art")), id, 1, 1);
+  }
+
+  private static TitleIndex index(String... titles) {
+    TitleIndex index = new TitleIndex();
+    for (int pos = 0; pos < titles.length; pos++) {
+      index.add(pos, book(pos, titles[pos]));
+    }
+    return index;
+  }
+
+  /**
+   * Tests that case, accents and punctuation are ignored on both sides.
+   */
+  @Test
+  public void testFolding() {
+    TitleIndex index = index("Les Mis\u00e9rables /", "Cin\u00e9ma: a history", "Other");
+    assertArrayEquals(new int[] {0}, index.search("les miserables", 10));
+    assertArrayEquals(new int[] {0}, index.search("MIS\u00c9R", 10));
+    assertArrayEquals(new int[] {1}, index.search("cinema history ", 10));
+  }
+
+  /**
+   * Tests that only the last word is matched as a prefix, and only while it is being typed.
+   */
+  @Test
+  public void testPrefixOnlyOnLastWord() {
+    TitleIndex index = index("Photography now", "Photo album", "Phototherapy");
+    assertArrayEquals(new int[] {2, 0, 1}, index.search("photo", 10));
+    assertArrayEquals(new int[] {1}, index.search("photo ", 10));
+    assertArrayEquals(new int[0], index.search("phot album", 10));
+    assertArrayEquals(new int[] {1}, index.search("album ph", 10));
+    // A single trailing letter is ignored rather than matched against every word.
+    assertArrayEquals(new int[] {1}, index.search("album p", 10));
+    assertArrayEquals(new int[0], index.search("p", 10));
+  }
+
+  /**
+   * Tests that shorter titles rank first and that ties keep catalog order.
+   */
+  @Test
+  public void testRanking() {
+    TitleIndex index = index("A history of the modern world", "World history", "Modern art",
+        "History", "History of art");
+    assertArrayEquals(new int[] {3, 1, 4, 0}, index.search("history", 10));
+    assertArrayEquals(new int[] {3, 1}, index.search("hist", 2));
+    assertArrayEquals(new int[] {1, 0}, index.search("world history", 10));
+  }
+
+  /**
+   * Tests that ranking agrees with a brute-force scan on a catalog of common words, where the
+   * index stops early instead of scoring every match.
+   */
+  @Test
+  public void testRankingMatchesBruteForce() {
+    String[] words = {"history", "of", "the", "modern", "world", "art", "photography"};
+    Random random = new Random(7);
+    String[] titles = new String[20000];
+    for (int pos = 0; pos < titles.length; pos++) {
+      String[] title = new String[1 + random.nextInt(6)];
+      for (int i = 0; i < title.length; i++) {
+        title[i] = words[random.nextInt(words.length)];
+      }
+      titles[pos] = String.join(" ", title);
+    }
+    TitleIndex index = index(titles);
+
+    for (String query : List.of("history", "the wor", "of art ", "modern modern ph", "art of")) {
+      String[] typed = query.split(" ");
+      boolean prefix = !query.endsWith(" ");
+      int[] expected = IntStream.range(0, titles.length)
+          .filter(pos -> {
+            List<String> title = Arrays.asList(titles[pos].split(" "));
+            for (int i = 0; i < typed.length; i++) {
+              String word = typed[i];
+              boolean last = prefix && i == typed.length - 1;
+              if (!title.stream().anyMatch(w -> last ? w.startsWith(word) : w.equals(word))) {
+                return false;
+              }
+            }
+            return true;
+          })
+          .boxed()
+          .sorted(Comparator.comparingInt(pos -> titles[pos].split(" ").length))
+          .limit(25)
+          .mapToInt(Integer::intValue)
+          .toArray();
+      assertArrayEquals(expected, index.search(query, 25), query);
+    }
+  }
+
+  /**
+   * Tests that replacing a book re-indexes its title.
+   */
+  @Test
+  public void testReplaceReindexes() {
+    TitleIndex index = new TitleIndex();
+    Book before = book(1, "Old title");
+    index.add(0, before);
+    index.replace(0, before, book(1, "New title"));
+    assertEquals(0, index.search("old", 10).length);
+    assertArrayEquals(new int[] {0}, index.search("new tit", 10));
+  }
+
+  /**
+   * Tests that the service maps ranked positions back to books.
+   */
+  @Test
+  public void testServiceSearchTitles() {
+    MockApiService service = new MockApiService(List.of(book(1, "Egyptian art of the Old "
+        + "Kingdom"), book(2, "Egyptian art")));
+    assertEquals(List.of(service.findById(2), service.findById(1)),
+        service.searchTitles("egyptian ar", 10));
+  }
+}
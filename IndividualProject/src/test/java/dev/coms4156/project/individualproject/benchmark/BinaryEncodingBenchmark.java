@@ -0,0 +1,110 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.CborDecoder;
+import dev.coms4156.project.individualproject.controller.BookCborConverter;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+/**
+ * Compares the JSON and CBOR forms of a page of available books: the time to encode the page
+ * without the response cache, and the time a client takes to decode it into a tree. The
+ * payload sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BinaryEncodingBenchmark {
+
+  @Param({"100", "1000"})
+  public int pageSize;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final BookCborConverter cbor = new BookCborConverter();
+  private Object page;
+  private byte[] jsonBytes;
+  private byte[] cborBytes;
+
+  /**
+   * Collects the body of a response in memory.
+   */
+  private static final class BufferedMessage implements HttpOutputMessage {
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body;
+
+    BufferedMessage(int size) {
+      body = new ByteArrayOutputStream(size);
+    }
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+
+  /**
+   * Builds a catalog, takes a page of it and encodes the page both ways.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    ArrayList<Book> books = SyntheticCatalog.generate(10000, 42L);
+    page = new RouteController(new MockApiService(books))
+        .getAvailableBooks(pageSize, null, false, null).getBody();
+    jsonBytes = encodeJson();
+    cborBytes = encodeCbor();
+    System.out.printf("%d books: JSON %d bytes, CBOR %d bytes (%.1f%%)%n", pageSize,
+        jsonBytes.length, cborBytes.length, 100.0 * cborBytes.length / jsonBytes.length);
+  }
+
+  @Benchmark
+  public byte[] encodeJson() throws IOException {
+    return mapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] encodeCbor() throws IOException {
+    BufferedMessage message = new BufferedMessage(jsonBytes == null ? 256 : jsonBytes.length);
+    cbor.write(page, MediaType.APPLICATION_CBOR, message);
+    return message.body.toByteArray();
+  }
+
+  @Benchmark
+  public JsonNode decodeJson() throws IOException {
+    return mapper.readTree(jsonBytes);
+  }
+
+  @Benchmark
+  public JsonNode decodeCbor() {
+    return CborDecoder.decode(cborBytes);
+  }
+}
@@ -0,0 +1,76 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogLoader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained per book once a catalog has been loaded from JSON, reported as the
+ * {@code bytesPerBook} secondary result. Books are bound from JSON rather than generated, so
+ * every string starts out as a separate instance exactly as at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, batchSize = 1)
+@Measurement(iterations = 3, batchSize = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g", "-XX:+UseSerialGC"})
+public class BookFootprintBenchmark {
+
+  @Param({"100000", "1000000"})
+  public int catalogSize;
+
+  private byte[] json;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    json = new ObjectMapper().writeValueAsBytes(SyntheticCatalog.generate(catalogSize, 42L));
+  }
+
+  /**
+   * The retained heap of the last catalog loaded by the thread.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long bytesPerBook;
+  }
+
+  /**
+   * Loads the catalog and records how much heap it retains after a full collection.
+   */
+  @Benchmark
+  public List<Book> retainedHeap(Footprint footprint) throws IOException {
+    long before = usedHeap();
+    List<Book> books = new ArrayList<>(catalogSize);
+    new CatalogLoader(1, 1024).load(new ByteArrayInputStream(json), books::add);
+    footprint.bytesPerBook = (usedHeap() - before) / catalogSize;
+    return books;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
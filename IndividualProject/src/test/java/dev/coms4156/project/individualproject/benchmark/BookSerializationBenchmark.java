@@ -0,0 +1,156 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.BookField;
+import dev.coms4156.project.individualproject.model.BookSerializer;
+import dev.coms4156.project.individualproject.model.Inventory;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Jackson serialization of single books and of whole catalog lists, with the
+ * hand-written {@link BookSerializer}, with the bean serialization it replaced, and with a
+ * projection to two fields. The catalog runs also report the bytes written per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class BookSerializationBenchmark {
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int catalogSize;
+
+  private static final Set<BookField> PROJECTION =
+      BookField.parse("title,copiesAvailable");
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final ObjectMapper reflective =
+      new ObjectMapper().addMixIn(Book.class, ReflectiveBook.class);
+  private ArrayList<Book> books;
+  private Book book;
+
+  /**
+   * Restores the bean serialization that Book used before it had its own serializer.
+   */
+  @JsonSerialize(using = JsonSerializer.None.class)
+  @JsonPropertyOrder({"title", "authors", "language", "shelvingLocation", "publicationDate",
+      "publisher", "subjects", "id", "inventory"})
+  abstract static class ReflectiveBook {
+    @JsonIgnore(false)
+    @JsonUnwrapped
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    abstract Inventory getInventory();
+  }
+
+  /**
+   * Counts the bytes written by a thread, reported by JMH as bytes per second.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Written {
+    public long bytes;
+  }
+
+  /**
+   * Discards its input, counting it.
+   */
+  private static final class CountingSink extends OutputStream {
+    long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+
+  /**
+   * Builds the catalog to serialize.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    books = SyntheticCatalog.generate(catalogSize, 42L);
+    book = books.get(0);
+  }
+
+  @Benchmark
+  public byte[] serializeBook() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(book);
+  }
+
+  @Benchmark
+  public byte[] serializeBookReflective() throws JsonProcessingException {
+    return reflective.writeValueAsBytes(book);
+  }
+
+  /**
+   * Streams the whole catalog to a discarding sink, as a list endpoint would.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void serializeCatalog(Written written) throws IOException {
+    CountingSink sink = new CountingSink();
+    mapper.writeValue(sink, books);
+    written.bytes += sink.count;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void serializeCatalogReflective(Written written) throws IOException {
+    CountingSink sink = new CountingSink();
+    reflective.writeValue(sink, books);
+    written.bytes += sink.count;
+  }
+
+  /**
+   * Streams the title and availability of every book, as {@code ?fields=} would.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void serializeCatalogProjected(Written written) throws IOException {
+    CountingSink sink = new CountingSink();
+    try (JsonGenerator gen = mapper.getFactory().createGenerator(sink)) {
+      gen.writeStartArray();
+      for (Book each : books) {
+        BookSerializer.write(each, gen, PROJECTION);
+      }
+      gen.writeEndArray();
+    }
+    written.bytes += sink.count;
+  }
+}
@@ -0,0 +1,98 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.CatalogProperties;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long MockApiService takes to load a catalog at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class CatalogLoadBenchmark {
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int catalogSize;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private Path catalogFile;
+
+  /**
+   * Writes a synthetic catalog of the requested size to a temporary JSON file.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    catalogFile = Files.createTempFile("books-" + catalogSize, ".json");
+    mapper.writeValue(catalogFile.toFile(), SyntheticCatalog.generate(catalogSize, 42L));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(catalogFile);
+  }
+
+  /**
+   * Loads the bundled {@code mockdata/books.json} exactly as the application does at startup.
+   */
+  @Benchmark
+  public MockApiService loadBundledCatalog() {
+    return new MockApiService();
+  }
+
+  /**
+   * Binding thread count for the streaming loader; kept in its own state so that it does not
+   * multiply the runs of the other benchmarks.
+   */
+  @State(Scope.Benchmark)
+  public static class LoaderThreads {
+    @Param({"1", "4"})
+    public int threads;
+  }
+
+  /**
+   * Streams the synthetic catalog file into a service, as the application does at startup.
+   */
+  @Benchmark
+  public MockApiService streamSyntheticCatalog(LoaderThreads loader) {
+    CatalogProperties properties = new CatalogProperties();
+    properties.setSource(catalogFile.toString());
+    properties.setLoadThreads(loader.threads);
+    return new MockApiService(properties);
+  }
+
+  /**
+   * Parses the whole synthetic catalog file into a list first, then indexes it.
+   */
+  @Benchmark
+  public MockApiService loadSyntheticCatalog() throws IOException {
+    try (InputStream is = Files.newInputStream(catalogFile)) {
+      ArrayList<Book> books = mapper.readValue(is, new TypeReference<ArrayList<Book>>(){});
+      return new MockApiService(books);
+    }
+  }
+}
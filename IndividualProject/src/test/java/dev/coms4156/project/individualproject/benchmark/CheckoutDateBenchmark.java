@@ -0,0 +1,70 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.LoanCalendar;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dating a loan with the {@link LoanCalendar} against computing the due date from
+ * {@code LocalDate.now()} on every checkout, and a checkout followed by its return. Run it with
+ * the GC profiler to see the allocation rate per operation:
+ * {@code -Djmh.args="CheckoutDateBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutDateBenchmark {
+
+  private LoanCalendar calendar;
+  private Book book;
+
+  /**
+   * Creates a calendar on the system clock with a loan period for the book's location.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    calendar = new LoanCalendar(Clock.systemDefaultZone(), 14, Map.of("glx", 7), Map.of());
+    book = new Book("Checked out", new ArrayList<>(), "eng", "glx", "2001.", "Press",
+        new ArrayList<>(), 1, 1, 1);
+  }
+
+  /**
+   * The due date as computed before the calendar existed.
+   */
+  @Benchmark
+  public String nowPlusWeeks() {
+    return LocalDate.now().plusWeeks(2).toString();
+  }
+
+  @Benchmark
+  public String calendarDueDate() {
+    return LoanCalendar.format(calendar.dueDay(book));
+  }
+
+  /**
+   * Checks out the only copy and returns it, so the book stays in a steady state. The
+   * remaining allocations are the new inventory versions and parsing the returned date.
+   */
+  @Benchmark
+  public boolean checkoutAndReturn() {
+    return book.returnCopy(book.checkoutCopy(calendar));
+  }
+}
@@ -0,0 +1,79 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.InventoryLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures durable inventory changes per second when many request threads share the
+ * write-ahead log, so that their records are committed together by one {@code fsync}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class InventoryLogBenchmark {
+
+  private Path dir;
+  private InventoryLog log;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("wal-bench");
+    log = InventoryLog.open(dir);
+  }
+
+  /**
+   * Closes the log and deletes its segments.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    log.close();
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Each thread changes its own book, logs it and waits until the record is durable.
+   */
+  @State(Scope.Thread)
+  public static class ThreadBook {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private final Book book = new Book("Benchmark", NEXT_ID.incrementAndGet());
+  }
+
+  /**
+   * Logs one copy change and waits for it to be forced to disk.
+   */
+  @Benchmark
+  public boolean durableCopyChange(ThreadBook state) {
+    state.book.addCopy();
+    log.append(state.book);
+    return log.awaitDurable();
+  }
+}
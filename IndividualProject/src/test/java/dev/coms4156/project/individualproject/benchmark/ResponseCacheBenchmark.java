@@ -0,0 +1,163 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.controller.BookJsonCache;
+import dev.coms4156.project.individualproject.controller.BookJsonConverter;
+import dev.coms4156.project.individualproject.controller.CatalogValidators;
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.ServerHttpResponse;
+
+/**
+ * Measures writing book responses from the response cache against serializing them on every
+ * request, for a hot book and for a page of available books, and revalidating a page by its
+ * contents against revalidating it by the catalog version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ResponseCacheBenchmark {
+
+  @Param({"100000"})
+  public int catalogSize;
+
+  private BookJsonConverter cached;
+  private BookJsonConverter uncached;
+  private Book book;
+  private Object page;
+  private String bookTag;
+  private String pageTag;
+  private CatalogValidators validators;
+  private String catalogTag;
+
+  /**
+   * Discards the body, as a client on a fast network would.
+   */
+  private static final class DiscardedResponse implements ServerHttpResponse {
+    private final HttpHeaders headers = new HttpHeaders();
+
+    @Override
+    public void setStatusCode(HttpStatusCode status) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public OutputStream getBody() {
+      return OutputStream.nullOutputStream();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
+
+  /**
+   * Builds the catalog and one converter with a cache and one without.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    ArrayList<Book> books = SyntheticCatalog.generate(catalogSize, 42L);
+    MockApiService service = new MockApiService(books);
+    ObjectMapper mapper = new ObjectMapper();
+    cached = new BookJsonConverter(new BookJsonCache(service, mapper, 64L << 20));
+    uncached = new BookJsonConverter(new BookJsonCache(service, mapper, 0));
+    book = books.get(0);
+    page = new RouteController(service).getAvailableBooks(100, null, false, null).getBody();
+
+    DiscardedResponse response = new DiscardedResponse();
+    cached.writeConditional(book, null, response);
+    bookTag = response.getHeaders().getETag();
+    response = new DiscardedResponse();
+    cached.writeConditional(page, null, response);
+    pageTag = response.getHeaders().getETag();
+    validators = new CatalogValidators(service, Clock.systemUTC());
+    catalogTag = validators.current().etag();
+  }
+
+  @Benchmark
+  public HttpHeaders cachedBook() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    cached.writeConditional(book, null, response);
+    return response.getHeaders();
+  }
+
+  @Benchmark
+  public HttpHeaders uncachedBook() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    uncached.writeConditional(book, null, response);
+    return response.getHeaders();
+  }
+
+  /**
+   * A revalidation by a client that already holds the current version.
+   */
+  @Benchmark
+  public HttpHeaders revalidatedBook() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    cached.writeConditional(book, bookTag, response);
+    return response.getHeaders();
+  }
+
+  @Benchmark
+  public HttpHeaders cachedPage() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    cached.writeConditional(page, null, response);
+    return response.getHeaders();
+  }
+
+  @Benchmark
+  public HttpHeaders uncachedPage() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    uncached.writeConditional(page, null, response);
+    return response.getHeaders();
+  }
+
+  /**
+   * A revalidation of a page whose tag is computed from the cached books on it.
+   */
+  @Benchmark
+  public HttpHeaders revalidatedPage() throws IOException {
+    DiscardedResponse response = new DiscardedResponse();
+    cached.writeConditional(page, pageTag, response);
+    return response.getHeaders();
+  }
+
+  /**
+   * A revalidation of a page by the catalog version, before the page is even built.
+   */
+  @Benchmark
+  public boolean revalidatedPageByVersion() {
+    return validators.current().etag().equals(catalogTag);
+  }
+}
@@ -0,0 +1,143 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Measures the RouteController endpoints against synthetic catalogs of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class RouteControllerBenchmark {
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int catalogSize;
+
+  private MockApiService service;
+  private RouteController controller;
+  private int[] ids;
+  private String dueDate;
+  private MultiValueMap<String, String> selectiveSearch;
+  private MultiValueMap<String, String> broadSearch;
+
+  /**
+   * Builds the catalog and the controller under test.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    ArrayList<Book> books = SyntheticCatalog.generate(catalogSize, 42L);
+    ids = SyntheticCatalog.randomIds(books, 1 << 16, 7L);
+    service = new MockApiService(books);
+    controller = new RouteController(service);
+    dueDate = LocalDate.now().plusWeeks(2).toString();
+
+    selectiveSearch = new LinkedMultiValueMap<>();
+    selectiveSearch.add("subject", "Subject 7");
+    selectiveSearch.add("language", "eng");
+    broadSearch = new LinkedMultiValueMap<>();
+    broadSearch.add("language", "eng");
+    broadSearch.add("language", "fre");
+    broadSearch.add("op", "or");
+    broadSearch.add("available", "true");
+    broadSearch.add("limit", "100");
+  }
+
+  /**
+   * Per-thread cursor into the shared array of random ids.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    int nextId(int[] ids) {
+      next = (next + 1) & (ids.length - 1);
+      return ids[next];
+    }
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getBook(Cursor cursor) {
+    return controller.getBook(cursor.nextId(ids));
+  }
+
+  /**
+   * Checks out a copy and immediately returns it so the catalog stays in a steady state.
+   */
+  @Benchmark
+  public ResponseEntity<?> checkoutBook(Cursor cursor) {
+    int id = cursor.nextId(ids);
+    ResponseEntity<?> response = controller.checkoutBook(id);
+    service.findById(id).returnCopy(dueDate);
+    return response;
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getAvailableBooks() {
+    return controller.getAvailableBooks(null, null, false, null);
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getAvailableBooksPage(Cursor cursor) {
+    return controller.getAvailableBooks(100, cursor.nextId(ids), false, null);
+  }
+
+  /**
+   * An AND of a rare subject with a common language.
+   */
+  @Benchmark
+  public ResponseEntity<?> searchSelective() {
+    return controller.searchBooks(selectiveSearch);
+  }
+
+  /**
+   * The first page of an OR of two common languages, filtered by availability.
+   */
+  @Benchmark
+  public ResponseEntity<?> searchBroadPage() {
+    return controller.searchBooks(broadSearch);
+  }
+
+  /**
+   * A two-letter title prefix, as typed into a search box.
+   */
+  @Benchmark
+  public ResponseEntity<?> searchTitlePrefix() {
+    return controller.searchTitles("ph", 10, null);
+  }
+
+  /**
+   * A title query of two whole words and a partly typed one.
+   */
+  @Benchmark
+  public ResponseEntity<?> searchTitleWords() {
+    return controller.searchTitles("modern art sci", 10, null);
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getRecommendations() {
+    return controller.getRecommendations(5, null, null);
+  }
+}
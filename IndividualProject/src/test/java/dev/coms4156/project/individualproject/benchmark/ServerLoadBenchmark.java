@@ -0,0 +1,134 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.IndividualProjectApplication;
+import dev.coms4156.project.individualproject.model.Book;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load-tests the running application over HTTP with far more concurrent clients than Tomcat
+ * has platform threads, comparing the default thread pool with virtual threads. Copy changes
+ * wait for the write-ahead log to be forced to disk, which is where a thread pool saturates;
+ * book reads never block. Use the {@code SampleTime} results for p99 latency.
+ *
+ * <p>The {@code virtual} runs need Java 21 ({@code -Pjava21}). The fork traces pinned virtual
+ * threads, so any lock held across a blocking call shows up as a stack trace in the output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Djdk.tracePinnedThreads=short"})
+@Threads(1000)
+public class ServerLoadBenchmark {
+
+  @Param({"platform", "virtual"})
+  public String threads;
+
+  @Param({"100000"})
+  public int catalogSize;
+
+  private Path dir;
+  private ConfigurableApplicationContext app;
+  private HttpClient client;
+  private String base;
+  private int[] ids;
+
+  /**
+   * Starts the application on a synthetic catalog with the write-ahead log enabled.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    if (threads.equals("virtual") && Runtime.version().feature() < 21) {
+      throw new IllegalStateException("Virtual threads need Java 21; build with -Pjava21.");
+    }
+    dir = Files.createTempDirectory("load-bench");
+    ArrayList<Book> books = SyntheticCatalog.generate(catalogSize, 42L);
+    ids = SyntheticCatalog.randomIds(books, 1 << 16, 7L);
+    Path catalog = dir.resolve("books.json");
+    new ObjectMapper().writeValue(catalog.toFile(), books);
+
+    app = new SpringApplicationBuilder(IndividualProjectApplication.class).run(
+        "--server.port=0",
+        "--spring.main.banner-mode=off",
+        "--logging.level.root=warn",
+        "--catalog.source=" + catalog,
+        "--catalog.wal=" + dir.resolve("wal"),
+        "--spring.threads.virtual.enabled=" + threads.equals("virtual"));
+    int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+    base = "http://localhost:" + port;
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  /**
+   * Stops the application and deletes the catalog and its log.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    app.close();
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Per-thread cursor into the shared array of random ids.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    int nextId(int[] ids) {
+      next = (next + 1) & (ids.length - 1);
+      return ids[next];
+    }
+  }
+
+  @Benchmark
+  public int getBook(Cursor cursor) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/book/" + cursor.nextId(ids)))
+        .GET().build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  /**
+   * Adds a copy, which is acknowledged only once the log has been forced to disk.
+   */
+  @Benchmark
+  public int addCopy(Cursor cursor) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+        URI.create(base + "/book/" + cursor.nextId(ids) + "/add"))
+        .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+}
@@ -0,0 +1,81 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures catalog writes per second from many threads with the catalog in one shard and in
+ * several. Replacing a book re-indexes its attributes and title under its shard's locks, so
+ * with one shard the writers queue behind each other and with one shard per core they
+ * proceed in parallel. Run with {@code -t 1}, {@code -t 2}, {@code -t 4} and so on to see
+ * throughput scale with the number of writer threads; the title search shows what walking
+ * every shard's postings together costs a query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(8)
+public class ShardedCatalogBenchmark {
+
+  @Param({"1", "8"})
+  public int shards;
+
+  @Param({"100000"})
+  public int catalogSize;
+
+  private MockApiService service;
+  private Book[] templates;
+
+  /**
+   * Builds the catalog in the given number of shards.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<Book> books = SyntheticCatalog.generate(catalogSize, 42L);
+    templates = books.toArray(new Book[0]);
+    service = new MockApiService(SyntheticCatalog.generate(catalogSize, 42L), shards);
+  }
+
+  /**
+   * Per-thread source of the books to replace.
+   */
+  @State(Scope.Thread)
+  public static class Picker {
+    private final SplittableRandom random = new SplittableRandom();
+  }
+
+  /**
+   * Replaces a random book with an edited copy, as a catalog update would.
+   */
+  @Benchmark
+  public boolean replaceBook(Picker picker) {
+    Book t = templates[picker.random.nextInt(templates.length)];
+    return service.update(new Book(t.getTitle(), t.getAuthors(), t.getLanguage(),
+        t.getShelvingLocation(), t.getPublicationDate(), t.getPublisher(), t.getSubjects(),
+        t.getId(), t.getTotalCopies(), t.getTotalCopies()));
+  }
+
+  @Benchmark
+  public int searchTitles() {
+    return service.searchTitles("modern hi", 10).size();
+  }
+}
@@ -0,0 +1,89 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic catalogs for the benchmarks. Languages, publishers,
+ * shelving locations, authors and subjects are drawn from small pools so that they repeat
+ * across books the way they do in the real CLIO data.
+ */
+public final class SyntheticCatalog {
+
+  private static final String[] LANGUAGES = {"eng", "fre", "ger", "spa", "chi", "kor", "jpn"};
+  private static final String[] LOCATIONS = {"eax", "fax", "off,utn", "off,glx", "but", "mil"};
+  private static final String[] WORDS = {"history", "of", "the", "modern", "world", "art",
+      "science", "photography", "medicine", "law", "economics", "poetry", "china", "egypt",
+      "introduction", "collected", "works", "theory", "practice", "public", "health"};
+
+  private SyntheticCatalog() {
+  }
+
+  /**
+   * Generates a catalog with ids {@code 1..size}.
+   *
+   * @param size The number of books to generate.
+   * @param seed The seed for the random generator.
+   * @return A new list of {@code size} books.
+   */
+  public static ArrayList<Book> generate(int size, long seed) {
+    Random random = new Random(seed);
+    ArrayList<Book> books = new ArrayList<>(size);
+    for (int id = 1; id <= size; id++) {
+      int copies = 1 + random.nextInt(4);
+      Book book = new Book(title(random), names(random, "Author ", 1 + random.nextInt(3),
+          Math.max(size / 4, 1)), pick(random, LANGUAGES), pick(random, LOCATIONS),
+          (1900 + random.nextInt(125)) + ".", "Publisher " + random.nextInt(500) + ",",
+          names(random, "Subject ", 1 + random.nextInt(3), 2000), id, copies, copies);
+      int checkouts = random.nextInt(copies + 1);
+      for (int i = 0; i < checkouts; i++) {
+        book.checkoutCopy();
+      }
+      books.add(book);
+    }
+    return books;
+  }
+
+  private static String title(Random random) {
+    StringBuilder title = new StringBuilder();
+    int words = 2 + random.nextInt(5);
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        title.append(' ');
+      }
+      title.append(pick(random, WORDS));
+    }
+    return title.append(" /").toString();
+  }
+
+  private static ArrayList<String> names(Random random, String prefix, int count, int pool) {
+    ArrayList<String> names = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      names.add(prefix + random.nextInt(pool));
+    }
+    return names;
+  }
+
+  private static String pick(Random random, String[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  /**
+   * Returns the ids of {@code books} in a shuffled order, used to spread lookups evenly.
+   *
+   * @param books The catalog.
+   * @param count The number of ids to draw.
+   * @param seed The seed for the random generator.
+   * @return An array of {@code count} ids of books in the catalog.
+   */
+  public static int[] randomIds(List<Book> books, int count, long seed) {
+    Random random = new Random(seed);
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = books.get(random.nextInt(books.size())).getId();
+    }
+    return ids;
+  }
+}